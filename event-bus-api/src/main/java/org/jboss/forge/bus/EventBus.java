@@ -10,10 +10,23 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.spi.BeanManager;
@@ -27,7 +40,14 @@ import org.jboss.forge.bus.spi.EventBusGroomer;
 import org.jboss.forge.bus.util.Annotations;
 
 /**
- * Simple bus for postponing event firing.
+ * Simple bus for postponing event firing. Queuing and firing are synchronized, so that events may be queued from any
+ * thread.
+ * <p>
+ * By default, {@link #fireAll()} delivers queued events on the calling thread. In asynchronous mode (see
+ * {@link #setAsynchronous(boolean)} and the <code>{@value #ASYNC_PROPERTY}</code> system property), events are instead
+ * handed to a single worker thread per event type, so that events of the same type are still observed in the order
+ * they were queued. Use {@link #flush(long, TimeUnit)} to wait for outstanding deliveries, and
+ * {@link #drainFailures()} to collect the exceptions thrown by observers.
  * 
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  */
@@ -35,14 +55,31 @@ import org.jboss.forge.bus.util.Annotations;
 @Singleton
 public class EventBus
 {
+   public static final String ASYNC_PROPERTY = "forge.bus.async";
+   private static final Annotation[] NO_QUALIFIERS = new Annotation[] {};
+   private static final Runnable BARRIER = new Runnable()
+   {
+      @Override
+      public void run()
+      {
+      }
+   };
+
    @Inject
    private BeanManager manager;
 
    @Inject
    private ObserverCaptureExtension extension;
 
-   private final Map<Object, Annotation[]> map = new HashMap<Object, Annotation[]>();
-   private List<Object> events = new ArrayList<Object>();
+   private final List<QueueEntry> queue = new ArrayList<QueueEntry>();
+   private final Set<QueueEntry> queued = new HashSet<QueueEntry>();
+   private final Map<Object, Integer> queuedEvents = new HashMap<Object, Integer>();
+   private final Map<Class<?>, Boolean> handledTypes = new ConcurrentHashMap<Class<?>, Boolean>();
+
+   private final Map<Class<?>, ExecutorService> workers = new HashMap<Class<?>, ExecutorService>();
+   private final List<Exception> failures = new ArrayList<Exception>();
+   private final AtomicInteger workerCount = new AtomicInteger();
+   private volatile boolean asynchronous = Boolean.getBoolean(ASYNC_PROPERTY);
 
    boolean firing = false;
 
@@ -51,7 +88,7 @@ public class EventBus
    @SuppressWarnings("unused")
    private void observeAll(@Observes @Any final Object event)
    {
-      if (handles(event) && !hasQueued(event))
+      if (handles(event) && !isDeliveryThread() && !hasQueued(event))
       {
          enqueue(event);
       }
@@ -62,32 +99,33 @@ public class EventBus
     */
    public void enqueue(final Object event)
    {
-      if (!firing)
-      {
-         events.add(event);
-         map.put(event, new Annotation[] {});
-      }
+      enqueue(event, NO_QUALIFIERS);
    }
 
    /**
-    * Add the given event to the queue; this event will be fired with the supplied qualifiers.
+    * Add the given event to the queue; this event will be fired with the supplied qualifiers. An event equal to one
+    * already queued with the same qualifiers is coalesced with it, and will only be fired once.
     */
-   public void enqueue(final Object event, final Annotation[] qualifiers)
+   public synchronized void enqueue(final Object event, final Annotation[] qualifiers)
    {
-      if (!firing)
+      if (!firing && !isDeliveryThread())
       {
-         events.add(event);
-         map.put(event, qualifiers);
+         QueueEntry entry = new QueueEntry(event, qualifiers);
+         if (queued.add(entry))
+         {
+            queue.add(entry);
+            Integer count = queuedEvents.get(event);
+            queuedEvents.put(event, count == null ? 1 : count + 1);
+         }
       }
    }
 
    /**
-    * Fire all queued events.
+    * Fire all queued events. In asynchronous mode, this only schedules their delivery.
     */
-   public void fireAll()
+   public synchronized void fireAll()
    {
       firing = true;
-      List<Exception> thrown = new ArrayList<Exception>();
 
       if (groomers == null)
       {
@@ -98,73 +136,265 @@ public class EventBus
          }
       }
 
-      for (EventBusGroomer groomer : groomers) {
-         events = groomer.groom(events);
-      }
-
       try
       {
-         for (Object event : events)
+         List<QueueEntry> toFire = groom(queue);
+         for (QueueEntry entry : toFire)
          {
-            if (map.containsKey(event))
+            if (asynchronous)
             {
-               try
-               {
-                  Annotation[] value = map.get(event);
-                  fireSingle(event, value);
-               }
-               catch (Exception e1)
-               {
-                  thrown.add(e1);
-               }
+               getWorker(entry.event.getClass()).execute(new Delivery(entry));
             }
             else
             {
-               throw new IllegalStateException("Queued event was not found in event Map");
+               deliver(entry);
             }
          }
       }
       finally
       {
          firing = false;
-         map.clear();
-         events.clear();
+         queue.clear();
+         queued.clear();
+         queuedEvents.clear();
       }
+   }
 
-      // Squelch these for now
-      // if (!thrown.isEmpty())
-      // throw new EventBusQueuedException(thrown);
+   private void deliver(final QueueEntry entry)
+   {
+      try
+      {
+         fireSingle(entry.event, entry.qualifiers);
+      }
+      catch (Exception e)
+      {
+         synchronized (failures)
+         {
+            failures.add(e);
+         }
+      }
    }
 
-   public boolean hasQueued(final Object event)
+   /**
+    * Wait until all events scheduled by previous calls to {@link #fireAll()} have been delivered, or until the given
+    * timeout elapses. Returns true if all deliveries completed.
+    */
+   public boolean flush(final long timeout, final TimeUnit unit) throws InterruptedException
    {
-      return map.containsKey(event);
+      if (isDeliveryThread())
+      {
+         throw new IllegalStateException("Cannot flush the event bus from an event observer");
+      }
+
+      List<Future<?>> barriers = new ArrayList<Future<?>>();
+      synchronized (this)
+      {
+         for (ExecutorService worker : workers.values())
+         {
+            barriers.add(worker.submit(BARRIER));
+         }
+      }
+
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+      for (Future<?> barrier : barriers)
+      {
+         try
+         {
+            barrier.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+         }
+         catch (ExecutionException e)
+         {
+            // the barrier does nothing
+         }
+         catch (TimeoutException e)
+         {
+            return false;
+         }
+      }
+      return true;
    }
 
-   public void fireSingle(final Object event)
+   /**
+    * Return and forget the exceptions thrown by observers since the last call to this method.
+    */
+   public List<Exception> drainFailures()
+   {
+      synchronized (failures)
+      {
+         List<Exception> result = new ArrayList<Exception>(failures);
+         failures.clear();
+         return result;
+      }
+   }
+
+   public boolean isAsynchronous()
    {
-      List<BusManaged> qualifiers = extension.getEventQualifiers(event
-               .getClass());
+      return asynchronous;
+   }
 
-      fireSingle(event, qualifiers.toArray(new Annotation[] {}));
+   /**
+    * Set whether {@link #fireAll()} delivers events on worker threads rather than the calling thread. Deliveries
+    * already scheduled are not affected.
+    */
+   public void setAsynchronous(final boolean asynchronous)
+   {
+      this.asynchronous = asynchronous;
    }
 
-   public void fireSingle(final Object event, final Annotation... annotations)
+   private ExecutorService getWorker(final Class<?> type)
+   {
+      ExecutorService worker = workers.get(type);
+      if (worker == null)
+      {
+         final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+         worker = Executors.newSingleThreadExecutor(new ThreadFactory()
+         {
+            @Override
+            public Thread newThread(final Runnable r)
+            {
+               Thread thread = new DeliveryThread(r, "forge-event-bus-" + workerCount.incrementAndGet());
+               thread.setDaemon(true);
+               thread.setContextClassLoader(loader);
+               return thread;
+            }
+         });
+         workers.put(type, worker);
+      }
+      return worker;
+   }
+
+   private static boolean isDeliveryThread()
    {
-      List<BusManaged> qualifiers = extension.getEventQualifiers(event
-               .getClass());
+      return Thread.currentThread() instanceof DeliveryThread;
+   }
+
+   @PreDestroy
+   public synchronized void shutdown()
+   {
+      for (ExecutorService worker : workers.values())
+      {
+         worker.shutdown();
+      }
+      workers.clear();
+   }
+
+   private List<QueueEntry> groom(final List<QueueEntry> entries)
+   {
+      if (groomers.isEmpty())
+      {
+         return entries;
+      }
+
+      Map<Object, Annotation[]> qualifiers = new IdentityHashMap<Object, Annotation[]>();
+      List<Object> events = new ArrayList<Object>(entries.size());
+      for (QueueEntry entry : entries)
+      {
+         events.add(entry.event);
+         qualifiers.put(entry.event, entry.qualifiers);
+      }
 
-      for (BusManaged managed : qualifiers) {
-         List<Annotation> toFire = new ArrayList<Annotation>();
-         toFire.addAll(Arrays.asList(annotations));
-         toFire.add(managed);
-         manager.fireEvent(event, toFire.toArray(new Annotation[] {}));
+      for (EventBusGroomer groomer : groomers) {
+         events = groomer.groom(events);
       }
 
+      List<QueueEntry> result = new ArrayList<QueueEntry>(events.size());
+      for (Object event : events)
+      {
+         Annotation[] value = qualifiers.get(event);
+         if (value == null)
+         {
+            throw new IllegalStateException("Queued event was not found in event Map");
+         }
+         result.add(new QueueEntry(event, value));
+      }
+      return result;
+   }
+
+   public synchronized boolean hasQueued(final Object event)
+   {
+      return queuedEvents.containsKey(event);
+   }
+
+   public void fireSingle(final Object event)
+   {
+      fireSingle(event, extension.getEventQualifierArray(event.getClass()));
+   }
+
+   public void fireSingle(final Object event, final Annotation... annotations)
+   {
+      BusManaged[] qualifiers = extension.getEventQualifierArray(event.getClass());
+      if (qualifiers.length > 0)
+      {
+         Annotation[] toFire = Arrays.copyOf(annotations, annotations.length + 1);
+         for (BusManaged managed : qualifiers) {
+            toFire[annotations.length] = managed;
+            manager.fireEvent(event, toFire);
+         }
+      }
    }
 
    public boolean handles(final Object event)
    {
-      return Annotations.isAnnotationPresent(event.getClass(), BusEvent.class);
+      Class<?> type = event.getClass();
+      Boolean result = handledTypes.get(type);
+      if (result == null)
+      {
+         result = Annotations.isAnnotationPresent(type, BusEvent.class);
+         handledTypes.put(type, result);
+      }
+      return result;
+   }
+
+   private class Delivery implements Runnable
+   {
+      private final QueueEntry entry;
+
+      public Delivery(final QueueEntry entry)
+      {
+         this.entry = entry;
+      }
+
+      @Override
+      public void run()
+      {
+         deliver(entry);
+      }
+   }
+
+   private static class DeliveryThread extends Thread
+   {
+      public DeliveryThread(final Runnable target, final String name)
+      {
+         super(target, name);
+      }
+   }
+
+   private static class QueueEntry
+   {
+      private final Object event;
+      private final Annotation[] qualifiers;
+
+      public QueueEntry(final Object event, final Annotation[] qualifiers)
+      {
+         this.event = event;
+         this.qualifiers = qualifiers == null ? NO_QUALIFIERS : qualifiers;
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return (31 * event.hashCode()) + Arrays.hashCode(qualifiers);
+      }
+
+      @Override
+      public boolean equals(final Object obj)
+      {
+         if (this == obj)
+            return true;
+         if (!(obj instanceof QueueEntry))
+            return false;
+         QueueEntry other = (QueueEntry) obj;
+         return event.equals(other.event) && Arrays.equals(qualifiers, other.qualifiers);
+      }
    }
 }
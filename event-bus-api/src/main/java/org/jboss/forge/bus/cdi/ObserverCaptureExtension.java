@@ -11,6 +11,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -19,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.AnnotatedCallable;
@@ -42,6 +44,7 @@ import org.jboss.forge.bus.util.Annotations;
 public class ObserverCaptureExtension implements Extension
 {
    private final Map<Class<?>, List<BusManaged>> eventQualifierMap = new HashMap<Class<?>, List<BusManaged>>();
+   private final Map<Class<?>, BusManaged[]> eventQualifierCache = new ConcurrentHashMap<Class<?>, BusManaged[]>();
    private int rollingIdentifier = 0;
 
    public <T> void scan(@Observes final ProcessAnnotatedType<T> event)
@@ -365,6 +368,7 @@ public class ObserverCaptureExtension implements Extension
       }
       qualifiers.add(qualifier);
       eventQualifierMap.put(clazz, qualifiers);
+      eventQualifierCache.clear();
    }
 
    /**
@@ -372,15 +376,30 @@ public class ObserverCaptureExtension implements Extension
     */
    public List<BusManaged> getEventQualifiers(final Class<?> clazz)
    {
-      List<BusManaged> result = new ArrayList<BusManaged>();
-      for (Entry<Class<?>, List<BusManaged>> entry : eventQualifierMap.entrySet())
+      return new ArrayList<BusManaged>(Arrays.asList(getEventQualifierArray(clazz)));
+   }
+
+   /**
+    * Return the instances of {@link BusManaged} annotations corresponding to the given event type. The result is
+    * computed once per type, and shared: it must not be modified.
+    */
+   public BusManaged[] getEventQualifierArray(final Class<?> clazz)
+   {
+      BusManaged[] result = eventQualifierCache.get(clazz);
+      if (result == null)
       {
-         Class<?> key = entry.getKey();
-         List<BusManaged> value = entry.getValue();
-         if (key.isAssignableFrom(clazz))
+         List<BusManaged> qualifiers = new ArrayList<BusManaged>();
+         for (Entry<Class<?>, List<BusManaged>> entry : eventQualifierMap.entrySet())
          {
-            result.addAll(value);
+            Class<?> key = entry.getKey();
+            List<BusManaged> value = entry.getValue();
+            if (key.isAssignableFrom(clazz))
+            {
+               qualifiers.addAll(value);
+            }
          }
+         result = qualifiers.toArray(new BusManaged[qualifiers.size()]);
+         eventQualifierCache.put(clazz, result);
       }
       return result;
    }
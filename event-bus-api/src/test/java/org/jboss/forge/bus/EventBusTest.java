@@ -7,8 +7,10 @@
 package org.jboss.forge.bus;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.util.AnnotationLiteral;
 import javax.inject.Inject;
@@ -52,6 +54,9 @@ public class EventBusTest
    @Test
    public void testEventsQueued() throws Exception
    {
+      int count = observer.getCount();
+      int countSpecial = observer.getCountSpecial();
+
       bus.enqueue(new MockEvent());
       bus.enqueue(new MockEvent());
       bus.enqueue(new MockEvent(), new Annotation[] { new AnnotationLiteral<Special>()
@@ -59,10 +64,34 @@ public class EventBusTest
          private static final long serialVersionUID = -6035326874728801791L;
       } });
 
-      assertEquals(0, observer.getCount());
-      assertEquals(0, observer.getCountSpecial());
+      assertEquals(count, observer.getCount());
+      assertEquals(countSpecial, observer.getCountSpecial());
       bus.fireAll();
-      assertEquals(3, observer.getCount());
-      assertEquals(1, observer.getCountSpecial());
+      assertEquals(count + 3, observer.getCount());
+      assertEquals(countSpecial + 1, observer.getCountSpecial());
+   }
+
+   @Test
+   public void testAsynchronousDelivery() throws Exception
+   {
+      int count = observer.getCount();
+      MockEvent event = new MockEvent();
+
+      bus.setAsynchronous(true);
+      try
+      {
+         bus.enqueue(event);
+         bus.enqueue(event);
+         bus.enqueue(new MockEvent());
+         bus.fireAll();
+         assertTrue(bus.flush(10, TimeUnit.SECONDS));
+      }
+      finally
+      {
+         bus.setAsynchronous(false);
+      }
+
+      assertEquals(count + 2, observer.getCount());
+      assertTrue(bus.drainFailures().isEmpty());
    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.git.gitignore;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link GitIgnoreMatcher}
+ */
+public class GitIgnoreMatcherTest
+{
+   private File root;
+
+   @Before
+   public void setUp() throws Exception
+   {
+      root = File.createTempFile("forge-gitignore", "");
+      root.delete();
+      new File(root, ".git").mkdirs();
+      new File(root, "target/classes").mkdirs();
+      new File(root, "src/main").mkdirs();
+      new File(root, "src/main/App.java").createNewFile();
+      new File(root, "src/main/App.class").createNewFile();
+      new File(root, "src/main/Keep.class").createNewFile();
+
+      write(new File(root, ".gitignore"), "target/\n*.class\n");
+      write(new File(root, "src/main/.gitignore"), "!Keep.class\n");
+   }
+
+   @After
+   public void tearDown()
+   {
+      delete(root);
+   }
+
+   @Test
+   public void testPatternsApplyToSubdirectories() throws Exception
+   {
+      GitIgnoreMatcher matcher = new GitIgnoreMatcher();
+      assertTrue(matcher.isIgnored(new File(root, "target")));
+      assertTrue(matcher.isIgnored(new File(root, "src/main/App.class")));
+      assertFalse(matcher.isIgnored(new File(root, "src/main/App.java")));
+      assertFalse(matcher.isIgnored(new File(root, "src")));
+   }
+
+   @Test
+   public void testNestedNegation() throws Exception
+   {
+      assertFalse(new GitIgnoreMatcher().isIgnored(new File(root, "src/main/Keep.class")));
+   }
+
+   @Test
+   public void testGitDirectoryIsIgnored() throws Exception
+   {
+      assertTrue(new GitIgnoreMatcher().isIgnored(new File(root, ".git")));
+   }
+
+   @Test
+   public void testFilesOutsideRepositoryAreNotIgnored() throws Exception
+   {
+      File outside = File.createTempFile("forge-gitignore-outside", "");
+      outside.delete();
+      outside.mkdirs();
+      try
+      {
+         write(new File(outside, ".gitignore"), "*.class\n");
+         new File(outside, "App.class").createNewFile();
+         assertFalse(new GitIgnoreMatcher().isIgnored(new File(outside, "App.class")));
+      }
+      finally
+      {
+         delete(outside);
+      }
+   }
+
+   private static void write(final File file, final String content) throws IOException
+   {
+      FileWriter writer = new FileWriter(file);
+      try
+      {
+         writer.write(content);
+      }
+      finally
+      {
+         writer.close();
+      }
+   }
+
+   private static void delete(final File file)
+   {
+      File[] children = file.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            delete(child);
+         }
+      }
+      file.delete();
+   }
+}
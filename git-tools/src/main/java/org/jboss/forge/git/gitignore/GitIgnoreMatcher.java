@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.git.gitignore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.ignore.IgnoreNode;
+import org.eclipse.jgit.ignore.IgnoreNode.MatchResult;
+import org.jboss.forge.shell.util.Streams;
+
+/**
+ * Decides whether files are ignored by the {@link GitIgnoreResource#RESOURCE_NAME} files of their directory and its
+ * parents, up to the root of the enclosing git repository. Files outside of a git repository are never ignored, other
+ * than a <code>.git</code> directory itself, which is always ignored.
+ * <p>
+ * Each {@link GitIgnoreResource#RESOURCE_NAME} file is read at most once per matcher, and matchers may be shared
+ * between threads. Create a new matcher to pick up changes to these files.
+ */
+public class GitIgnoreMatcher
+{
+   private static final String GIT_DIRECTORY = ".git";
+
+   private final Map<File, DirectoryRules> rules = new ConcurrentHashMap<File, DirectoryRules>();
+   private final Map<File, Boolean> inRepository = new ConcurrentHashMap<File, Boolean>();
+
+   /**
+    * Return true if the given file or directory is ignored.
+    */
+   public boolean isIgnored(final File file)
+   {
+      boolean directory = file.isDirectory();
+      if (directory && GIT_DIRECTORY.equals(file.getName()))
+      {
+         return true;
+      }
+
+      String path = file.getName();
+      File parent = file.getAbsoluteFile().getParentFile();
+      if ((parent == null) || !isInRepository(parent))
+      {
+         return false;
+      }
+
+      while (parent != null)
+      {
+         DirectoryRules dir = getRules(parent);
+         if (dir.node != null)
+         {
+            MatchResult result = dir.node.isIgnored(path, directory);
+            if (result == MatchResult.IGNORED)
+            {
+               return true;
+            }
+            else if (result == MatchResult.NOT_IGNORED)
+            {
+               return false;
+            }
+         }
+
+         if (dir.repositoryRoot)
+         {
+            break;
+         }
+         path = parent.getName() + "/" + path;
+         parent = parent.getParentFile();
+      }
+      return false;
+   }
+
+   /**
+    * Return true if the given directory is, or is contained in, the root of a git repository.
+    */
+   private boolean isInRepository(final File directory)
+   {
+      Boolean result = inRepository.get(directory);
+      if (result == null)
+      {
+         File parent = directory.getParentFile();
+         result = new File(directory, GIT_DIRECTORY).exists() || ((parent != null) && isInRepository(parent));
+         inRepository.put(directory, result);
+      }
+      return result;
+   }
+
+   private DirectoryRules getRules(final File directory)
+   {
+      DirectoryRules result = rules.get(directory);
+      if (result == null)
+      {
+         result = new DirectoryRules(parse(new File(directory, GitIgnoreResource.RESOURCE_NAME)),
+                  new File(directory, GIT_DIRECTORY).exists());
+         rules.put(directory, result);
+      }
+      return result;
+   }
+
+   private static IgnoreNode parse(final File file)
+   {
+      if (!file.isFile())
+      {
+         return null;
+      }
+
+      InputStream stream = null;
+      try
+      {
+         stream = new FileInputStream(file);
+         IgnoreNode node = new IgnoreNode();
+         node.parse(stream);
+         return node.getRules().isEmpty() ? null : node;
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException("Error while reading .gitignore patterns", e);
+      }
+      finally
+      {
+         Streams.closeQuietly(stream);
+      }
+   }
+
+   private static class DirectoryRules
+   {
+      private final IgnoreNode node;
+      private final boolean repositoryRoot;
+
+      public DirectoryRules(final IgnoreNode node, final boolean repositoryRoot)
+      {
+         this.node = node;
+         this.repositoryRoot = repositoryRoot;
+      }
+   }
+}
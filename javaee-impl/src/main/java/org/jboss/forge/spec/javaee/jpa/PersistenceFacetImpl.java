@@ -10,6 +10,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -17,6 +19,7 @@ import javax.persistence.Entity;
 
 import org.jboss.forge.parser.java.JavaClass;
 import org.jboss.forge.parser.java.JavaSource;
+import org.jboss.forge.parser.java.SourceType;
 import org.jboss.forge.project.dependencies.Dependency;
 import org.jboss.forge.project.dependencies.DependencyBuilder;
 import org.jboss.forge.project.dependencies.DependencyInstaller;
@@ -28,6 +31,8 @@ import org.jboss.forge.resources.DirectoryResource;
 import org.jboss.forge.resources.FileResource;
 import org.jboss.forge.resources.Resource;
 import org.jboss.forge.resources.java.JavaResource;
+import org.jboss.forge.resources.java.JavaTypeIndex;
+import org.jboss.forge.resources.java.JavaTypeInfo;
 import org.jboss.forge.shell.plugins.Alias;
 import org.jboss.forge.shell.plugins.RequiresFacet;
 import org.jboss.forge.shell.plugins.RequiresPackagingType;
@@ -47,10 +52,13 @@ public class PersistenceFacetImpl extends BaseJavaEEFacet implements Persistence
 {
    public static final String DEFAULT_ENTITY_PACKAGE = "model";
 
+   private final JavaTypeIndex typeIndex;
+
    @Inject
-   public PersistenceFacetImpl(final DependencyInstaller installer)
+   public PersistenceFacetImpl(final DependencyInstaller installer, final JavaTypeIndex typeIndex)
    {
       super(installer);
+      this.typeIndex = typeIndex;
    }
 
    @Override
@@ -133,40 +141,49 @@ public class PersistenceFacetImpl extends BaseJavaEEFacet implements Persistence
    @Override
    public List<JavaClass> getAllEntities()
    {
-      DirectoryResource packageFile = getEntityPackageDir();
-      return findEntitiesInFolder(packageFile);
-   }
+      /*
+       * Only the entity package is listed, and only its changed files are parsed, so that entities written earlier in
+       * the same command are found.
+       */
+      DirectoryResource packageDir = getEntityPackageDir();
+      List<JavaTypeInfo> types = new ArrayList<JavaTypeInfo>();
+      for (JavaTypeInfo info : typeIndex.getTypes(project, packageDir))
+      {
+         if ((info.getSourceType() == SourceType.CLASS) && info.hasAnnotation(Entity.class.getName()))
+         {
+            types.add(info);
+         }
+      }
+
+      /*
+       * Only the indexed entities are parsed, in a stable order.
+       */
+      Collections.sort(types, new Comparator<JavaTypeInfo>()
+      {
+         @Override
+         public int compare(final JavaTypeInfo left, final JavaTypeInfo right)
+         {
+            return left.getPath().compareTo(right.getPath());
+         }
+      });
 
-   private List<JavaClass> findEntitiesInFolder(final DirectoryResource packageFile)
-   {
       List<JavaClass> result = new ArrayList<JavaClass>();
-      if (packageFile.exists())
+      for (JavaTypeInfo info : types)
       {
-         for (Resource<?> source : packageFile.listResources())
+         Resource<?> source = packageDir.getResourceFactory().getResourceFrom(new File(info.getPath()));
+         if (source instanceof JavaResource)
          {
-            if (source instanceof JavaResource)
+            try
             {
-               try
-               {
-                  JavaSource<?> javaClass = ((JavaResource) source).getJavaSource();
-                  if (javaClass.hasAnnotation(Entity.class) && javaClass.isClass())
-                  {
-                     result.add((JavaClass) javaClass);
-                  }
-               }
-               catch (FileNotFoundException e)
+               JavaSource<?> javaClass = ((JavaResource) source).getJavaSource();
+               if (javaClass.hasAnnotation(Entity.class) && javaClass.isClass())
                {
-                  throw new IllegalStateException(e);
+                  result.add((JavaClass) javaClass);
                }
             }
-         }
-
-         for (Resource<?> source : packageFile.listResources())
-         {
-            if (source instanceof DirectoryResource)
+            catch (FileNotFoundException e)
             {
-               List<JavaClass> subResults = findEntitiesInFolder((DirectoryResource) source);
-               result.addAll(subResults);
+               throw new IllegalStateException(e);
             }
          }
       }
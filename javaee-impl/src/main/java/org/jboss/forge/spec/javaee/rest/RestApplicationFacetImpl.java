@@ -12,13 +12,18 @@ import javax.inject.Inject;
 
 import org.jboss.forge.env.Configuration;
 import org.jboss.forge.parser.JavaParser;
+import org.jboss.forge.parser.java.Annotation;
 import org.jboss.forge.parser.java.JavaClass;
+import org.jboss.forge.parser.java.JavaSource;
 import org.jboss.forge.project.facets.BaseFacet;
 import org.jboss.forge.project.facets.JavaSourceFacet;
+import org.jboss.forge.resources.DirectoryResource;
 import org.jboss.forge.resources.java.JavaResource;
-import org.jboss.forge.resources.java.JavaResourceVisitor;
+import org.jboss.forge.resources.java.JavaTypeIndex;
+import org.jboss.forge.resources.java.JavaTypeInfo;
 import org.jboss.forge.shell.plugins.Alias;
 import org.jboss.forge.shell.plugins.RequiresFacet;
+import org.jboss.forge.shell.util.Packages;
 import org.jboss.forge.spec.javaee.RestApplicationFacet;
 import org.jboss.forge.spec.javaee.RestFacet;
 
@@ -36,9 +41,12 @@ public class RestApplicationFacetImpl extends BaseFacet implements RestApplicati
    @Inject
    private Configuration configuration;
 
+   private final JavaTypeIndex typeIndex;
+
    @Inject
-   public RestApplicationFacetImpl(Configuration configuration)
+   public RestApplicationFacetImpl(Configuration configuration, JavaTypeIndex typeIndex)
    {
+      this.typeIndex = typeIndex;
       classPackage = configuration.getString(REST_APPLICATIONCLASS_PACKAGE);
       className = configuration.getString(REST_APPLICATIONCLASS_NAME);
       rootPath = configuration.getString(RestFacet.ROOTPATH);
@@ -107,37 +115,54 @@ public class RestApplicationFacetImpl extends BaseFacet implements RestApplicati
       configuration.clearProperty(REST_APPLICATIONCLASS_NAME);
       configuration.clearProperty(REST_APPLICATIONCLASS_PACKAGE);
 
-      javaSourceFacet.visitJavaSources(new JavaResourceVisitor()
+      /*
+       * Directory queries check the listed files on every call, so that a class written earlier in the same command is
+       * found. The configured package is searched first, then the whole source folder.
+       */
+      DirectoryResource sourceFolder = javaSourceFacet.getSourceFolder();
+      if (classPackage != null)
+      {
+         DirectoryResource packageDir = sourceFolder.getChildDirectory(Packages.toFileSyntax(classPackage));
+         if (findApplicationClass(javaSourceFacet, packageDir))
+         {
+            return true;
+         }
+      }
+      return findApplicationClass(javaSourceFacet, sourceFolder);
+   }
+
+   private boolean findApplicationClass(final JavaSourceFacet javaSourceFacet, final DirectoryResource directory)
+   {
+      /*
+       * Only the sources the type index reports as annotated are parsed.
+       */
+      for (JavaTypeInfo info : typeIndex.getTypes(project, directory))
       {
-         boolean found = false;
+         if (!info.hasAnnotation("javax.ws.rs.ApplicationPath"))
+         {
+            continue;
+         }
 
-         @Override
-         public void visit(JavaResource javaResource)
+         try
          {
-            if (!found)
+            JavaResource javaResource = javaSourceFacet.getJavaResource(info.getQualifiedName());
+            JavaSource<?> javaSource = javaResource.getJavaSource();
+            Annotation<?> applicationPath = javaSource.getAnnotation("javax.ws.rs.ApplicationPath");
+            if (applicationPath != null)
             {
-               try
-               {
-                  if (javaResource.getJavaSource().getAnnotation("javax.ws.rs.ApplicationPath") != null)
-                  {
-                     configuration
-                              .setProperty(REST_APPLICATIONCLASS_PACKAGE, javaResource.getJavaSource().getPackage());
-                     configuration.setProperty(REST_APPLICATIONCLASS_NAME, javaResource.getFullyQualifiedName());
-                     configuration.setProperty(RestFacet.ROOTPATH,
-                              javaResource.getJavaSource().getAnnotation("javax.ws.rs.ApplicationPath")
-                                       .getLiteralValue());
-                     found = true;
-                  }
-               }
-               catch (FileNotFoundException e)
-               {
-                  throw new RuntimeException(e);
-               }
+               configuration.setProperty(REST_APPLICATIONCLASS_PACKAGE, javaSource.getPackage());
+               configuration.setProperty(REST_APPLICATIONCLASS_NAME, javaResource.getFullyQualifiedName());
+               configuration.setProperty(RestFacet.ROOTPATH, applicationPath.getLiteralValue());
+               return true;
             }
          }
-      });
+         catch (FileNotFoundException e)
+         {
+            throw new RuntimeException(e);
+         }
+      }
 
-      return configuration.getString(REST_APPLICATIONCLASS_NAME) != null;
+      return false;
    }
 
    @Override
@@ -15,6 +15,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 
 import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.parser.JavaParser;
 import org.jboss.forge.parser.java.Annotation;
 import org.jboss.forge.parser.java.Field;
 import org.jboss.forge.parser.java.JavaClass;
@@ -61,6 +62,21 @@ public class NewEntityPluginTest extends AbstractJPATest
       assertTrue(javaClass.toString().contains("implements Serializable"));
    }
 
+   @Test
+   public void testAllEntitiesIncludesEntitySavedInSameCommand() throws Exception
+   {
+      Project project = getProject();
+      PersistenceFacet persistence = project.getFacet(PersistenceFacet.class);
+      int count = persistence.getAllEntities().size();
+
+      JavaClass entity = JavaParser.create(JavaClass.class).setPackage(persistence.getEntityPackage())
+               .setName("IndexedInSameCommand");
+      entity.addAnnotation(Entity.class);
+      project.getFacet(JavaSourceFacet.class).saveJavaSource(entity);
+
+      assertEquals(count + 1, persistence.getAllEntities().size());
+   }
+
    @Test
    public void testNewEntityCorrectsInvalidInput() throws Exception
    {
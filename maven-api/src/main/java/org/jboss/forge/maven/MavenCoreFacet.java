@@ -42,6 +42,18 @@ public interface MavenCoreFacet extends Facet
     */
    public void setPOM(Model pom);
 
+   /**
+    * Begin a {@link PomTransaction}; subsequent calls to {@link #setPOM(Model)} are collected in memory and written to
+    * the POM file once, when the transaction is committed. If a transaction is already active, the returned
+    * transaction joins it.
+    */
+   public PomTransaction beginTransaction();
+
+   /**
+    * Return true if a {@link PomTransaction} is currently active for this project.
+    */
+   public boolean isTransactionActive();
+
    /**
     * Ask Maven to process this project's POM and return the resulting metadata. Do not build dependency hierarchy past
     * the immediate POM.
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven;
+
+import org.apache.maven.model.Model;
+
+/**
+ * A batch of modifications to a project's Maven POM. While a transaction is active, {@link MavenCoreFacet#getPOM()}
+ * and {@link MavenCoreFacet#setPOM(Model)} operate on an in-memory {@link Model}; the POM file is written once, and a
+ * single modification event is fired, when the outermost transaction is committed.
+ * <p>
+ * Transactions may be nested; nested transactions join the outermost one, which alone decides whether changes are
+ * written. Building results ({@link MavenCoreFacet#getPartialProjectBuildingResult()},
+ * {@link MavenCoreFacet#getFullProjectBuildingResult()}) include the pending changes, so that effective dependencies may
+ * be checked while a transaction is active.
+ *
+ * <pre>
+ * PomTransaction tx = maven.beginTransaction();
+ * try
+ * {
+ *    // ... modify dependencies, properties, repositories
+ *    tx.commit();
+ * }
+ * finally
+ * {
+ *    if (tx.isActive())
+ *       tx.rollback();
+ * }
+ * </pre>
+ */
+public interface PomTransaction
+{
+   /**
+    * Complete this transaction. If this is the outermost transaction, write all collected changes to the POM file.
+    *
+    * @throws IllegalStateException if this transaction is no longer active
+    */
+   public void commit();
+
+   /**
+    * Discard all changes collected by the outermost transaction, and end it.
+    *
+    * @throws IllegalStateException if this transaction is no longer active
+    */
+   public void rollback();
+
+   /**
+    * Return true if this transaction has been neither committed nor rolled back.
+    */
+   public boolean isActive();
+}
@@ -26,16 +26,26 @@ import org.jboss.forge.parser.spi.JavaParserProvider;
 public final class JavaParser
 {
    public static ServiceLoader<JavaParserProvider> loader = ServiceLoader.load(JavaParserProvider.class);
-   private static List<JavaParserProvider> parsers;
+   private static volatile List<JavaParserProvider> parsers;
 
    private static JavaParserProvider getParser()
    {
+      List<JavaParserProvider> parsers = JavaParser.parsers;
       if (parsers == null)
       {
-         parsers = new ArrayList<JavaParserProvider>();
-         for (JavaParserProvider p : loader)
+         // sources may be parsed on several threads at once
+         synchronized (JavaParser.class)
          {
-            parsers.add(p);
+            parsers = JavaParser.parsers;
+            if (parsers == null)
+            {
+               parsers = new ArrayList<JavaParserProvider>();
+               for (JavaParserProvider p : loader)
+               {
+                  parsers.add(p);
+               }
+               JavaParser.parsers = parsers;
+            }
          }
       }
       if (parsers.size() == 0)
@@ -12,6 +12,10 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,7 +29,6 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
-import org.eclipse.jdt.internal.compiler.util.Util;
 import org.eclipse.jface.text.Document;
 import org.jboss.forge.parser.ParserException;
 import org.jboss.forge.parser.java.JavaAnnotation;
@@ -44,12 +47,50 @@ import org.jboss.forge.parser.java.impl.JavaInterfaceImpl;
  */
 public class JavaParserImpl implements JavaParserProvider
 {
+   /**
+    * The encoding used to decode Java source files and streams.
+    */
+   public static final String ENCODING = "UTF-8";
+
+   /**
+    * When set to "true", parsed compilation units are created with binding resolution enabled. Forge does not consult
+    * bindings, and without a classpath environment JDT can resolve almost none of them, so this is off by default.
+    */
+   public static final String PROP_RESOLVE_BINDINGS = "forge.parser.resolveBindings";
+
+   /*
+    * Computing the JDT option defaults is expensive, so it is done once. The map is never modified afterwards and each
+    * parse works on its own copy, so it can be shared between threads.
+    */
+   private static final Map<?, ?> COMPILER_OPTIONS = createCompilerOptions();
+
+   private final boolean resolveBindings = Boolean.getBoolean(PROP_RESOLVE_BINDINGS);
+
+   @SuppressWarnings({ "rawtypes", "unchecked" })
+   private static Map<?, ?> createCompilerOptions()
+   {
+      Map options = JavaCore.getOptions();
+      options.put(CompilerOptions.OPTION_Source, CompilerOptions.VERSION_1_7);
+      options.put(CompilerOptions.OPTION_Encoding, ENCODING);
+      return Collections.unmodifiableMap(options);
+   }
 
    @Override
    public JavaSource<?> parse(final File file) throws FileNotFoundException
    {
       FileInputStream stream = new FileInputStream(file);
-      return parse(stream);
+      try
+      {
+         return parse(read(stream, (int) file.length()));
+      }
+      catch (IOException e)
+      {
+         throw new IllegalArgumentException("File must be a parsable java file: " + file, e);
+      }
+      finally
+      {
+         close(stream);
+      }
    }
 
    @Override
@@ -57,8 +98,7 @@ public class JavaParserImpl implements JavaParserProvider
    {
       try
       {
-         char[] source = Util.getInputStreamAsCharArray(data, data.available(), "ISO8859_1");
-         return parse(source);
+         return parse(read(data, 8192));
       }
       catch (IOException e)
       {
@@ -66,16 +106,50 @@ public class JavaParserImpl implements JavaParserProvider
       }
       finally
       {
-         if (data != null)
+         close(data);
+      }
+   }
+
+   /**
+    * Read the entire stream, decoding it as {@link #ENCODING}. The size is only a hint; it does not need to be exact.
+    */
+   private static char[] read(final InputStream data, final int size) throws IOException
+   {
+      Reader reader = new InputStreamReader(data, ENCODING);
+      char[] buffer = new char[Math.max(size, 256)];
+      int length = 0;
+      int read;
+      while ((read = reader.read(buffer, length, buffer.length - length)) != -1)
+      {
+         length += read;
+         if (length == buffer.length)
+         {
+            char[] grown = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+         }
+      }
+
+      if (length == buffer.length)
+      {
+         return buffer;
+      }
+      char[] result = new char[length];
+      System.arraycopy(buffer, 0, result, 0, length);
+      return result;
+   }
+
+   private static void close(final InputStream data)
+   {
+      if (data != null)
+      {
+         try
          {
-            try
-            {
-               data.close();
-            }
-            catch (IOException e)
-            {
-               throw new IllegalStateException(e);
-            }
+            data.close();
+         }
+         catch (IOException e)
+         {
+            throw new IllegalStateException(e);
          }
       }
    }
@@ -87,19 +161,15 @@ public class JavaParserImpl implements JavaParserProvider
    }
 
    @Override
-   @SuppressWarnings({ "rawtypes", "unchecked" })
    public JavaSource<?> parse(final String data)
    {
       Document document = new Document(data);
       ASTParser parser = ASTParser.newParser(AST.JLS4);
 
-      parser.setSource(document.get().toCharArray());
-      Map options = JavaCore.getOptions();
-      options.put(CompilerOptions.OPTION_Source, CompilerOptions.VERSION_1_7);
-      options.put(CompilerOptions.OPTION_Encoding, "UTF-8");
-      parser.setCompilerOptions(options);
+      parser.setSource(data.toCharArray());
+      parser.setCompilerOptions(new HashMap<Object, Object>(COMPILER_OPTIONS));
 
-      parser.setResolveBindings(true);
+      parser.setResolveBindings(resolveBindings);
       parser.setKind(ASTParser.K_COMPILATION_UNIT);
       CompilationUnit unit = (CompilationUnit) parser.createAST(null);
       unit.recordModifications();
@@ -7,6 +7,14 @@
 
 package org.jboss.forge.test.parser.java;
 
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
 import org.jboss.forge.parser.JavaParser;
 import org.jboss.forge.parser.ParserException;
 import org.jboss.forge.parser.java.JavaClass;
@@ -17,9 +25,47 @@ import org.junit.Test;
  */
 public class JavaParserTest
 {
+   private static final String SOURCE = "public class Café { private String name = \"über\"; }";
+
    @Test(expected = ParserException.class)
    public void testExceptionWhenBadFileParsed() throws Exception
    {
       JavaParser.parse(JavaClass.class, "asdfa$%(*&#$%sdfdsf");
    }
+
+   @Test
+   public void testParseFileAsUTF8() throws Exception
+   {
+      File file = File.createTempFile("forge-parser", ".java");
+      try
+      {
+         FileOutputStream out = new FileOutputStream(file);
+         out.write(SOURCE.getBytes("UTF-8"));
+         out.close();
+
+         JavaClass source = JavaParser.parse(JavaClass.class, file);
+         assertEquals("Café", source.getName());
+         assertEquals("über", source.getField("name").getStringInitializer());
+      }
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   @Test
+   public void testParseStreamWithoutAvailableBytes() throws Exception
+   {
+      InputStream stream = new FilterInputStream(new ByteArrayInputStream(SOURCE.getBytes("UTF-8")))
+      {
+         @Override
+         public int available()
+         {
+            return 0;
+         }
+      };
+
+      JavaClass source = JavaParser.parse(JavaClass.class, stream);
+      assertEquals("Café", source.getName());
+   }
 }
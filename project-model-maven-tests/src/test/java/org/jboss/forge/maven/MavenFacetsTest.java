@@ -8,6 +8,7 @@
 package org.jboss.forge.maven;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -127,6 +128,48 @@ public class MavenFacetsTest extends ProjectModelTest
       assertEquals(pom.getArtifactId(), result.getArtifactId());
    }
 
+   @Test
+   public void testTransactionDefersWrite() throws Exception
+   {
+      MavenCoreFacet maven = getProject().getFacet(MavenCoreFacet.class);
+      File file = maven.getPOMFile().getUnderlyingResourceObject();
+      String original = maven.getPOM().getDescription();
+
+      PomTransaction transaction = maven.beginTransaction();
+      assertTrue(maven.isTransactionActive());
+      Model pom = maven.getPOM();
+      pom.setDescription("transactional");
+      maven.setPOM(pom);
+      assertEquals("transactional", maven.getPOM().getDescription());
+      assertEquals("transactional", maven.getPartialProjectBuildingResult().getProject().getDescription());
+
+      MavenXpp3Reader reader = new MavenXpp3Reader();
+      assertEquals(original, reader.read(new FileInputStream(file)).getDescription());
+
+      transaction.commit();
+      assertFalse(maven.isTransactionActive());
+      assertEquals("transactional", reader.read(new FileInputStream(file)).getDescription());
+   }
+
+   @Test
+   public void testTransactionRollback() throws Exception
+   {
+      MavenCoreFacet maven = getProject().getFacet(MavenCoreFacet.class);
+      String original = maven.getPOM().getName();
+
+      PomTransaction outer = maven.beginTransaction();
+      PomTransaction inner = maven.beginTransaction();
+      Model pom = maven.getPOM();
+      pom.setName("rolled back");
+      maven.setPOM(pom);
+      inner.commit();
+      outer.rollback();
+
+      assertFalse(outer.isActive());
+      assertFalse(maven.isTransactionActive());
+      assertEquals(original, maven.getPOM().getName());
+   }
+
    @Test
    public void testProjectIsCurrentProject() throws Exception
    {
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.dependencies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import org.apache.maven.settings.Settings;
+import org.jboss.forge.ForgeEnvironment;
+import org.jboss.forge.maven.facets.MavenContainer;
+import org.jboss.forge.project.dependencies.DependencyBuilder;
+import org.jboss.forge.resources.DirectoryResource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link LocalRepositoryIndex}
+ */
+public class LocalRepositoryIndexTest
+{
+   private File repository;
+   private MavenContainer container;
+   private LocalRepositoryIndex index;
+
+   @Before
+   public void setUp() throws Exception
+   {
+      repository = File.createTempFile("forge-m2", "");
+      repository.delete();
+      repository.mkdirs();
+
+      final Settings settings = new Settings();
+      settings.setLocalRepository(repository.getAbsolutePath());
+      container = new MavenContainer()
+      {
+         @Override
+         public synchronized Settings getSettings()
+         {
+            return settings;
+         }
+      };
+      index = new LocalRepositoryIndex(container, null);
+
+      install("1.0");
+      install("1.10");
+      install("1.2");
+      new File(repository, "org/example/lib/2.0").mkdirs();
+   }
+
+   @After
+   public void tearDown()
+   {
+      delete(repository);
+   }
+
+   @Test
+   public void testVersionsAreSorted() throws Exception
+   {
+      assertEquals(Arrays.asList("1.0", "1.2", "1.10"), index.getVersions(DependencyBuilder.create("org.example:lib")));
+   }
+
+   @Test
+   public void testVersionRanges() throws Exception
+   {
+      assertEquals(Arrays.asList("1.2", "1.10"),
+               index.getVersions(DependencyBuilder.create("org.example:lib:[1.1,2.0)")));
+      assertEquals(Arrays.asList("1.2"), index.getVersions(DependencyBuilder.create("org.example:lib:1.2")));
+   }
+
+   @Test
+   public void testNewVersionsAreDetected() throws Exception
+   {
+      assertEquals(3, index.getVersions(DependencyBuilder.create("org.example:lib")).size());
+
+      File artifactDir = new File(repository, "org/example/lib");
+      install("1.3");
+      artifactDir.setLastModified(artifactDir.lastModified() + 2000);
+
+      assertTrue(index.getVersions(DependencyBuilder.create("org.example:lib")).contains("1.3"));
+   }
+
+   @Test
+   public void testArtifactsAddedToExistingVersionDirectoriesAreDetected() throws Exception
+   {
+      assertFalse(index.getVersions(DependencyBuilder.create("org.example:lib")).contains("2.0"));
+
+      File artifactDir = new File(repository, "org/example/lib");
+      long modified = artifactDir.lastModified();
+      File versionDir = new File(artifactDir, "2.0");
+      new File(versionDir, "lib-2.0.jar").createNewFile();
+      versionDir.setLastModified(versionDir.lastModified() + 2000);
+      artifactDir.setLastModified(modified);
+
+      assertTrue(index.getVersions(DependencyBuilder.create("org.example:lib")).contains("2.0"));
+   }
+
+   @Test
+   public void testVersionsHoldingOnlyThePomAreNotAvailable() throws Exception
+   {
+      File versionDir = new File(repository, "org/example/lib/3.0");
+      versionDir.mkdirs();
+      new File(versionDir, "lib-3.0.pom").createNewFile();
+      new File(versionDir, "lib-3.0-sources.jar").createNewFile();
+
+      assertFalse(index.getVersions(DependencyBuilder.create("org.example:lib")).contains("3.0"));
+      assertTrue(index.getVersions(DependencyBuilder.create("org.example:lib").setPackagingType("pom")).contains(
+               "3.0"));
+      assertEquals(Arrays.asList("3.0"),
+               index.getVersions(DependencyBuilder.create("org.example:lib").setClassifier("sources")));
+   }
+
+   @Test
+   public void testIndexIsOnlyWrittenOnFlush() throws Exception
+   {
+      File config = new File(repository, "config");
+      config.mkdirs();
+      File file = new File(config, LocalRepositoryIndex.INDEX_FILE);
+      install("2.1");
+      LocalRepositoryIndex persistent = new LocalRepositoryIndex(container, createEnvironment(config));
+
+      assertEquals(4, persistent.getVersions(DependencyBuilder.create("org.example:lib")).size());
+      assertTrue(persistent.getVersions(DependencyBuilder.create("org.example:missing")).isEmpty());
+      assertFalse(file.exists());
+
+      persistent.flush();
+      assertTrue(file.isFile());
+      long length = file.length();
+
+      file.delete();
+      persistent.flush();
+      assertFalse(file.exists());
+
+      LocalRepositoryIndex reloaded = new LocalRepositoryIndex(container, createEnvironment(config));
+      reloaded.clear();
+      assertTrue(file.isFile());
+      assertTrue(file.length() < length);
+   }
+
+   @Test
+   public void testArtifactFile() throws Exception
+   {
+      assertNotNull(index.getArtifactFile(DependencyBuilder.create("org.example:lib"), "1.0"));
+      assertNull(index.getArtifactFile(DependencyBuilder.create("org.example:lib"), "2.0"));
+      assertNull(index.getArtifactFile(DependencyBuilder.create("org.example:missing"), "1.0"));
+   }
+
+   private static ForgeEnvironment createEnvironment(final File config)
+   {
+      return (ForgeEnvironment) Proxy.newProxyInstance(ForgeEnvironment.class.getClassLoader(),
+               new Class<?>[] { ForgeEnvironment.class }, new InvocationHandler()
+               {
+                  @Override
+                  public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+                  {
+                     if ("getConfigDirectory".equals(method.getName()))
+                     {
+                        return new DirectoryResource(null, config);
+                     }
+                     throw new UnsupportedOperationException(method.getName());
+                  }
+               });
+   }
+
+   private void install(final String version) throws Exception
+   {
+      File dir = new File(repository, "org/example/lib/" + version);
+      dir.mkdirs();
+      new File(dir, "lib-" + version + ".jar").createNewFile();
+   }
+
+   private static void delete(final File file)
+   {
+      File[] children = file.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            delete(child);
+         }
+      }
+      file.delete();
+   }
+}
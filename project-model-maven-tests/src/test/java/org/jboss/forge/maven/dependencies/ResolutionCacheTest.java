@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.dependencies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.forge.project.dependencies.Dependency;
+import org.jboss.forge.project.dependencies.DependencyBuilder;
+import org.jboss.forge.project.dependencies.DependencyMetadata;
+import org.jboss.forge.project.dependencies.DependencyRepository;
+import org.jboss.forge.project.dependencies.DependencyRepositoryImpl;
+import org.jboss.forge.project.facets.DependencyFacet.KnownRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link ResolutionCache}
+ */
+public class ResolutionCacheTest
+{
+   private ResolutionCache cache;
+   private Dependency query;
+   private List<DependencyRepository> central;
+
+   @Before
+   public void setUp()
+   {
+      cache = new ResolutionCache(null);
+      query = DependencyBuilder.create("com.ocpsoft:prettyfaces-jsf2");
+      central = Arrays.<DependencyRepository> asList(new DependencyRepositoryImpl(KnownRepository.CENTRAL));
+   }
+
+   @Test
+   public void testVersionsAreKeyedByRepositories()
+   {
+      cache.putVersions(query, central, Arrays.asList("3.3.2", "3.3.3"));
+
+      assertEquals(Arrays.asList("3.3.2", "3.3.3"), cache.getVersions(query, central));
+      assertNull(cache.getVersions(query, new ArrayList<DependencyRepository>()));
+      assertNull(cache.getVersions(DependencyBuilder.create("com.ocpsoft:prettyfaces-jsf2:3.3.2"), central));
+   }
+
+   @Test
+   public void testExpiredEntriesAreIgnored()
+   {
+      cache.putVersions(query, central, Arrays.asList("3.3.2"));
+      cache.setTimeToLive(-1);
+      assertNull(cache.getVersions(query, central));
+   }
+
+   @Test
+   public void testExpiredEntriesArePrunedOnFlush()
+   {
+      cache.putVersions(query, central, Arrays.asList("3.3.2"));
+      cache.setTimeToLive(-1);
+      cache.flush();
+
+      cache.setTimeToLive(ResolutionCache.DEFAULT_TTL);
+      assertNull(cache.getVersions(query, central));
+   }
+
+   @Test
+   public void testClear()
+   {
+      cache.putVersions(query, central, Arrays.asList("3.3.2"));
+      cache.clear();
+      assertNull(cache.getVersions(query, central));
+   }
+
+   @Test
+   public void testMetadataRoundTrip()
+   {
+      Dependency dependency = DependencyBuilder.create("com.ocpsoft:prettyfaces-jsf2:3.3.2");
+      List<Dependency> deps = Arrays.<Dependency> asList(DependencyBuilder.create("org.ocpsoft.rewrite:rewrite:1.0"));
+      List<Dependency> managed = Arrays.<Dependency> asList(DependencyBuilder.create("javax.faces:jsf-api:2.0"));
+      cache.putMetadata(dependency, central, new DependencyMetadataImpl(dependency, central, managed, deps));
+
+      DependencyMetadata result = cache.getMetadata(dependency, central);
+      assertEquals("3.3.2", result.getDependency().getVersion());
+      assertEquals("rewrite", result.getDependencies().get(0).getArtifactId());
+      assertEquals("jsf-api", result.getManagedDependencies().get(0).getArtifactId());
+      assertEquals(KnownRepository.CENTRAL.getUrl(), result.getRepositories().get(0).getUrl());
+   }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.dependencies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link ResolutionExecutor}
+ */
+public class ResolutionExecutorTest
+{
+   private ResolutionExecutor executor;
+
+   @Before
+   public void setUp()
+   {
+      executor = new ResolutionExecutor(4);
+   }
+
+   @After
+   public void tearDown()
+   {
+      executor.shutdown();
+   }
+
+   @Test
+   public void testResultsKeepTaskOrder() throws Exception
+   {
+      List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+      for (int i = 0; i < 10; i++)
+      {
+         final int value = i;
+         tasks.add(new Callable<Integer>()
+         {
+            @Override
+            public Integer call() throws Exception
+            {
+               Thread.sleep(10 - value);
+               return value;
+            }
+         });
+      }
+
+      assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), executor.invokeAll(tasks, null));
+   }
+
+   @Test
+   public void testFailuresAreCollected() throws Exception
+   {
+      final IllegalStateException failure = new IllegalStateException();
+      List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+      tasks.add(new Callable<String>()
+      {
+         @Override
+         public String call() throws Exception
+         {
+            throw failure;
+         }
+      });
+      tasks.add(new Callable<String>()
+      {
+         @Override
+         public String call() throws Exception
+         {
+            return "ok";
+         }
+      });
+
+      List<Exception> failures = new ArrayList<Exception>();
+      List<String> results = executor.invokeAll(tasks, failures);
+      assertNull(results.get(0));
+      assertEquals("ok", results.get(1));
+      assertEquals(Arrays.<Exception> asList(failure), failures);
+   }
+}
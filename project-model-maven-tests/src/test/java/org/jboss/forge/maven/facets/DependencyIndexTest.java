@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.facets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.jboss.forge.project.dependencies.Dependency;
+import org.jboss.forge.project.dependencies.DependencyBuilder;
+import org.junit.Test;
+
+/**
+ * Test case for {@link DependencyIndex}
+ */
+public class DependencyIndexTest
+{
+   @Test
+   public void testLookupIgnoresVersionAndScope()
+   {
+      Dependency junit = DependencyBuilder.create("junit:junit:4.8.1:test");
+      DependencyIndex index = new DependencyIndex(Arrays.asList(junit));
+
+      assertTrue(index.contains(DependencyBuilder.create("junit:junit")));
+      assertEquals("4.8.1", index.get(DependencyBuilder.create("junit:junit:4.10:compile")).getVersion());
+      assertFalse(index.contains(DependencyBuilder.create("org.junit:junit")));
+      assertNull(index.get(null));
+   }
+
+   @Test
+   public void testClassifierIsSignificant()
+   {
+      Dependency plain = DependencyBuilder.create("org.jboss:forge:1.0");
+      Dependency sources = DependencyBuilder.create("org.jboss:forge:1.0").setClassifier("sources");
+      DependencyIndex index = new DependencyIndex(Arrays.asList(plain));
+
+      assertFalse(index.contains(sources));
+      assertFalse(index.contains(DependencyBuilder.create("org.jboss:forge:1.0").setClassifier("")));
+   }
+
+   @Test
+   public void testFirstEquivalentDependencyWins()
+   {
+      Dependency first = DependencyBuilder.create("org.jboss:forge:1.0");
+      Dependency second = DependencyBuilder.create("org.jboss:forge:2.0");
+      DependencyIndex index = new DependencyIndex(Arrays.asList(first, second));
+
+      assertEquals("1.0", index.get(DependencyBuilder.create("org.jboss:forge")).getVersion());
+   }
+}
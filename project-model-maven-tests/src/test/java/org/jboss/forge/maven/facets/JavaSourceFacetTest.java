@@ -8,7 +8,12 @@
 package org.jboss.forge.maven.facets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
 
 import javax.inject.Singleton;
 
@@ -19,6 +24,9 @@ import org.jboss.forge.parser.java.JavaSource;
 import org.jboss.forge.project.Project;
 import org.jboss.forge.project.facets.JavaSourceFacet;
 import org.jboss.forge.resources.java.JavaResource;
+import org.jboss.forge.resources.java.JavaResourceCollector;
+import org.jboss.forge.resources.java.JavaResourceVisitor;
+import org.jboss.forge.shell.exceptions.AbortedException;
 import org.jboss.forge.test.AbstractShellTest;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -82,4 +90,86 @@ public class JavaSourceFacetTest extends AbstractShellTest
       assertEquals(parsed.getPackage(), clazz.getPackage());
       assertEquals(parsed, clazz);
    }
+
+   @Test
+   public void testParallelVisitCollectsInOrder() throws Exception
+   {
+      Project project = initializeJavaProject();
+      JavaSourceFacet java = project.getFacet(JavaSourceFacet.class);
+
+      java.saveTestJavaSource(JavaParser.create(JavaClass.class).setName("Beta").setPackage(PKG + ".b"));
+      java.saveTestJavaSource(JavaParser.create(JavaClass.class).setName("Alpha").setPackage(PKG + ".a"));
+      java.saveTestJavaSource(JavaParser.create(JavaClass.class).setName("Gamma").setPackage(PKG));
+
+      JavaResourceCollector<String> collector = new JavaResourceCollector<String>()
+      {
+         @Override
+         protected String collect(final JavaResource javaResource)
+         {
+            try
+            {
+               return javaResource.getJavaSource().getQualifiedName();
+            }
+            catch (FileNotFoundException e)
+            {
+               throw new RuntimeException(e);
+            }
+         }
+      };
+      java.visitJavaTestSources(collector, 4);
+
+      assertEquals(Arrays.asList(PKG + ".Gamma", PKG + ".a.Alpha", PKG + ".b.Beta"), collector.getResults());
+   }
+
+   @Test
+   public void testParallelVisitRethrowsErrors() throws Exception
+   {
+      Project project = initializeJavaProject();
+      JavaSourceFacet java = project.getFacet(JavaSourceFacet.class);
+      java.saveTestJavaSource(JavaParser.create(JavaClass.class).setName("Alpha").setPackage(PKG));
+
+      final Error error = new Error("visitor failed");
+      try
+      {
+         java.visitJavaTestSources(new JavaResourceVisitor()
+         {
+            @Override
+            public void visit(final JavaResource javaResource)
+            {
+               throw error;
+            }
+         }, 4);
+         fail("Expected the visitor error to be rethrown");
+      }
+      catch (Error e)
+      {
+         assertSame(error, e);
+      }
+   }
+
+   @Test
+   public void testInterruptedParallelVisitIsAborted() throws Exception
+   {
+      Project project = initializeJavaProject();
+      JavaSourceFacet java = project.getFacet(JavaSourceFacet.class);
+      java.saveTestJavaSource(JavaParser.create(JavaClass.class).setName("Alpha").setPackage(PKG));
+
+      Thread.currentThread().interrupt();
+      try
+      {
+         java.visitJavaTestSources(new JavaResourceCollector<String>()
+         {
+            @Override
+            protected String collect(final JavaResource javaResource)
+            {
+               return javaResource.getName();
+            }
+         }, 4);
+         fail("Expected an interrupted visit to be aborted");
+      }
+      catch (AbortedException e)
+      {
+         assertTrue(Thread.interrupted());
+      }
+   }
 }
@@ -11,11 +11,13 @@ import javax.inject.Inject;
 
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.forge.project.Project;
+import org.jboss.forge.project.dependencies.Dependency;
 import org.jboss.forge.project.dependencies.DependencyBuilder;
 import org.jboss.forge.project.dependencies.DependencyInstaller;
 import org.jboss.forge.project.dependencies.ScopeType;
 import org.jboss.forge.project.facets.DependencyFacet;
 import org.jboss.forge.project.packaging.PackagingType;
+import org.jboss.forge.project.services.FacetFactory;
 import org.jboss.forge.test.AbstractShellTest;
 import org.junit.Assert;
 import org.junit.Test;
@@ -30,6 +32,12 @@ public class MavenDependencyFacetDependencyInstallerTest extends AbstractShellTe
    @Inject
    private DependencyInstaller installer;
 
+   @Inject
+   private FacetFactory facetFactory;
+
+   @Inject
+   private PomWriteCounter writes;
+
    @Test
    public void testInstall() throws Exception
    {
@@ -63,6 +71,35 @@ public class MavenDependencyFacetDependencyInstallerTest extends AbstractShellTe
       Assert.assertNull(deps.getDirectDependency(dependency).getVersion());
    }
 
+   @Test
+   public void testInstallWithVersionWritesPomOnce() throws Exception
+   {
+      Project project = initializeProject(PackagingType.BASIC);
+      DependencyBuilder dependency = DependencyBuilder.create("org.jboss.forge:forge-shell-api:1.0.4.Final");
+
+      int before = writes.getCount();
+      installer.install(project, dependency);
+
+      Assert.assertEquals(before + 1, writes.getCount());
+   }
+
+   @Test
+   public void testFacetInstallingSeveralDependenciesWritesPomOnce() throws Exception
+   {
+      Project project = initializeProject(PackagingType.BASIC);
+      DependencyFacet deps = project.getFacet(DependencyFacet.class);
+
+      int before = writes.getCount();
+      project.installFacet(facetFactory.getFacet(MockDependenciesFacet.class));
+
+      Assert.assertEquals(before + 1, writes.getCount());
+      Assert.assertTrue(project.hasFacet(MockDependenciesFacet.class));
+      for (Dependency dependency : MockDependenciesFacet.DEPENDENCIES)
+      {
+         Assert.assertTrue(deps.hasDirectManagedDependency(dependency));
+      }
+   }
+
    @Test
    public void testInstallManaged() throws Exception
    {
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.facets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import org.apache.maven.model.Model;
+import org.jboss.forge.resources.UnknownFileResource;
+import org.jboss.forge.resources.events.ResourceModified;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link MavenPomCache}
+ */
+public class MavenPomCacheTest
+{
+   private File pomFile;
+   private MavenPomCache cache;
+
+   @Before
+   public void setUp() throws Exception
+   {
+      pomFile = File.createTempFile("forge-pom", ".xml");
+      write("<project/>");
+      cache = new MavenPomCache();
+   }
+
+   @After
+   public void tearDown()
+   {
+      pomFile.delete();
+   }
+
+   @Test
+   public void testGetReturnsCopy() throws Exception
+   {
+      Model model = new Model();
+      model.setArtifactId("cached");
+      cache.put(pomFile, model);
+
+      Model first = cache.get(pomFile);
+      assertNotNull(first);
+      assertNotSame(model, first);
+      assertEquals("cached", first.getArtifactId());
+
+      first.setArtifactId("mutated");
+      model.setArtifactId("mutated");
+      assertEquals("cached", cache.get(pomFile).getArtifactId());
+   }
+
+   @Test
+   public void testStaleEntryIsDiscarded() throws Exception
+   {
+      cache.put(pomFile, new Model());
+      write("<project><modelVersion>4.0.0</modelVersion></project>");
+      assertNull(cache.get(pomFile));
+   }
+
+   @Test
+   public void testWrittenEntrySurvivesItsModificationEvent() throws Exception
+   {
+      Model model = new Model();
+      model.setArtifactId("written");
+      cache.putWritten(pomFile, model);
+
+      cache.modified(new ResourceModified(new UnknownFileResource(null, pomFile)));
+      assertEquals("written", cache.get(pomFile).getArtifactId());
+   }
+
+   @Test
+   public void testReadEntryIsEvictedByModificationEvent() throws Exception
+   {
+      cache.put(pomFile, new Model());
+
+      cache.modified(new ResourceModified(new UnknownFileResource(null, pomFile)));
+      assertNull(cache.get(pomFile));
+   }
+
+   @Test
+   public void testInvalidate() throws Exception
+   {
+      cache.put(pomFile, new Model());
+      cache.invalidate(pomFile);
+      assertNull(cache.get(pomFile));
+   }
+
+   private void write(final String content) throws Exception
+   {
+      FileWriter writer = new FileWriter(pomFile);
+      writer.write(content);
+      writer.close();
+   }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.maven.facets;
+
+import javax.inject.Inject;
+
+import org.jboss.forge.project.dependencies.Dependency;
+import org.jboss.forge.project.dependencies.DependencyBuilder;
+import org.jboss.forge.project.dependencies.DependencyInstaller;
+import org.jboss.forge.project.facets.BaseFacet;
+import org.jboss.forge.project.facets.DependencyFacet;
+import org.jboss.forge.shell.plugins.Alias;
+import org.jboss.forge.shell.plugins.RequiresFacet;
+
+/**
+ * Installs several managed dependencies, one at a time.
+ */
+@Alias("forge.test.MockDependenciesFacet")
+@RequiresFacet(DependencyFacet.class)
+public class MockDependenciesFacet extends BaseFacet
+{
+   static final Dependency[] DEPENDENCIES = {
+            DependencyBuilder.create("org.jboss.forge.test:first:1.0"),
+            DependencyBuilder.create("org.jboss.forge.test:second:1.0"),
+            DependencyBuilder.create("org.jboss.forge.test:third:1.0") };
+
+   @Inject
+   private DependencyInstaller installer;
+
+   @Override
+   public boolean install()
+   {
+      for (Dependency dependency : DEPENDENCIES)
+      {
+         installer.installManaged(project, dependency);
+      }
+      return true;
+   }
+
+   @Override
+   public boolean isInstalled()
+   {
+      DependencyFacet deps = project.getFacet(DependencyFacet.class);
+      for (Dependency dependency : DEPENDENCIES)
+      {
+         if (!deps.hasDirectManagedDependency(dependency))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.maven.facets;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+import org.jboss.forge.resources.events.ResourceModified;
+
+/**
+ * Counts the modification events fired for POM files, one per write.
+ */
+@Singleton
+public class PomWriteCounter
+{
+   private int count;
+
+   void modified(@Observes final ResourceModified event)
+   {
+      if ("pom.xml".equals(event.getResource().getName()))
+      {
+         count++;
+      }
+   }
+
+   public int getCount()
+   {
+      return count;
+   }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.facets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link PropertyInterpolator}
+ */
+public class PropertyInterpolatorTest
+{
+   private PropertyInterpolator interpolator;
+
+   @Before
+   public void setUp()
+   {
+      Properties properties = new Properties();
+      properties.setProperty("version.junit", "4.8.1");
+      properties.setProperty("group", "org.jboss");
+      properties.setProperty("artifact", "${group}.forge");
+      properties.setProperty("price", "$100");
+      properties.setProperty("cycle.a", "${cycle.b}");
+      properties.setProperty("cycle.b", "${cycle.a}");
+      interpolator = new PropertyInterpolator(properties);
+   }
+
+   @Test
+   public void testPlainValuesAreUntouched()
+   {
+      assertNull(interpolator.interpolate(null));
+      assertEquals("", interpolator.interpolate(""));
+      assertEquals("4.8.1", interpolator.interpolate("4.8.1"));
+   }
+
+   @Test
+   public void testSimpleProperty()
+   {
+      assertEquals("4.8.1", interpolator.interpolate("${version.junit}"));
+      assertEquals("junit-4.8.1.jar", interpolator.interpolate("junit-${version.junit}.jar"));
+   }
+
+   @Test
+   public void testMultipleAndNestedProperties()
+   {
+      assertEquals("org.jboss:org.jboss.forge", interpolator.interpolate("${group}:${artifact}"));
+   }
+
+   @Test
+   public void testValuesAreNotTreatedAsRegex()
+   {
+      assertEquals("$100", interpolator.interpolate("${price}"));
+   }
+
+   @Test
+   public void testUnknownAndMalformedExpressionsAreKept()
+   {
+      assertEquals("${unknown}-4.8.1", interpolator.interpolate("${unknown}-${version.junit}"));
+      assertEquals("4.8.1-${version.junit", interpolator.interpolate("${version.junit}-${version.junit"));
+   }
+
+   @Test
+   public void testCyclicPropertiesTerminate()
+   {
+      assertEquals("${cycle.a}", interpolator.interpolate("${cycle.a}"));
+   }
+}
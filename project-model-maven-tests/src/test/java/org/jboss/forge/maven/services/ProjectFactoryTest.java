@@ -7,11 +7,21 @@
 
 package org.jboss.forge.maven.services;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import javax.inject.Inject;
 
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.forge.project.Project;
 import org.jboss.forge.project.facets.JavaSourceFacet;
+import org.jboss.forge.project.facets.ResourceFacet;
+import org.jboss.forge.project.services.ProjectFactory;
 import org.jboss.forge.resources.DirectoryResource;
 import org.jboss.forge.resources.Resource;
 import org.jboss.forge.shell.Shell;
@@ -26,6 +36,9 @@ import org.junit.runner.RunWith;
 @RunWith(Arquillian.class)
 public class ProjectFactoryTest extends AbstractShellTest
 {
+   @Inject
+   private ProjectFactory factory;
+
    @Test
    public void testCDintoProjectRegistersFacets() throws Exception
    {
@@ -53,4 +66,46 @@ public class ProjectFactoryTest extends AbstractShellTest
 
       assertNotNull(javaSourceFacet);
    }
+
+   @Test
+   public void testCachedProjectRootIsCheckedAgain() throws Exception
+   {
+      DirectoryResource root = initializeJavaProject().getProjectRoot();
+      DirectoryResource sources = root.getChildDirectory("src").getChildDirectory("main");
+      assertEquals(root.getFullyQualifiedName(), factory.findProjectRootRecusively(sources).getFullyQualifiedName());
+      assertEquals(root.getFullyQualifiedName(), factory.findProjectRootRecusively(sources).getFullyQualifiedName());
+
+      // bypass resource events, as an external tool would
+      assertTrue(new File(root.getUnderlyingResourceObject(), "pom.xml").delete());
+      assertNull(factory.findProjectRootRecusively(sources));
+   }
+
+   @Test
+   public void testFacetsFollowSourceFoldersChangedOutsideForge() throws Exception
+   {
+      DirectoryResource root = initializeJavaProject().getProjectRoot();
+      File projectDir = root.getUnderlyingResourceObject();
+      File resources = new File(projectDir, "src/main/resources");
+      assertTrue(factory.findProjectRecursively(root).hasFacet(ResourceFacet.class));
+
+      // bypass resource events, as an external tool would; only the stamped source folder changes
+      delete(resources);
+      assertFalse(factory.findProjectRecursively(root).hasFacet(ResourceFacet.class));
+
+      assertTrue(resources.mkdirs());
+      assertTrue(factory.findProjectRecursively(root).hasFacet(ResourceFacet.class));
+   }
+
+   private static void delete(final File file)
+   {
+      File[] children = file.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            delete(child);
+         }
+      }
+      assertTrue(file.delete());
+   }
 }
@@ -10,6 +10,7 @@ import javax.enterprise.inject.Typed;
 
 import org.jboss.forge.project.BaseProject;
 import org.jboss.forge.project.Facet;
+import org.jboss.forge.project.Project;
 import org.jboss.forge.project.facets.FacetNotFoundException;
 import org.jboss.forge.project.services.ProjectFactory;
 import org.jboss.forge.resources.DirectoryResource;
@@ -44,6 +45,31 @@ public class ProjectImpl extends BaseProject
       }
    }
 
+   /**
+    * Once the project has a POM, everything a facet changes in it while installing (typically several dependencies) is
+    * written at once.
+    */
+   @Override
+   public Project installFacet(final Facet facet)
+   {
+      if (!hasFacet(MavenCoreFacet.class))
+      {
+         return super.installFacet(facet);
+      }
+
+      PomTransaction transaction = getFacet(MavenCoreFacet.class).beginTransaction();
+      try
+      {
+         return super.installFacet(facet);
+      }
+      finally
+      {
+         // as when every change was written immediately, a failed installation keeps what it changed
+         if (transaction.isActive())
+            transaction.commit();
+      }
+   }
+
    @Override
    public DirectoryResource getProjectRoot()
    {
@@ -53,6 +53,15 @@ public class DependencyMetadataImpl implements DependencyMetadata
       }
    }
 
+   public DependencyMetadataImpl(Dependency query, List<DependencyRepository> repositories,
+            List<Dependency> managedDependencies, List<Dependency> dependencies)
+   {
+      this.dependency = query;
+      this.repositories = repositories;
+      this.managedDependencies = managedDependencies;
+      this.dependencies = dependencies;
+   }
+
    private Dependency convertToForge(org.sonatype.aether.graph.Dependency d)
    {
       Artifact a = d.getArtifact();
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.dependencies;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.jboss.forge.ForgeEnvironment;
+import org.jboss.forge.maven.facets.MavenContainer;
+import org.jboss.forge.parser.java.util.Strings;
+import org.jboss.forge.project.dependencies.Dependency;
+import org.jboss.forge.shell.events.CommandExecuted;
+import org.jboss.forge.shell.events.PreShutdown;
+import org.sonatype.aether.util.version.GenericVersionScheme;
+import org.sonatype.aether.version.InvalidVersionSpecificationException;
+import org.sonatype.aether.version.Version;
+import org.sonatype.aether.version.VersionConstraint;
+import org.sonatype.aether.version.VersionScheme;
+
+/**
+ * Index of the artifact versions available in the local Maven repository, used to answer version and artifact queries
+ * without going through Aether (for instance, when Forge is offline).
+ * <p>
+ * The index is built incrementally: the version directories of an artifact are only listed the first time it is
+ * queried, and again whenever the modification time of its directory changes, or of one of its version directories
+ * that did not contain the artifact yet (such as a directory holding only a POM or download markers). A version is
+ * available if its directory contains the file of the queried packaging and classifier, so versions are indexed
+ * separately for each of them. The index is persisted in a compact binary file in the Forge configuration directory,
+ * so that it survives restarts; changes are written when a command completes and on shutdown.
+ */
+@ApplicationScoped
+public class LocalRepositoryIndex
+{
+   public static final String INDEX_FILE = "maven-local-repository.idx";
+   private static final int FORMAT_VERSION = 3;
+
+   private final VersionScheme scheme = new GenericVersionScheme();
+   private final Map<String, ArtifactEntry> entries = new HashMap<String, ArtifactEntry>();
+
+   @Inject
+   private MavenContainer container;
+
+   @Inject
+   private ForgeEnvironment environment;
+
+   private boolean loaded;
+   private boolean modified;
+
+   public LocalRepositoryIndex()
+   {
+   }
+
+   public LocalRepositoryIndex(final MavenContainer container, final ForgeEnvironment environment)
+   {
+      this.container = container;
+      this.environment = environment;
+   }
+
+   /**
+    * Return the versions of the given {@link Dependency} available in the local repository, in ascending order. If the
+    * dependency specifies a version or version range, only matching versions are returned.
+    */
+   public List<String> getVersions(final Dependency dep)
+   {
+      List<String> result = new ArrayList<String>();
+      if (Strings.isNullOrEmpty(dep.getGroupId()) || Strings.isNullOrEmpty(dep.getArtifactId()))
+      {
+         return result;
+      }
+
+      VersionConstraint constraint = getConstraint(dep.getVersion());
+      for (String version : getIndexedVersions(dep, getArtifactDirectory(dep)))
+      {
+         if ((constraint == null) || contains(constraint, version))
+         {
+            result.add(version);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Return the artifact file for the given version of the given {@link Dependency}, or null if the local repository
+    * does not contain it.
+    */
+   public File getArtifactFile(final Dependency dep, final String version)
+   {
+      if (Strings.isNullOrEmpty(dep.getGroupId()) || Strings.isNullOrEmpty(dep.getArtifactId())
+               || Strings.isNullOrEmpty(version))
+      {
+         return null;
+      }
+
+      File file = new File(new File(getArtifactDirectory(dep), version), getFileName(dep, version));
+      return file.isFile() ? file : null;
+   }
+
+   /**
+    * Discard the index, forcing artifacts to be listed again on their next query.
+    */
+   public synchronized void clear()
+   {
+      load();
+      entries.clear();
+      modified = true;
+      flush();
+   }
+
+   /**
+    * Write the index file, if artifacts were listed since it was last written.
+    */
+   public synchronized void flush()
+   {
+      if (modified)
+      {
+         store();
+         modified = false;
+      }
+   }
+
+   void commandExecuted(@Observes final CommandExecuted event)
+   {
+      flush();
+   }
+
+   void preShutdown(@Observes final PreShutdown event)
+   {
+      flush();
+   }
+
+   @PreDestroy
+   void destroy()
+   {
+      flush();
+   }
+
+   private File getArtifactDirectory(final Dependency dep)
+   {
+      File root = new File(container.getSettings().getLocalRepository());
+      return new File(new File(root, dep.getGroupId().replace('.', File.separatorChar)), dep.getArtifactId());
+   }
+
+   /*
+    * The file of the given version of the given dependency: artifactId-version[-classifier].packaging
+    */
+   private static String getFileName(final Dependency dep, final String version)
+   {
+      StringBuilder name = new StringBuilder(dep.getArtifactId()).append('-').append(version);
+      if (!Strings.isNullOrEmpty(dep.getClassifier()))
+      {
+         name.append('-').append(dep.getClassifier());
+      }
+      name.append('.').append(Strings.isNullOrEmpty(dep.getPackagingType()) ? "jar" : dep.getPackagingType());
+      return name.toString();
+   }
+
+   /*
+    * Entries are keyed by artifact directory and file name pattern, since a version directory may hold the POM or
+    * another classifier without the queried artifact.
+    */
+   private synchronized List<String> getIndexedVersions(final Dependency dep, final File artifactDir)
+   {
+      load();
+
+      String key = artifactDir.getAbsolutePath() + File.pathSeparator + getFileName(dep, "*");
+      long lastModified = artifactDir.lastModified();
+      ArtifactEntry entry = entries.get(key);
+      if ((entry == null) || (entry.lastModified != lastModified) || entry.isPendingChanged(artifactDir))
+      {
+         entry = scan(dep, artifactDir, lastModified);
+         if (lastModified == 0L)
+         {
+            // the artifact does not exist; nothing worth persisting
+            if (entries.remove(key) != null)
+            {
+               modified = true;
+            }
+            return entry.versions;
+         }
+         entries.put(key, entry);
+         modified = true;
+      }
+      return entry.versions;
+   }
+
+   private ArtifactEntry scan(final Dependency dep, final File artifactDir, final long modified)
+   {
+      List<Version> versions = new ArrayList<Version>();
+      Map<String, Long> pending = new HashMap<String, Long>();
+      File[] children = artifactDir.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            if (child.isDirectory())
+            {
+               try
+               {
+                  Version version = scheme.parseVersion(child.getName());
+                  if (new File(child, getFileName(dep, child.getName())).isFile())
+                  {
+                     versions.add(version);
+                  }
+                  else
+                  {
+                     // the artifact may still be downloaded into this directory
+                     pending.put(child.getName(), child.lastModified());
+                  }
+               }
+               catch (InvalidVersionSpecificationException e)
+               {
+                  // not a version directory
+               }
+            }
+         }
+      }
+      Collections.sort(versions);
+
+      List<String> result = new ArrayList<String>(versions.size());
+      for (Version version : versions)
+      {
+         result.add(version.toString());
+      }
+      return new ArtifactEntry(modified, result, pending);
+   }
+
+   private VersionConstraint getConstraint(final String version)
+   {
+      if (Strings.isNullOrEmpty(version))
+      {
+         return null;
+      }
+      try
+      {
+         return scheme.parseVersionConstraint(version);
+      }
+      catch (InvalidVersionSpecificationException e)
+      {
+         return null;
+      }
+   }
+
+   private boolean contains(final VersionConstraint constraint, final String version)
+   {
+      try
+      {
+         if (constraint.getRanges().isEmpty())
+         {
+            return constraint.getVersion().equals(scheme.parseVersion(version));
+         }
+         return constraint.containsVersion(scheme.parseVersion(version));
+      }
+      catch (InvalidVersionSpecificationException e)
+      {
+         return false;
+      }
+   }
+
+   /*
+    * Persistence
+    */
+   private void load()
+   {
+      if (!loaded)
+      {
+         loaded = true;
+         File file = getIndexFile();
+         if ((file != null) && file.isFile())
+         {
+            try
+            {
+               DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+               try
+               {
+                  if (in.readInt() == FORMAT_VERSION)
+                  {
+                     int count = in.readInt();
+                     for (int i = 0; i < count; i++)
+                     {
+                        String key = in.readUTF();
+                        long modified = in.readLong();
+                        int size = in.readInt();
+                        List<String> versions = new ArrayList<String>(size);
+                        for (int j = 0; j < size; j++)
+                        {
+                           versions.add(in.readUTF());
+                        }
+                        int pendingSize = in.readInt();
+                        Map<String, Long> pending = new HashMap<String, Long>();
+                        for (int j = 0; j < pendingSize; j++)
+                        {
+                           pending.put(in.readUTF(), in.readLong());
+                        }
+                        entries.put(key, new ArtifactEntry(modified, versions, pending));
+                     }
+                  }
+               }
+               finally
+               {
+                  in.close();
+               }
+            }
+            catch (IOException e)
+            {
+               // a corrupt index is simply rebuilt
+               entries.clear();
+            }
+         }
+      }
+   }
+
+   private void store()
+   {
+      File file = getIndexFile();
+      if (file != null)
+      {
+         try
+         {
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try
+            {
+               out.writeInt(FORMAT_VERSION);
+               out.writeInt(entries.size());
+               for (Entry<String, ArtifactEntry> e : entries.entrySet())
+               {
+                  out.writeUTF(e.getKey());
+                  out.writeLong(e.getValue().lastModified);
+                  out.writeInt(e.getValue().versions.size());
+                  for (String version : e.getValue().versions)
+                  {
+                     out.writeUTF(version);
+                  }
+                  out.writeInt(e.getValue().pending.size());
+                  for (Entry<String, Long> pending : e.getValue().pending.entrySet())
+                  {
+                     out.writeUTF(pending.getKey());
+                     out.writeLong(pending.getValue());
+                  }
+               }
+            }
+            finally
+            {
+               out.close();
+            }
+            if (!temp.renameTo(file))
+            {
+               file.delete();
+               temp.renameTo(file);
+            }
+         }
+         catch (IOException e)
+         {
+            // the index remains usable in memory
+         }
+      }
+   }
+
+   private File getIndexFile()
+   {
+      try
+      {
+         if (environment != null)
+         {
+            return new File(environment.getConfigDirectory().getUnderlyingResourceObject(), INDEX_FILE);
+         }
+      }
+      catch (RuntimeException e)
+      {
+         // no configuration directory available, index in memory only
+      }
+      return null;
+   }
+
+   private static class ArtifactEntry
+   {
+      private final long lastModified;
+      private final List<String> versions;
+      private final Map<String, Long> pending;
+
+      public ArtifactEntry(final long lastModified, final List<String> versions, final Map<String, Long> pending)
+      {
+         this.lastModified = lastModified;
+         this.versions = Collections.unmodifiableList(versions);
+         this.pending = pending;
+      }
+
+      /*
+       * Files added to an existing version directory change its modification time, but not that of the artifact
+       * directory.
+       */
+      public boolean isPendingChanged(final File artifactDir)
+      {
+         for (Entry<String, Long> e : pending.entrySet())
+         {
+            if (new File(artifactDir, e.getKey()).lastModified() != e.getValue())
+            {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
+}
@@ -10,6 +10,10 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
@@ -31,9 +35,6 @@ import org.jboss.forge.project.dependencies.DependencyResolverProvider;
 import org.jboss.forge.project.facets.DependencyFacet.KnownRepository;
 import org.jboss.forge.project.services.ResourceFactory;
 import org.jboss.forge.resources.DependencyResource;
-import org.jboss.forge.resources.DirectoryResource;
-import org.jboss.forge.resources.FileResource;
-import org.jboss.forge.resources.Resource;
 import org.sonatype.aether.RepositorySystem;
 import org.sonatype.aether.artifact.Artifact;
 import org.sonatype.aether.collection.CollectRequest;
@@ -64,18 +65,21 @@ public class RepositoryLookup implements DependencyResolverProvider
    private MavenContainer container;
    private ResourceFactory factory;
    private ForgeEnvironment environment;
-
-   public RepositoryLookup()
-   {
-   }
+   private ResolutionCache cache;
+   private ResolutionExecutor executor;
+   private LocalRepositoryIndex localIndex;
 
    @Inject
    public RepositoryLookup(final MavenContainer container, final ResourceFactory factory,
-            final ForgeEnvironment environment)
+            final ForgeEnvironment environment, final ResolutionCache cache, final ResolutionExecutor executor,
+            final LocalRepositoryIndex localIndex)
    {
       this.container = container;
       this.factory = factory;
       this.environment = environment;
+      this.cache = cache;
+      this.executor = executor;
+      this.localIndex = localIndex;
    }
 
    @Override
@@ -95,7 +99,7 @@ public class RepositoryLookup implements DependencyResolverProvider
    {
       List<DependencyResource> result = new ArrayList<DependencyResource>();
 
-      RepositorySystem system = container.lookup(RepositorySystem.class);
+      final RepositorySystem system = container.lookup(RepositorySystem.class);
 
       /**
        * First try resolving the artifact directly from the local repository - then fall back to aether. This may be a
@@ -103,95 +107,100 @@ public class RepositoryLookup implements DependencyResolverProvider
        */
       if (dep.getVersion() != null)
       {
-         DirectoryResource dir = (DirectoryResource) factory.getResourceFrom(new File(container.getSettings()
-                  .getLocalRepository()));
-         if ((dir != null) && dir.exists())
+         File file = localIndex.getArtifactFile(dep, dep.getVersion());
+         if (file != null)
          {
-            List<String> segments = new ArrayList<String>();
-            segments.addAll(Arrays.asList((dep.getGroupId() + "." + dep.getArtifactId()).split("\\.")));
-            segments.add(dep.getVersion());
-
-            for (String seg : segments)
-            {
-               dir = dir.getChildDirectory(seg);
-               if (!dir.isDirectory())
-               {
-                  break;
-               }
-            }
+            result.add(new DependencyResource(factory, file, dep));
+         }
+      }
 
-            if (dir.isDirectory())
+      /*
+       * When offline, answer version range queries from the local repository index; Aether could not consult anything
+       * else anyway.
+       */
+      if (result.isEmpty() && !environment.isOnline())
+      {
+         for (String version : localIndex.getVersions(dep))
+         {
+            File file = localIndex.getArtifactFile(dep, version);
+            if (file != null)
             {
-               Resource<?> jar = dir.getChild(dep.getArtifactId() + "-" + dep.getVersion() + "."
-                        + dep.getPackagingType());
-               if (jar.exists())
-               {
-                  FileResource<?> jarFile = jar.reify(FileResource.class);
-                  result.add(new DependencyResource(jarFile.getResourceFactory(), jarFile
-                           .getUnderlyingResourceObject(), dep));
-               }
+               result.add(new DependencyResource(factory, file, DependencyBuilder.create(dep).setVersion(version)));
             }
          }
       }
 
       if (result.isEmpty())
       {
-         MavenRepositorySystemSession session = setupRepoSession(system);
-
-         session.setIgnoreInvalidArtifactDescriptor(true);
-         session.setIgnoreMissingArtifactDescriptor(true);
+         final MavenRepositorySystemSession session = container.getRepositorySession(!environment.isOnline(), true);
 
          VersionRangeResult versions = getVersions(dep, convertToMavenRepos(repositories));
 
-         VERSION: for (Version version : versions.getVersions())
+         List<Callable<DependencyResource>> tasks = new ArrayList<Callable<DependencyResource>>();
+         for (final Version version : versions.getVersions())
          {
-            ArtifactRepository ar = versions.getRepository(version);
-            DependencyBuilder currentVersion = DependencyBuilder.create(dep).setVersion(version.toString());
-            Artifact artifact = dependencyToMavenArtifact(currentVersion);
-
-            if (ar instanceof LocalRepository)
+            final ArtifactRepository ar = versions.getRepository(version);
+            final DependencyBuilder currentVersion = DependencyBuilder.create(dep).setVersion(version.toString());
+            tasks.add(new Callable<DependencyResource>()
             {
-               LocalArtifactRequest request = new LocalArtifactRequest(artifact, null, null);
-               LocalArtifactResult a = session.getLocalRepositoryManager().find(session, request);
-
-               File file = a.getFile();
-               DependencyResource resource = new DependencyResource(factory, file, currentVersion);
-               if (!result.contains(resource))
+               @Override
+               public DependencyResource call() throws Exception
                {
-                  result.add(resource);
-                  continue VERSION;
+                  return resolveArtifact(system, session, ar, currentVersion);
                }
-            }
-            if (ar instanceof RemoteRepository)
-            {
-               ArtifactRequest request = new ArtifactRequest();
-               RemoteRepository remoteRepo = new RemoteRepository(ar.getId(), ar.getContentType(),
-                        ((RemoteRepository) ar).getUrl());
-               request.addRepository(remoteRepo);
-               request.setArtifact(artifact);
-
-               try
-               {
-                  ArtifactResult a = system.resolveArtifact(session, request);
+            });
+         }
 
-                  File file = a.getArtifact().getFile();
-                  DependencyResource resource = new DependencyResource(factory, file, currentVersion);
-                  if (!result.contains(resource))
-                  {
-                     result.add(resource);
-                     continue VERSION;
-                  }
-               }
-               catch (ArtifactResolutionException e)
-               {
-                  System.out.println(e.getMessage());
-               }
+         /*
+          * Versions are resolved concurrently, but collected in version order
+          */
+         for (DependencyResource resource : executor.invokeAll(tasks, null))
+         {
+            if ((resource != null) && !result.contains(resource))
+            {
+               result.add(resource);
             }
          }
       }
       return result;
    }
 
+   private DependencyResource resolveArtifact(final RepositorySystem system,
+            final MavenRepositorySystemSession session, final ArtifactRepository ar, final Dependency currentVersion)
+   {
+      Artifact artifact = dependencyToMavenArtifact(currentVersion);
+
+      if (ar instanceof LocalRepository)
+      {
+         LocalArtifactRequest request = new LocalArtifactRequest(artifact, null, null);
+         LocalArtifactResult a = session.getLocalRepositoryManager().find(session, request);
+
+         File file = a.getFile();
+         return new DependencyResource(factory, file, currentVersion);
+      }
+      if (ar instanceof RemoteRepository)
+      {
+         ArtifactRequest request = new ArtifactRequest();
+         RemoteRepository remoteRepo = new RemoteRepository(ar.getId(), ar.getContentType(),
+                  ((RemoteRepository) ar).getUrl());
+         request.addRepository(remoteRepo);
+         request.setArtifact(artifact);
+
+         try
+         {
+            ArtifactResult a = system.resolveArtifact(session, request);
+
+            File file = a.getArtifact().getFile();
+            return new DependencyResource(factory, file, currentVersion);
+         }
+         catch (ArtifactResolutionException e)
+         {
+            System.out.println(e.getMessage());
+         }
+      }
+      return null;
+   }
+
    @Override
    public List<DependencyResource> resolveDependencies(final Dependency query)
    {
@@ -217,7 +226,7 @@ public class RepositoryLookup implements DependencyResolverProvider
          }
 
          RepositorySystem system = container.lookup(RepositorySystem.class);
-         MavenRepositorySystemSession session = setupRepoSession(system);
+         MavenRepositorySystemSession session = setupRepoSession();
 
          Artifact artifact = dependencyToMavenArtifact(dep);
          CollectRequest collectRequest = new CollectRequest(new org.sonatype.aether.graph.Dependency(artifact, null),
@@ -265,8 +274,14 @@ public class RepositoryLookup implements DependencyResolverProvider
             query = DependencyBuilder.create(query).setVersion("[,)");
          }
 
+         DependencyMetadata cached = cache.getMetadata(query, repositories);
+         if (cached != null)
+         {
+            return cached;
+         }
+
          RepositorySystem system = container.lookup(RepositorySystem.class);
-         MavenRepositorySystemSession session = setupRepoSession(system);
+         MavenRepositorySystemSession session = setupRepoSession();
 
          Artifact artifact = dependencyToMavenArtifact(query);
 
@@ -277,7 +292,9 @@ public class RepositoryLookup implements DependencyResolverProvider
          Dependency d = DependencyBuilder.create().setArtifactId(a.getArtifactId()).setGroupId(a.getGroupId())
                   .setVersion(a.getVersion());
 
-         return new DependencyMetadataImpl(d, results);
+         DependencyMetadata result = new DependencyMetadataImpl(d, results);
+         cache.putMetadata(query, repositories, result);
+         return result;
       }
       catch (Exception e)
       {
@@ -302,29 +319,56 @@ public class RepositoryLookup implements DependencyResolverProvider
    {
       List<Dependency> result = new ArrayList<Dependency>();
 
-      List<RemoteRepository> remoteRepos = convertToMavenRepos(repositories);
-      VersionRangeResult r = getVersions(dep, remoteRepos);
+      List<String> versions = cache.getVersions(dep, repositories);
+      if ((versions == null) && !environment.isOnline())
+      {
+         versions = localIndex.getVersions(dep);
+         if (versions.isEmpty())
+         {
+            versions = null;
+         }
+      }
 
-      for (Version v : r.getVersions())
+      if (versions == null)
       {
-         result.add(DependencyBuilder.create(dep).setVersion(v.toString()));
+         versions = new ArrayList<String>();
+         List<RemoteRepository> remoteRepos = convertToMavenRepos(repositories);
+         VersionRangeResult r = getVersions(dep, remoteRepos);
+         for (Version v : r.getVersions())
+         {
+            versions.add(v.toString());
+         }
+
+         /*
+          * Empty results are not cached; they are usually caused by being offline or by a misconfigured repository.
+          */
+         if (!versions.isEmpty())
+         {
+            cache.putVersions(dep, repositories, versions);
+         }
+      }
+
+      for (String v : versions)
+      {
+         result.add(DependencyBuilder.create(dep).setVersion(v));
       }
 
       return result;
    }
 
-   private MavenRepositorySystemSession setupRepoSession(final RepositorySystem repoSystem)
+   /**
+    * Discard all cached resolution results and the local repository index, so that subsequent queries consult the
+    * repositories again (for instance, to see a version deployed since it was last looked up).
+    */
+   public void refresh()
    {
-      MavenRepositorySystemSession session = new MavenRepositorySystemSession();
-      session.setOffline(!environment.isOnline());
-      Settings settings = container.getSettings();
-
-      LocalRepository localRepo = new LocalRepository(new File(settings.getLocalRepository()), "");
-      session.setLocalRepositoryManager(repoSystem.newLocalRepositoryManager(localRepo));
-      session.setTransferErrorCachingEnabled(false);
-      session.setNotFoundCachingEnabled(false);
+      cache.clear();
+      localIndex.clear();
+   }
 
-      return session;
+   private MavenRepositorySystemSession setupRepoSession()
+   {
+      return container.getRepositorySession(!environment.isOnline(), false);
    }
 
    private RemoteRepository convertToMavenRepo(final DependencyRepository repo)
@@ -378,13 +422,67 @@ public class RepositoryLookup implements DependencyResolverProvider
             dep = DependencyBuilder.create(dep).setVersion("[" + version + "]");
          }
 
-         RepositorySystem maven = container.lookup(RepositorySystem.class);
-         MavenRepositorySystemSession session = setupRepoSession(maven);
+         final RepositorySystem maven = container.lookup(RepositorySystem.class);
+         final MavenRepositorySystemSession session = setupRepoSession();
 
-         Artifact artifact = dependencyToMavenArtifact(dep);
+         final Artifact artifact = dependencyToMavenArtifact(dep);
          VersionRangeRequest rangeRequest = new VersionRangeRequest(artifact, repositories, null);
 
-         VersionRangeResult rangeResult = maven.resolveVersionRange(session, rangeRequest);
+         if ((repositories.size() < 2) || (executor.getThreads() < 2))
+         {
+            return maven.resolveVersionRange(session, rangeRequest);
+         }
+
+         /*
+          * Query each repository concurrently, then merge the results in repository order so that the repository
+          * reported for each version is the same as for a sequential lookup.
+          */
+         List<Callable<VersionRangeResult>> tasks = new ArrayList<Callable<VersionRangeResult>>();
+         for (final RemoteRepository repository : repositories)
+         {
+            tasks.add(new Callable<VersionRangeResult>()
+            {
+               @Override
+               public VersionRangeResult call() throws Exception
+               {
+                  VersionRangeRequest request = new VersionRangeRequest(artifact, Arrays.asList(repository), null);
+                  return maven.resolveVersionRange(session, request);
+               }
+            });
+         }
+
+         List<Exception> failures = new ArrayList<Exception>();
+         List<VersionRangeResult> results = executor.invokeAll(tasks, failures);
+         if (failures.size() == tasks.size())
+         {
+            throw failures.get(0);
+         }
+
+         Map<Version, ArtifactRepository> merged = new TreeMap<Version, ArtifactRepository>();
+         for (VersionRangeResult result : results)
+         {
+            if (result != null)
+            {
+               for (Version v : result.getVersions())
+               {
+                  if (!merged.containsKey(v))
+                  {
+                     merged.put(v, result.getRepository(v));
+                  }
+               }
+            }
+         }
+
+         VersionRangeResult rangeResult = new VersionRangeResult(rangeRequest);
+         for (Entry<Version, ArtifactRepository> entry : merged.entrySet())
+         {
+            rangeResult.addVersion(entry.getKey());
+            rangeResult.setRepository(entry.getKey(), entry.getValue());
+         }
+         for (Exception failure : failures)
+         {
+            rangeResult.addException(failure);
+         }
          return rangeResult;
       }
       catch (Exception e)
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.dependencies;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.jboss.forge.ForgeEnvironment;
+import org.jboss.forge.project.dependencies.Dependency;
+import org.jboss.forge.project.dependencies.DependencyBuilder;
+import org.jboss.forge.project.dependencies.DependencyMetadata;
+import org.jboss.forge.project.dependencies.DependencyRepository;
+import org.jboss.forge.project.dependencies.DependencyRepositoryImpl;
+import org.jboss.forge.shell.events.CommandExecuted;
+import org.jboss.forge.shell.events.PreShutdown;
+
+/**
+ * Persistent cache of dependency resolution results (available versions and artifact metadata), keyed by the queried
+ * coordinates and the list of repositories consulted. Entries expire after a configurable time-to-live, and are stored
+ * in the Forge configuration directory so that they survive restarts.
+ * <p>
+ * New entries are written when a command completes and on shutdown, together with the removal of expired entries, by
+ * replacing the cache file.
+ */
+@ApplicationScoped
+public class ResolutionCache
+{
+   public static final String CACHE_FILE = "maven-resolution-cache.properties";
+   public static final long DEFAULT_TTL = 24 * 60 * 60 * 1000L;
+
+   private static final String TIME = ".time";
+   private static final String VERSIONS = ".versions";
+   private static final String DEPENDENCY = ".dependency";
+   private static final String DEPENDENCIES = ".dependencies";
+   private static final String MANAGED = ".managed";
+   private static final String REPOSITORIES = ".repositories";
+   private static final String SEPARATOR = " ";
+
+   @Inject
+   private ForgeEnvironment environment;
+
+   private Properties entries;
+   private boolean modified;
+   private long ttl = DEFAULT_TTL;
+
+   public ResolutionCache()
+   {
+   }
+
+   public ResolutionCache(final ForgeEnvironment environment)
+   {
+      this.environment = environment;
+   }
+
+   /**
+    * Set the time, in milliseconds, after which cached results are considered stale.
+    */
+   public void setTimeToLive(final long ttl)
+   {
+      this.ttl = ttl;
+   }
+
+   public long getTimeToLive()
+   {
+      return ttl;
+   }
+
+   /**
+    * Return the cached versions for the given query, or null if none are cached or the cached entry has expired.
+    */
+   public synchronized List<String> getVersions(final Dependency query, final List<DependencyRepository> repositories)
+   {
+      String key = "versions:" + keyOf(query, repositories);
+      if (isCurrent(key))
+      {
+         return split(getEntries().getProperty(key + VERSIONS));
+      }
+      return null;
+   }
+
+   public synchronized void putVersions(final Dependency query, final List<DependencyRepository> repositories,
+            final List<String> versions)
+   {
+      String key = "versions:" + keyOf(query, repositories);
+      Properties properties = getEntries();
+      properties.setProperty(key + VERSIONS, join(versions));
+      properties.setProperty(key + TIME, String.valueOf(System.currentTimeMillis()));
+      modified = true;
+   }
+
+   /**
+    * Return the cached metadata for the given query, or null if none is cached or the cached entry has expired.
+    */
+   public synchronized DependencyMetadata getMetadata(final Dependency query,
+            final List<DependencyRepository> repositories)
+   {
+      String key = "metadata:" + keyOf(query, repositories);
+      if (isCurrent(key))
+      {
+         Properties properties = getEntries();
+
+         List<Dependency> dependencies = new ArrayList<Dependency>();
+         for (String dep : split(properties.getProperty(key + DEPENDENCIES)))
+         {
+            dependencies.add(DependencyBuilder.create(dep));
+         }
+
+         List<Dependency> managed = new ArrayList<Dependency>();
+         for (String dep : split(properties.getProperty(key + MANAGED)))
+         {
+            managed.add(DependencyBuilder.create(dep));
+         }
+
+         List<DependencyRepository> repos = new ArrayList<DependencyRepository>();
+         List<String> repoEntries = split(properties.getProperty(key + REPOSITORIES));
+         for (int i = 0; i + 1 < repoEntries.size(); i += 2)
+         {
+            repos.add(new DependencyRepositoryImpl(repoEntries.get(i), repoEntries.get(i + 1)));
+         }
+
+         Dependency dependency = DependencyBuilder.create(properties.getProperty(key + DEPENDENCY));
+         return new DependencyMetadataImpl(dependency, repos, managed, dependencies);
+      }
+      return null;
+   }
+
+   public synchronized void putMetadata(final Dependency query, final List<DependencyRepository> repositories,
+            final DependencyMetadata metadata)
+   {
+      String key = "metadata:" + keyOf(query, repositories);
+      Properties properties = getEntries();
+
+      properties.setProperty(key + DEPENDENCY, toGAV(metadata.getDependency()));
+      properties.setProperty(key + DEPENDENCIES, join(toIds(metadata.getDependencies())));
+      properties.setProperty(key + MANAGED, join(toIds(metadata.getManagedDependencies())));
+
+      List<String> repos = new ArrayList<String>();
+      for (DependencyRepository repo : metadata.getRepositories())
+      {
+         repos.add(repo.getId());
+         repos.add(repo.getUrl());
+      }
+      properties.setProperty(key + REPOSITORIES, join(repos));
+      properties.setProperty(key + TIME, String.valueOf(System.currentTimeMillis()));
+      modified = true;
+   }
+
+   /**
+    * Discard all cached resolution results, forcing subsequent queries to consult the repositories again.
+    */
+   public synchronized void clear()
+   {
+      getEntries().clear();
+      modified = true;
+      flush();
+   }
+
+   /**
+    * Write the cache file, if entries were added since it was last written.
+    */
+   public synchronized void flush()
+   {
+      if (modified)
+      {
+         prune();
+         store();
+         modified = false;
+      }
+   }
+
+   void commandExecuted(@Observes final CommandExecuted event)
+   {
+      flush();
+   }
+
+   void preShutdown(@Observes final PreShutdown event)
+   {
+      flush();
+   }
+
+   @PreDestroy
+   void destroy()
+   {
+      flush();
+   }
+
+   private boolean isCurrent(final String key)
+   {
+      return isCurrent(getEntries().getProperty(key + TIME), System.currentTimeMillis());
+   }
+
+   private boolean isCurrent(final String time, final long now)
+   {
+      if (time != null)
+      {
+         try
+         {
+            return now - Long.parseLong(time) < ttl;
+         }
+         catch (NumberFormatException e)
+         {
+            return false;
+         }
+      }
+      return false;
+   }
+
+   /*
+    * Remove all properties of expired entries
+    */
+   private void prune()
+   {
+      long now = System.currentTimeMillis();
+      List<String> expired = new ArrayList<String>();
+      for (String name : entries.stringPropertyNames())
+      {
+         if (name.endsWith(TIME) && !isCurrent(entries.getProperty(name), now))
+         {
+            expired.add(name.substring(0, name.length() - TIME.length()));
+         }
+      }
+
+      for (String key : expired)
+      {
+         for (String suffix : new String[] { TIME, VERSIONS, DEPENDENCY, DEPENDENCIES, MANAGED, REPOSITORIES })
+         {
+            entries.remove(key + suffix);
+         }
+      }
+   }
+
+   private static String keyOf(final Dependency query, final List<DependencyRepository> repositories)
+   {
+      StringBuilder key = new StringBuilder();
+      key.append(query.getGroupId()).append(':').append(query.getArtifactId()).append(':')
+               .append(query.getClassifier()).append(':').append(query.getPackagingType()).append(':')
+               .append(query.getVersion());
+      if (repositories != null)
+      {
+         for (DependencyRepository repo : repositories)
+         {
+            key.append('@').append(repo.getUrl());
+         }
+      }
+      return key.toString();
+   }
+
+   /*
+    * Metadata only carries groupId, artifactId and version, in a form understood by DependencyBuilder.create(String)
+    */
+   private static String toGAV(final Dependency dependency)
+   {
+      return dependency.getGroupId() + ":" + dependency.getArtifactId() + ":"
+               + (dependency.getVersion() == null ? "" : dependency.getVersion());
+   }
+
+   private static List<String> toIds(final List<Dependency> dependencies)
+   {
+      List<String> result = new ArrayList<String>();
+      for (Dependency dependency : dependencies)
+      {
+         result.add(toGAV(dependency));
+      }
+      return result;
+   }
+
+   private static String join(final List<String> values)
+   {
+      StringBuilder result = new StringBuilder();
+      for (String value : values)
+      {
+         if (result.length() > 0)
+         {
+            result.append(SEPARATOR);
+         }
+         result.append(value);
+      }
+      return result.toString();
+   }
+
+   private static List<String> split(final String value)
+   {
+      List<String> result = new ArrayList<String>();
+      if (value != null)
+      {
+         for (String s : value.split(SEPARATOR))
+         {
+            if (s.length() > 0)
+            {
+               result.add(s);
+            }
+         }
+      }
+      return result;
+   }
+
+   /*
+    * Persistence
+    */
+   private Properties getEntries()
+   {
+      if (entries == null)
+      {
+         entries = new Properties();
+         File file = getCacheFile();
+         if ((file != null) && file.isFile())
+         {
+            try
+            {
+               InputStream stream = new FileInputStream(file);
+               try
+               {
+                  entries.load(stream);
+               }
+               finally
+               {
+                  stream.close();
+               }
+            }
+            catch (IOException e)
+            {
+               // a corrupt cache is simply discarded
+               entries.clear();
+            }
+         }
+         prune();
+      }
+      return entries;
+   }
+
+   private void store()
+   {
+      File file = getCacheFile();
+      if (file != null)
+      {
+         try
+         {
+            file.getParentFile().mkdirs();
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            OutputStream stream = new FileOutputStream(temp);
+            try
+            {
+               entries.store(stream, "Forge dependency resolution cache");
+            }
+            finally
+            {
+               stream.close();
+            }
+            if (!temp.renameTo(file))
+            {
+               file.delete();
+               temp.renameTo(file);
+            }
+         }
+         catch (IOException e)
+         {
+            // the cache remains usable in memory
+         }
+      }
+   }
+
+   private File getCacheFile()
+   {
+      try
+      {
+         if (environment != null)
+         {
+            return new File(environment.getConfigDirectory().getUnderlyingResourceObject(), CACHE_FILE);
+         }
+      }
+      catch (RuntimeException e)
+      {
+         // no configuration directory available, cache in memory only
+      }
+      return null;
+   }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.dependencies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.jboss.forge.shell.util.WorkerPool;
+
+/**
+ * Runs independent repository queries concurrently on the shared {@link WorkerPool}. The number of workers defaults to
+ * the number of available processors (at most {@value #MAX_DEFAULT_THREADS}), and may be overridden with the
+ * <code>{@value #THREADS_PROPERTY}</code> system property; a value of 1 runs all tasks on the calling thread.
+ */
+@ApplicationScoped
+public class ResolutionExecutor
+{
+   public static final String THREADS_PROPERTY = "forge.maven.resolution.threads";
+   private static final int MAX_DEFAULT_THREADS = 4;
+
+   private final int threads;
+   private Executor executor;
+
+   public ResolutionExecutor()
+   {
+      this(Integer.getInteger(THREADS_PROPERTY,
+               Math.min(MAX_DEFAULT_THREADS, Runtime.getRuntime().availableProcessors())));
+   }
+
+   public ResolutionExecutor(final int threads)
+   {
+      this.threads = Math.max(1, threads);
+   }
+
+   public int getThreads()
+   {
+      return threads;
+   }
+
+   /**
+    * Run all given tasks and return their results in the same order as the tasks. Tasks that fail are reported as
+    * null results; the failures are returned in the given list, if not null.
+    */
+   public <T> List<T> invokeAll(final List<? extends Callable<T>> tasks, final List<Exception> failures)
+   {
+      List<T> results = new ArrayList<T>(tasks.size());
+      if ((threads == 1) || (tasks.size() < 2))
+      {
+         for (Callable<T> task : tasks)
+         {
+            try
+            {
+               results.add(task.call());
+            }
+            catch (Exception e)
+            {
+               results.add(null);
+               if (failures != null)
+                  failures.add(e);
+            }
+         }
+      }
+      else
+      {
+         List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+         for (Callable<T> task : tasks)
+         {
+            FutureTask<T> future = new FutureTask<T>(task);
+            getExecutor().execute(future);
+            futures.add(future);
+         }
+
+         for (Future<T> future : futures)
+         {
+            try
+            {
+               results.add(future.get());
+            }
+            catch (InterruptedException e)
+            {
+               Thread.currentThread().interrupt();
+               results.add(null);
+               if (failures != null)
+                  failures.add(e);
+            }
+            catch (ExecutionException e)
+            {
+               results.add(null);
+               if (failures != null)
+                  failures.add(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+            }
+         }
+      }
+      return results;
+   }
+
+   private synchronized Executor getExecutor()
+   {
+      if (executor == null)
+      {
+         executor = WorkerPool.newExecutor(threads, ResolutionExecutor.class.getClassLoader());
+      }
+      return executor;
+   }
+
+   /**
+    * Drop the executor of this instance; idle threads of the shared pool terminate on their own.
+    */
+   @PreDestroy
+   public synchronized void shutdown()
+   {
+      executor = null;
+   }
+}
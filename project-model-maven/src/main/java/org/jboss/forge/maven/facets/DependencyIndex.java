@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.facets;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.forge.project.dependencies.Dependency;
+import org.jboss.forge.project.dependencies.DependencyBuilder;
+
+/**
+ * Hash index over a list of {@link Dependency} instances, keyed by the same coordinates compared by
+ * {@link DependencyBuilder#areEquivalent(Dependency, Dependency)} (groupId, artifactId and classifier). When several
+ * equivalent dependencies are indexed, the first one wins, matching the behavior of a linear scan.
+ */
+class DependencyIndex
+{
+   private final Map<String, Dependency> index;
+
+   public DependencyIndex(final List<Dependency> dependencies)
+   {
+      index = new HashMap<String, Dependency>(dependencies.size() * 2);
+      for (Dependency dependency : dependencies)
+      {
+         String key = keyOf(dependency);
+         if (!index.containsKey(key))
+         {
+            index.put(key, dependency);
+         }
+      }
+   }
+
+   /**
+    * Return the indexed {@link Dependency} equivalent to the given one, or null if none was indexed.
+    */
+   public Dependency get(final Dependency dependency)
+   {
+      if (dependency == null)
+      {
+         return null;
+      }
+      return index.get(keyOf(dependency));
+   }
+
+   public boolean contains(final Dependency dependency)
+   {
+      return get(dependency) != null;
+   }
+
+   static String keyOf(final Dependency dependency)
+   {
+      StringBuilder key = new StringBuilder();
+      append(key, dependency.getGroupId());
+      append(key, dependency.getArtifactId());
+      append(key, dependency.getClassifier());
+      return key.toString();
+   }
+
+   /*
+    * Null and empty coordinates are not equivalent, so they must not produce the same key.
+    */
+   private static void append(final StringBuilder key, final String coordinate)
+   {
+      if (coordinate == null)
+      {
+         key.append('!');
+      }
+      else
+      {
+         key.append('=').append(coordinate);
+      }
+      key.append(':');
+   }
+}
@@ -9,6 +9,7 @@ package org.jboss.forge.maven.facets;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +20,7 @@ import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenExecutionRequestPopulator;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.repository.internal.MavenRepositorySystemSession;
@@ -40,7 +42,10 @@ import org.jboss.forge.maven.RepositoryUtils;
 import org.jboss.forge.project.ProjectModelException;
 import org.jboss.forge.project.facets.DependencyFacet.KnownRepository;
 import org.jboss.forge.shell.util.OSUtils;
+import org.sonatype.aether.RepositorySystem;
 import org.sonatype.aether.impl.internal.SimpleLocalRepositoryManager;
+import org.sonatype.aether.repository.LocalRepository;
+import org.sonatype.aether.util.DefaultRepositorySystemSession;
 import org.sonatype.aether.util.repository.DefaultProxySelector;
 
 /**
@@ -51,7 +56,11 @@ public class MavenContainer
 {
    private static final String M2_HOME = System.getenv().get("M2_HOME");
 
-   private ProjectBuildingRequest request;
+   private final Map<Boolean, ProjectBuildingRequest> requests = new HashMap<Boolean, ProjectBuildingRequest>();
+   private final Map<String, MavenRepositorySystemSession> sessions = new HashMap<String, MavenRepositorySystemSession>();
+   private Settings settings;
+   private String settingsStamp;
+
    private DefaultPlexusContainer container = null;
    private ProjectBuilder builder = null;
 
@@ -68,18 +77,36 @@ public class MavenContainer
       return getBuildingRequest(true);
    }
 
-   public ProjectBuildingRequest getBuildingRequest(final boolean offline)
+   /**
+    * Return a {@link ProjectBuildingRequest} configured from the current Maven settings. The underlying request is
+    * built once per online/offline mode and reused until the settings files change; each caller receives its own copy
+    * of the request and of its repository session, which may both be modified freely.
+    */
+   public synchronized ProjectBuildingRequest getBuildingRequest(final boolean offline)
+   {
+      Settings current = getSettings();
+      ProjectBuildingRequest request = requests.get(offline);
+      if (request == null)
+      {
+         request = createBuildingRequest(current, offline);
+         requests.put(offline, request);
+      }
+      ProjectBuildingRequest copy = new DefaultProjectBuildingRequest(request);
+      copy.setRepositorySession(new DefaultRepositorySystemSession(request.getRepositorySession()));
+      return copy;
+   }
+
+   private ProjectBuildingRequest createBuildingRequest(final Settings settings, final boolean offline)
    {
       ClassLoader cl = Thread.currentThread().getContextClassLoader();
       try
       {
-         Settings settings = getSettings();
          // TODO this needs to be configurable via .forge
          // TODO this reference to the M2_REPO should probably be centralized
 
          MavenExecutionRequest executionRequest = new DefaultMavenExecutionRequest();
-         lookup(MavenExecutionRequestPopulator.class).populateFromSettings(executionRequest, getSettings());
-         request = executionRequest.getProjectBuildingRequest();
+         lookup(MavenExecutionRequestPopulator.class).populateFromSettings(executionRequest, settings);
+         ProjectBuildingRequest request = executionRequest.getProjectBuildingRequest();
 
          ArtifactRepository localRepository = RepositoryUtils.toArtifactRepository("local",
                   new File(settings.getLocalRepository()).toURI().toURL().toString(), null, true, true);
@@ -146,17 +173,70 @@ public class MavenContainer
       }
    }
 
-   public Settings getSettings()
+   /**
+    * Return a shared {@link MavenRepositorySystemSession} for dependency resolution, configured from the current Maven
+    * settings. Sessions are created once per combination of flags and reused until the settings files change; the
+    * returned session must not be modified.
+    *
+    * @param offline whether the session may access remote repositories
+    * @param lenient whether invalid or missing artifact descriptors should be ignored
+    */
+   public synchronized MavenRepositorySystemSession getRepositorySession(final boolean offline, final boolean lenient)
+   {
+      Settings current = getSettings();
+      String key = offline + ":" + lenient;
+      MavenRepositorySystemSession session = sessions.get(key);
+      if (session == null)
+      {
+         RepositorySystem system = lookup(RepositorySystem.class);
+         session = new MavenRepositorySystemSession();
+         session.setOffline(offline);
+
+         LocalRepository localRepo = new LocalRepository(new File(current.getLocalRepository()), "");
+         session.setLocalRepositoryManager(system.newLocalRepositoryManager(localRepo));
+         session.setTransferErrorCachingEnabled(false);
+         session.setNotFoundCachingEnabled(false);
+         if (lenient)
+         {
+            session.setIgnoreInvalidArtifactDescriptor(true);
+            session.setIgnoreMissingArtifactDescriptor(true);
+         }
+
+         sessions.put(key, session);
+      }
+      return session;
+   }
+
+   /**
+    * Return the effective Maven {@link Settings}. Settings are only rebuilt when the user or global settings file has
+    * changed since the last call; the returned instance is shared and must not be modified.
+    */
+   public synchronized Settings getSettings()
+   {
+      File userSettingsFile = new File(OSUtils.getUserHomeDir().getAbsolutePath() + "/.m2/settings.xml");
+      File globalSettingsFile = M2_HOME == null ? null : new File(M2_HOME + "/conf/settings.xml");
+
+      String stamp = stamp(userSettingsFile) + "|" + stamp(globalSettingsFile);
+      if (settings == null || !stamp.equals(settingsStamp))
+      {
+         settings = buildSettings(userSettingsFile, globalSettingsFile);
+         settingsStamp = stamp;
+         requests.clear();
+         sessions.clear();
+      }
+      return settings;
+   }
+
+   private Settings buildSettings(final File userSettingsFile, final File globalSettingsFile)
    {
       try
       {
          SettingsBuilder settingsBuilder = new DefaultSettingsBuilderFactory().newInstance();
          SettingsBuildingRequest settingsRequest = new DefaultSettingsBuildingRequest();
-         settingsRequest
-                  .setUserSettingsFile(new File(OSUtils.getUserHomeDir().getAbsolutePath() + "/.m2/settings.xml"));
+         settingsRequest.setUserSettingsFile(userSettingsFile);
 
-         if (M2_HOME != null)
-            settingsRequest.setGlobalSettingsFile(new File(M2_HOME + "/conf/settings.xml"));
+         if (globalSettingsFile != null)
+            settingsRequest.setGlobalSettingsFile(globalSettingsFile);
 
          SettingsBuildingResult settingsBuildingResult = settingsBuilder.build(settingsRequest);
          Settings effectiveSettings = settingsBuildingResult.getEffectiveSettings();
@@ -174,6 +254,15 @@ public class MavenContainer
       }
    }
 
+   private static String stamp(final File file)
+   {
+      if (file == null || !file.exists())
+      {
+         return "-";
+      }
+      return file.lastModified() + ":" + file.length();
+   }
+
    public ProjectBuilder getBuilder()
    {
       return builder;
@@ -13,7 +13,6 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.annotation.Annotation;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Properties;
 
 import javax.enterprise.context.Dependent;
@@ -30,7 +29,7 @@ import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuildingResult;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.jboss.forge.maven.MavenCoreFacet;
-import org.jboss.forge.parser.java.util.Strings;
+import org.jboss.forge.maven.PomTransaction;
 import org.jboss.forge.project.Facet;
 import org.jboss.forge.project.ProjectModelException;
 import org.jboss.forge.project.facets.BaseFacet;
@@ -53,6 +52,12 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
 {
    private ProjectBuildingResult buildingResult;
    private ProjectBuildingResult fullBuildingResult;
+   private PropertyInterpolator interpolator;
+
+   private Model pendingPOM;
+   private boolean pendingChanges;
+   private int transactionDepth;
+   private int transactionGeneration;
 
    @Inject
    private MavenContainer container;
@@ -66,6 +71,9 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
    @Inject
    private ResourceFactory factory;
 
+   @Inject
+   private MavenPomCache pomCache;
+
    public MavenCoreFacetImpl()
    {}
 
@@ -78,12 +86,11 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
       if (this.buildingResult == null)
       {
          ProjectBuildingRequest request = null;
-         File pomFile = getPOMFile().getUnderlyingResourceObject();
          try
          {
             // Attempt partial build first
             request = container.getRequest();
-            buildingResult = container.getBuilder().build(pomFile, request);
+            buildingResult = build(request);
          }
          catch (ProjectBuildingException partial)
          {
@@ -93,7 +100,7 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
                try
                {
                   request.setResolveDependencies(true);
-                  buildingResult = container.getBuilder().build(pomFile, request);
+                  buildingResult = build(request);
                   fullBuildingResult = buildingResult;
                }
                catch (Exception full)
@@ -120,13 +127,12 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
       {
          ProjectBuildingRequest request = null;
          request = container.getRequest();
-         File pomFile = getPOMFile().getUnderlyingResourceObject();
          if (request != null)
          {
             try
             {
                request.setResolveDependencies(true);
-               buildingResult = container.getBuilder().build(pomFile, request);
+               buildingResult = build(request);
                fullBuildingResult = buildingResult;
             }
             catch (Exception full)
@@ -142,29 +148,93 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
       return fullBuildingResult;
    }
 
+   /*
+    * While a transaction holds changes that are not yet written, the project is built from a temporary copy of the
+    * pending POM, next to the POM file so that relative paths resolve the same way.
+    */
+   private ProjectBuildingResult build(final ProjectBuildingRequest request) throws ProjectBuildingException
+   {
+      File pomFile = getPOMFile().getUnderlyingResourceObject();
+      if (!(isTransactionActive() && pendingChanges))
+      {
+         return container.getBuilder().build(pomFile, request);
+      }
+
+      File pending = null;
+      try
+      {
+         pending = File.createTempFile(".pom", ".xml", pomFile.getParentFile());
+         FileWriter fw = new FileWriter(pending);
+         try
+         {
+            new MavenXpp3Writer().write(fw, pendingPOM);
+         }
+         finally
+         {
+            fw.close();
+         }
+         return container.getBuilder().build(pending, request);
+      }
+      catch (IOException e)
+      {
+         throw new ProjectModelException("Could not write pending changes of POM file: " + getPOMFile(), e);
+      }
+      finally
+      {
+         if (pending != null)
+         {
+            pending.delete();
+         }
+      }
+   }
+
    private void invalidateBuildingResults()
    {
       this.buildingResult = null;
       this.fullBuildingResult = null;
+      this.interpolator = null;
    }
 
    @Override
    public Model getPOM()
    {
+      if (isTransactionActive())
+      {
+         if (pendingPOM == null)
+         {
+            pendingPOM = readPOM();
+         }
+         Model result = pendingPOM.clone();
+         result.setPomFile(pendingPOM.getPomFile());
+         return result;
+      }
+      return readPOM();
+   }
+
+   private Model readPOM()
+   {
+      File pomFile = getPOMFile().getUnderlyingResourceObject();
+      Model result = pomCache.get(pomFile);
+      if (result != null)
+      {
+         return result;
+      }
+
       try
       {
-         Model result = new Model();
+         result = new Model();
 
          // FIXME this should/can-not use the Maven Native file writer if we are going to abstract file APIs
          MavenXpp3Reader reader = new MavenXpp3Reader();
-         FileInputStream stream = new FileInputStream(getPOMFile().getUnderlyingResourceObject());
+         FileInputStream stream = new FileInputStream(pomFile);
          if (stream.available() > 0)
          {
             result = reader.read(stream);
          }
          stream.close();
 
-         result.setPomFile(getPOMFile().getUnderlyingResourceObject());
+         result.setPomFile(pomFile);
+         pomCache.put(pomFile, result);
          return result;
       }
       catch (IOException e)
@@ -180,22 +250,129 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
    @Override
    public void setPOM(final Model pom)
    {
+      if (isTransactionActive())
+      {
+         pendingPOM = pom.clone();
+         pendingPOM.setPomFile(getPOMFile().getUnderlyingResourceObject());
+         pendingChanges = true;
+         invalidateBuildingResults();
+      }
+      else
+      {
+         writePOM(pom);
+      }
+   }
+
+   private void writePOM(final Model pom)
+   {
+      File pomFile = getPOMFile().getUnderlyingResourceObject();
       try
       {
          // FIXME this should/can-not use the Maven Native file writer if we are going to abstract file APIs
          MavenXpp3Writer writer = new MavenXpp3Writer();
-         FileWriter fw = new FileWriter(getPOMFile().getUnderlyingResourceObject());
+         FileWriter fw = new FileWriter(pomFile);
          writer.write(fw, pom);
          fw.close();
          manager.fireEvent(new ResourceModified(getPOMFile()), new Annotation[] {});
       }
       catch (IOException e)
       {
+         pomCache.invalidate(pomFile);
          throw new ProjectModelException("Could not write POM file: " + getPOMFile(), e);
       }
+      /*
+       * The modification event above is observed after the command; the cache keeps the model written here when it
+       * arrives, as long as the file has not changed since.
+       */
+      pomCache.putWritten(pomFile, pom);
       invalidateBuildingResults();
    }
 
+   @Override
+   public PomTransaction beginTransaction()
+   {
+      if (transactionDepth == 0)
+      {
+         transactionGeneration++;
+         pendingPOM = null;
+         pendingChanges = false;
+      }
+      transactionDepth++;
+      return new PomTransactionImpl(transactionGeneration);
+   }
+
+   @Override
+   public boolean isTransactionActive()
+   {
+      return transactionDepth > 0;
+   }
+
+   private void endTransaction(final boolean commit)
+   {
+      Model pom = pendingPOM;
+      boolean changed = pendingChanges;
+      pendingPOM = null;
+      pendingChanges = false;
+      transactionDepth = 0;
+      if (changed && commit)
+      {
+         writePOM(pom);
+      }
+      else if (changed)
+      {
+         invalidateBuildingResults();
+      }
+   }
+
+   private class PomTransactionImpl implements PomTransaction
+   {
+      private final int generation;
+      private boolean active = true;
+
+      public PomTransactionImpl(final int generation)
+      {
+         this.generation = generation;
+      }
+
+      @Override
+      public void commit()
+      {
+         assertActive();
+         active = false;
+         if (transactionDepth == 1)
+         {
+            endTransaction(true);
+         }
+         else
+         {
+            transactionDepth--;
+         }
+      }
+
+      @Override
+      public void rollback()
+      {
+         assertActive();
+         active = false;
+         endTransaction(false);
+      }
+
+      @Override
+      public boolean isActive()
+      {
+         return active && generation == transactionGeneration && transactionDepth > 0;
+      }
+
+      private void assertActive()
+      {
+         if (!isActive())
+         {
+            throw new IllegalStateException("POM transaction is no longer active for project: "
+                     + project.getProjectRoot());
+         }
+      }
+   }
+
    private Model createPOM()
    {
       FileResource<?> pomFile = getPOMFile();
@@ -298,19 +475,20 @@ public class MavenCoreFacetImpl extends BaseFacet implements MavenCoreFacet, Fac
    @Override
    public String resolveProperties(final String input)
    {
-      String result = input;
-      if (!Strings.isNullOrEmpty(input))
+      if (!PropertyInterpolator.containsExpression(input))
       {
-         Properties properties = getPartialProjectBuildingResult().getProject().getProperties();
-
-         for (Entry<Object, Object> e : properties.entrySet())
-         {
-            String key = "\\$\\{" + e.getKey().toString() + "\\}";
-            Object value = e.getValue();
-            result = result.replaceAll(key, value.toString());
-         }
+         return input;
       }
+      return getPropertyInterpolator().interpolate(input);
+   }
 
-      return result;
+   private PropertyInterpolator getPropertyInterpolator()
+   {
+      if (interpolator == null)
+      {
+         Properties properties = getPartialProjectBuildingResult().getProject().getProperties();
+         interpolator = new PropertyInterpolator(properties);
+      }
+      return interpolator;
    }
 }
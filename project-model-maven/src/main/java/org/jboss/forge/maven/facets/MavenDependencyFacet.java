@@ -6,6 +6,7 @@
  */
 package org.jboss.forge.maven.facets;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -20,8 +21,10 @@ import javax.inject.Inject;
 import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Repository;
+import org.apache.maven.project.ProjectBuildingResult;
 import org.jboss.forge.bus.EventBus;
 import org.jboss.forge.maven.MavenCoreFacet;
+import org.jboss.forge.maven.PomTransaction;
 import org.jboss.forge.maven.dependencies.MavenDependencyAdapter;
 import org.jboss.forge.project.Facet;
 import org.jboss.forge.project.dependencies.Dependency;
@@ -53,11 +56,79 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
 
    private final EventBus bus;
 
+   private final MavenPomCache pomCache;
+
+   private long indexedRevision = -1;
+   private DependencyIndex directIndex;
+   private DependencyIndex managedIndex;
+
+   private ProjectBuildingResult effectiveIndexSource;
+   private DependencyIndex effectiveIndex;
+   private DependencyIndex effectiveManagedIndex;
+
    @Inject
-   public MavenDependencyFacet(final DependencyResolver resolver, final EventBus bus)
+   public MavenDependencyFacet(final DependencyResolver resolver, final EventBus bus, final MavenPomCache pomCache)
    {
       this.resolver = resolver;
       this.bus = bus;
+      this.pomCache = pomCache;
+   }
+
+   /*
+    * Dependency indexes
+    */
+   private DependencyIndex getDirectIndex()
+   {
+      updatePOMIndexes();
+      return directIndex;
+   }
+
+   private DependencyIndex getManagedIndex()
+   {
+      updatePOMIndexes();
+      return managedIndex;
+   }
+
+   /**
+    * (Re)build the direct and managed dependency indexes if the POM has changed since they were last built. While a
+    * POM transaction is active the POM only exists in memory, so the indexes are rebuilt on every call.
+    */
+   private void updatePOMIndexes()
+   {
+      MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
+      File pomFile = maven.getPOMFile().getUnderlyingResourceObject();
+      boolean transaction = maven.isTransactionActive();
+      long revision = transaction ? -1 : pomCache.getRevision(pomFile);
+
+      if ((revision == -1) || (revision != indexedRevision) || (directIndex == null))
+      {
+         Model pom = maven.getPOM();
+         DependencyManagement depMan = pom.getDependencyManagement();
+
+         directIndex = new DependencyIndex(MavenDependencyAdapter.fromMavenList(pom.getDependencies()));
+         managedIndex = new DependencyIndex(depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
+                  .getDependencies()) : new ArrayList<Dependency>());
+         indexedRevision = transaction ? -1 : pomCache.getRevision(pomFile);
+      }
+   }
+
+   /**
+    * (Re)build the effective dependency indexes whenever the underlying {@link ProjectBuildingResult} is replaced.
+    */
+   private void updateEffectiveIndexes()
+   {
+      MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
+      ProjectBuildingResult result = maven.getFullProjectBuildingResult();
+      if ((effectiveIndex == null) || (result != effectiveIndexSource))
+      {
+         DependencyManagement depMan = result.getProject().getDependencyManagement();
+
+         effectiveIndex = new DependencyIndex(MavenDependencyAdapter.fromAetherList(result
+                  .getDependencyResolutionResult().getDependencies()));
+         effectiveManagedIndex = new DependencyIndex(depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
+                  .getDependencies()) : new ArrayList<Dependency>());
+         effectiveIndexSource = result;
+      }
    }
 
    @Override
@@ -83,32 +154,31 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
    @Override
    public void addDirectDependency(final Dependency dep)
    {
-      removeDependency(dep);
-
       MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
-      Model pom = maven.getPOM();
-      List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
-      dependencies.add(dep);
-      pom.setDependencies(MavenDependencyAdapter.toMavenList(dependencies));
-      maven.setPOM(pom);
+      PomTransaction transaction = maven.beginTransaction();
+      try
+      {
+         removeDependency(dep);
+
+         Model pom = maven.getPOM();
+         List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
+         dependencies.add(dep);
+         pom.setDependencies(MavenDependencyAdapter.toMavenList(dependencies));
+         maven.setPOM(pom);
+         transaction.commit();
+      }
+      finally
+      {
+         if (transaction.isActive())
+            transaction.rollback();
+      }
       bus.enqueue(new AddedDependencies(project, dep));
    }
 
    @Override
    public boolean hasDirectDependency(final Dependency dependency)
    {
-      MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
-      Model pom = maven.getPOM();
-      List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
-
-      for (Dependency dep : dependencies)
-      {
-         if (DependencyBuilder.areEquivalent(resolveProperties(dependency), dep))
-         {
-            return true;
-         }
-      }
-      return false;
+      return getDirectIndex().contains(resolveProperties(dependency));
    }
 
    @Override
@@ -151,18 +221,8 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
    @Override
    public Dependency getDirectDependency(final Dependency dependency)
    {
-      MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
-      Model pom = maven.getPOM();
-      List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
-
-      for (Dependency dep : dependencies)
-      {
-         if (DependencyBuilder.areEquivalent(resolveProperties(dependency), dep))
-         {
-            return resolveProperties(dep);
-         }
-      }
-      return null;
+      Dependency dep = getDirectIndex().get(resolveProperties(dependency));
+      return dep != null ? resolveProperties(dep) : null;
    }
 
    @Override
@@ -174,14 +234,9 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
    @Override
    public Dependency getEffectiveDependency(final Dependency manDep)
    {
-      for (Dependency dependency : getEffectiveDependencies())
-      {
-         if (DependencyBuilder.areEquivalent(dependency, resolveProperties(manDep)))
-         {
-            return resolveProperties(dependency);
-         }
-      }
-      return null;
+      updateEffectiveIndexes();
+      Dependency dependency = effectiveIndex.get(resolveProperties(manDep));
+      return dependency != null ? resolveProperties(dependency) : null;
    }
 
    @Override
@@ -224,18 +279,28 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
    @Override
    public void addDirectManagedDependency(final Dependency dep)
    {
-      removeManagedDependency(dep);
-
       MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
-      Model pom = maven.getPOM();
-      DependencyManagement depMan = pom.getDependencyManagement();
-      depMan = depMan != null ? depMan : new DependencyManagement();
+      PomTransaction transaction = maven.beginTransaction();
+      try
+      {
+         removeManagedDependency(dep);
 
-      List<Dependency> managedDependencies = MavenDependencyAdapter.fromMavenList(depMan.getDependencies());
-      managedDependencies.add(dep);
-      depMan.setDependencies(MavenDependencyAdapter.toMavenList(managedDependencies));
-      pom.setDependencyManagement(depMan);
-      maven.setPOM(pom);
+         Model pom = maven.getPOM();
+         DependencyManagement depMan = pom.getDependencyManagement();
+         depMan = depMan != null ? depMan : new DependencyManagement();
+
+         List<Dependency> managedDependencies = MavenDependencyAdapter.fromMavenList(depMan.getDependencies());
+         managedDependencies.add(dep);
+         depMan.setDependencies(MavenDependencyAdapter.toMavenList(managedDependencies));
+         pom.setDependencyManagement(depMan);
+         maven.setPOM(pom);
+         transaction.commit();
+      }
+      finally
+      {
+         if (transaction.isActive())
+            transaction.rollback();
+      }
    }
 
    @Override
@@ -247,39 +312,15 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
    @Override
    public Dependency getEffectiveManagedDependency(final Dependency manDep)
    {
-      MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
-      DependencyManagement depMan = maven.getFullProjectBuildingResult().getProject().getDependencyManagement();
-      List<Dependency> managedDependencies = (depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
-               .getDependencies()) : new ArrayList<Dependency>());
-
-      for (Dependency managedDependency : managedDependencies)
-      {
-         if (DependencyBuilder.areEquivalent(managedDependency, resolveProperties(manDep)))
-         {
-            return resolveProperties(managedDependency);
-         }
-      }
-      return null;
+      updateEffectiveIndexes();
+      Dependency managedDependency = effectiveManagedIndex.get(resolveProperties(manDep));
+      return managedDependency != null ? resolveProperties(managedDependency) : null;
    }
 
    @Override
    public boolean hasDirectManagedDependency(final Dependency managedDependency)
    {
-      MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
-      Model pom = maven.getPOM();
-      DependencyManagement depMan = pom.getDependencyManagement();
-
-      List<Dependency> managedDependencies = depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
-               .getDependencies()) : new ArrayList<Dependency>();
-
-      for (Dependency manDep : managedDependencies)
-      {
-         if (DependencyBuilder.areEquivalent(resolveProperties(managedDependency), manDep))
-         {
-            return true;
-         }
-      }
-      return false;
+      return getManagedIndex().contains(resolveProperties(managedDependency));
    }
 
    @Override
@@ -330,21 +371,8 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
    @Override
    public Dependency getManagedDependency(final Dependency manDep)
    {
-      MavenCoreFacet maven = project.getFacet(MavenCoreFacet.class);
-      Model pom = maven.getPOM();
-      DependencyManagement depMan = pom.getDependencyManagement();
-
-      List<Dependency> managedDependencies = depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
-               .getDependencies()) : new ArrayList<Dependency>();
-
-      for (Dependency managedDependency : managedDependencies)
-      {
-         if (DependencyBuilder.areEquivalent(managedDependency, resolveProperties(manDep)))
-         {
-            return resolveProperties(managedDependency);
-         }
-      }
-      return null;
+      Dependency managedDependency = getManagedIndex().get(resolveProperties(manDep));
+      return managedDependency != null ? resolveProperties(managedDependency) : null;
    }
 
    @Override
@@ -380,7 +408,6 @@ public class MavenDependencyFacet extends BaseFacet implements DependencyFacet,
       Model pom = maven.getPOM();
 
       Properties properties = pom.getProperties();
-      maven.setPOM(pom);
       return (String) properties.get(name);
    }
 
@@ -289,6 +289,31 @@ public class MavenJavaSourceFacet extends BaseFacet implements JavaSourceFacet,
       visitSources(getTestSourceFolder(), visitor);
    }
 
+   @Override
+   public void visitJavaSources(final JavaResourceVisitor visitor, final int parallelism)
+   {
+      visitSources(getSourceFolder(), visitor, parallelism);
+   }
+
+   @Override
+   public void visitJavaTestSources(final JavaResourceVisitor visitor, final int parallelism)
+   {
+      visitSources(getTestSourceFolder(), visitor, parallelism);
+   }
+
+   private void visitSources(final DirectoryResource searchFolder, final JavaResourceVisitor visitor,
+            final int parallelism)
+   {
+      if (parallelism <= 1)
+      {
+         visitSources(searchFolder, visitor);
+      }
+      else if (searchFolder.exists())
+      {
+         ParallelSourceVisitor.visit(searchFolder, visitor, parallelism);
+      }
+   }
+
    private void visitSources(final Resource<?> searchFolder, final JavaResourceVisitor visitor)
    {
       if (searchFolder instanceof DirectoryResource)
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.facets;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.apache.maven.model.Model;
+import org.jboss.forge.resources.FileResource;
+import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.events.ResourceDeleted;
+import org.jboss.forge.resources.events.ResourceModified;
+
+/**
+ * Holds the last parsed {@link Model} of each POM file, so that repeated calls to {@link MavenCoreFacetImpl#getPOM()}
+ * do not re-read and re-parse the file from disk. Entries are validated against the file's last-modified timestamp and
+ * length, and are evicted whenever the file is reported as deleted, or as modified (unless the entry holds the model
+ * that was written, and the file has not changed since).
+ * <p>
+ * Cached models are never handed out directly; callers always receive a copy, so mutating a returned {@link Model}
+ * has no effect until it is passed back through {@link MavenCoreFacetImpl#setPOM(Model)}.
+ */
+@ApplicationScoped
+public class MavenPomCache
+{
+   private final Map<String, Entry> cache = new ConcurrentHashMap<String, Entry>();
+   private final AtomicLong revisions = new AtomicLong();
+
+   /**
+    * Return a copy of the cached {@link Model} for the given POM file, or null if no up-to-date model is cached.
+    */
+   public Model get(final File pomFile)
+   {
+      String key = pomFile.getAbsolutePath();
+      Entry entry = cache.get(key);
+      if (entry != null)
+      {
+         if (entry.isCurrent(pomFile))
+         {
+            Model result = entry.model.clone();
+            result.setPomFile(pomFile);
+            return result;
+         }
+         cache.remove(key);
+      }
+      return null;
+   }
+
+   /**
+    * Return the revision of the cached {@link Model} for the given POM file, or -1 if no up-to-date model is cached.
+    * Every model stored in this cache receives a new revision, so data derived from a model may be reused for as long
+    * as this method keeps returning the same value.
+    */
+   public long getRevision(final File pomFile)
+   {
+      String key = pomFile.getAbsolutePath();
+      Entry entry = cache.get(key);
+      if (entry != null)
+      {
+         if (entry.isCurrent(pomFile))
+         {
+            return entry.revision;
+         }
+         cache.remove(key);
+      }
+      return -1;
+   }
+
+   /**
+    * Store a copy of the given {@link Model} as the current state of the given POM file.
+    */
+   public void put(final File pomFile, final Model model)
+   {
+      put(pomFile, model, false);
+   }
+
+   /**
+    * Store a copy of the given {@link Model}, which was just written to the given POM file. Modification events are
+    * observed after the command that fired them; this entry is kept when they arrive, unless the file changed again.
+    */
+   public void putWritten(final File pomFile, final Model model)
+   {
+      put(pomFile, model, true);
+   }
+
+   private void put(final File pomFile, final Model model, final boolean written)
+   {
+      cache.put(pomFile.getAbsolutePath(), new Entry(model.clone(), pomFile.lastModified(), pomFile.length(),
+               revisions.incrementAndGet(), written));
+   }
+
+   /**
+    * Discard any cached {@link Model} for the given POM file.
+    */
+   public void invalidate(final File pomFile)
+   {
+      cache.remove(pomFile.getAbsolutePath());
+   }
+
+   public void invalidateAll()
+   {
+      cache.clear();
+   }
+
+   void modified(@Observes final ResourceModified event)
+   {
+      File file = getFile(event.getResource());
+      if (file != null)
+      {
+         Entry entry = cache.get(file.getAbsolutePath());
+         if ((entry != null) && !(entry.written && entry.isCurrent(file)))
+         {
+            invalidate(file);
+         }
+      }
+   }
+
+   void deleted(@Observes final ResourceDeleted event)
+   {
+      File file = getFile(event.getResource());
+      if (file != null)
+      {
+         invalidate(file);
+      }
+   }
+
+   private static File getFile(final Resource<?> resource)
+   {
+      if (resource instanceof FileResource<?>)
+      {
+         Object file = resource.getUnderlyingResourceObject();
+         if (file instanceof File)
+         {
+            return (File) file;
+         }
+      }
+      return null;
+   }
+
+   private static class Entry
+   {
+      private final Model model;
+      private final long lastModified;
+      private final long length;
+      private final long revision;
+      private final boolean written;
+
+      public Entry(final Model model, final long lastModified, final long length, final long revision,
+               final boolean written)
+      {
+         this.model = model;
+         this.lastModified = lastModified;
+         this.length = length;
+         this.revision = revision;
+         this.written = written;
+      }
+
+      public boolean isCurrent(final File file)
+      {
+         return file.lastModified() == lastModified && file.length() == length;
+      }
+   }
+}
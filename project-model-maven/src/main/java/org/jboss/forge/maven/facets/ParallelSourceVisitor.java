@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.facets;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.forge.resources.DirectoryResource;
+import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.java.JavaResource;
+import org.jboss.forge.resources.java.JavaResourceVisitor;
+import org.jboss.forge.shell.exceptions.AbortedException;
+import org.jboss.forge.shell.util.WorkerPool;
+
+/**
+ * Visits the {@link JavaResource}s below a source folder on the shared {@link WorkerPool}. Each directory is listed by
+ * its own task, and each java file is visited by its own task, so that a slow visitor (typically one that parses every
+ * file) keeps all threads busy. The first exception or error thrown while visiting stops the remaining visits and is
+ * rethrown on the calling thread once all running tasks are done. If the calling thread is interrupted, the remaining
+ * visits are cancelled and an {@link AbortedException} is thrown, so that a partial visit is never mistaken for a
+ * complete one.
+ */
+class ParallelSourceVisitor
+{
+   private final Executor executor;
+   private final JavaResourceVisitor visitor;
+   private final AtomicInteger pending = new AtomicInteger();
+   private final CountDownLatch done = new CountDownLatch(1);
+   private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+   private volatile boolean cancelled;
+
+   private ParallelSourceVisitor(final int parallelism, final JavaResourceVisitor visitor)
+   {
+      this.executor = WorkerPool.newExecutor(parallelism);
+      this.visitor = visitor;
+   }
+
+   /**
+    * Visit all {@link JavaResource}s below the given folder on up to the given number of threads, and return when all
+    * have been visited.
+    */
+   public static void visit(final DirectoryResource folder, final JavaResourceVisitor visitor, final int parallelism)
+   {
+      ParallelSourceVisitor visit = new ParallelSourceVisitor(parallelism, visitor);
+      try
+      {
+         visit.submit(folder);
+         visit.done.await();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new AbortedException("Interrupted while visiting the java sources of [" + folder + "]", e);
+      }
+      finally
+      {
+         visit.cancelled = true;
+      }
+
+      Throwable failure = visit.failure.get();
+      if (failure instanceof RuntimeException)
+      {
+         throw (RuntimeException) failure;
+      }
+      else if (failure instanceof Error)
+      {
+         throw (Error) failure;
+      }
+      else if (failure != null)
+      {
+         throw new RuntimeException(failure);
+      }
+   }
+
+   private void submit(final Resource<?> resource)
+   {
+      pending.incrementAndGet();
+      executor.execute(new Runnable()
+      {
+         @Override
+         public void run()
+         {
+            try
+            {
+               if (!cancelled && (failure.get() == null))
+               {
+                  if (resource instanceof JavaResource)
+                  {
+                     visitor.visit((JavaResource) resource);
+                  }
+                  else
+                  {
+                     list(resource);
+                  }
+               }
+            }
+            catch (Throwable e)
+            {
+               failure.compareAndSet(null, e);
+            }
+            finally
+            {
+               if (pending.decrementAndGet() == 0)
+               {
+                  done.countDown();
+               }
+            }
+         }
+      });
+   }
+
+   private void list(final Resource<?> directory)
+   {
+      List<Resource<?>> children = directory.listResources();
+      if (children != null)
+      {
+         for (Resource<?> child : children)
+         {
+            if ((child instanceof DirectoryResource) || (child instanceof JavaResource))
+            {
+               submit(child);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.facets;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Replaces Maven <code>${property}</code> expressions in a single pass over the input, using an immutable snapshot of
+ * the project properties. Property values that themselves contain expressions are resolved recursively; expressions
+ * that cannot be resolved (unknown or cyclic properties) are left untouched.
+ */
+public class PropertyInterpolator
+{
+   private static final String PREFIX = "${";
+   private static final char SUFFIX = '}';
+
+   private final Map<String, String> properties;
+   private final Map<String, String> resolved = new HashMap<String, String>();
+
+   public PropertyInterpolator(final Properties properties)
+   {
+      this.properties = new HashMap<String, String>();
+      if (properties != null)
+      {
+         for (Entry<Object, Object> e : properties.entrySet())
+         {
+            if (e.getKey() != null && e.getValue() != null)
+            {
+               this.properties.put(e.getKey().toString(), e.getValue().toString());
+            }
+         }
+      }
+   }
+
+   /**
+    * Return true if the given value contains anything that looks like a <code>${property}</code> expression.
+    */
+   public static boolean containsExpression(final String value)
+   {
+      return value != null && value.indexOf(PREFIX) != -1;
+   }
+
+   /**
+    * Replace all known <code>${property}</code> expressions in the given input.
+    */
+   public String interpolate(final String input)
+   {
+      if (!containsExpression(input))
+      {
+         return input;
+      }
+      synchronized (resolved)
+      {
+         return interpolate(input, new HashSet<String>());
+      }
+   }
+
+   private String interpolate(final String input, final Set<String> resolving)
+   {
+      StringBuilder result = new StringBuilder(input.length() + 16);
+      int position = 0;
+      int start;
+      while ((start = input.indexOf(PREFIX, position)) != -1)
+      {
+         int end = input.indexOf(SUFFIX, start + PREFIX.length());
+         if (end == -1)
+         {
+            break;
+         }
+
+         result.append(input, position, start);
+         String value = resolve(input.substring(start + PREFIX.length(), end), resolving);
+         if (value != null)
+         {
+            result.append(value);
+         }
+         else
+         {
+            result.append(input, start, end + 1);
+         }
+         position = end + 1;
+      }
+      return result.append(input, position, input.length()).toString();
+   }
+
+   private String resolve(final String key, final Set<String> resolving)
+   {
+      String value = resolved.get(key);
+      if (value == null)
+      {
+         value = properties.get(key);
+         if (value != null && containsExpression(value))
+         {
+            if (!resolving.add(key))
+            {
+               return null;
+            }
+            value = interpolate(value, resolving);
+            resolving.remove(key);
+         }
+         if (value != null)
+         {
+            resolved.put(key, value);
+         }
+      }
+      return value;
+   }
+}
@@ -21,12 +21,16 @@ import org.jboss.forge.shell.util.ConstraintInspector;
 
 /**
  * Convenience base class for {@link Project} implementations.
+ * <p>
+ * Registered facets are indexed by each of their classes and interfaces, so that facet lookups by type do not need to
+ * scan all registered facets.
  * 
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  */
 public abstract class BaseProject implements Project
 {
    private final Set<Facet> facets = new HashSet<Facet>();
+   private final Map<Class<?>, List<Facet>> facetsByType = new HashMap<Class<?>, List<Facet>>();
    private final Map<String, Object> attributes = new HashMap<String, Object>();
 
    @Override
@@ -50,20 +54,7 @@ public abstract class BaseProject implements Project
    @Override
    public boolean hasFacet(final Class<? extends Facet> type)
    {
-      Facet result = null;
-      for (Facet facet : facets)
-      {
-         if ((facet != null) && type.isAssignableFrom(facet.getClass()))
-         {
-            result = facet;
-            break;
-         }
-      }
-      if (result != null)
-      {
-         return true;
-      }
-      return false;
+      return facetsByType.containsKey(type);
    }
 
    @Override
@@ -89,15 +80,8 @@ public abstract class BaseProject implements Project
    @SuppressWarnings("unchecked")
    public <F extends Facet> F getFacet(final Class<F> type)
    {
-      Facet result = null;
-      for (Facet facet : facets)
-      {
-         if ((facet != null) && type.isAssignableFrom(facet.getClass()))
-         {
-            result = facet;
-            break;
-         }
-      }
+      List<Facet> found = facetsByType.get(type);
+      Facet result = found == null ? null : found.get(0);
       if (result == null)
       {
          throw new FacetNotFoundException("The requested facet of type [" + type.getName()
@@ -120,9 +104,10 @@ public abstract class BaseProject implements Project
    {
       List<F> result = new ArrayList<F>();
 
-      for (Facet facet : facets)
+      List<Facet> found = facetsByType.get(type);
+      if (found != null)
       {
-         if ((facet != null) && facet.getClass().isAssignableFrom(type))
+         for (Facet facet : found)
          {
             result.add((F) facet);
          }
@@ -152,7 +137,7 @@ public abstract class BaseProject implements Project
       facet.setProject(this);
       if (facet.isInstalled() && !hasFacet(facet.getClass()))
       {
-         facets.add(facet);
+         addFacet(facet);
       }
       return this;
    }
@@ -209,7 +194,7 @@ public abstract class BaseProject implements Project
 
       if (!facet.isInstalled())
       {
-         facets.remove(facet);
+         removeFacetInstance(facet);
       }
       return this;
    }
@@ -222,7 +207,7 @@ public abstract class BaseProject implements Project
          {
             if (f.getClass().isAssignableFrom(facet.getClass()))
             {
-               facets.remove(f);
+               removeFacetInstance(f);
                break;
             }
          }
@@ -239,7 +224,7 @@ public abstract class BaseProject implements Project
    {
       if (facet.install())
       {
-         facets.add(facet);
+         addFacet(facet);
       }
       else
       {
@@ -249,6 +234,62 @@ public abstract class BaseProject implements Project
       }
    }
 
+   private void addFacet(final Facet facet)
+   {
+      if (facets.add(facet))
+      {
+         for (Class<?> type : getFacetTypes(facet.getClass()))
+         {
+            List<Facet> list = facetsByType.get(type);
+            if (list == null)
+            {
+               list = new ArrayList<Facet>(1);
+               facetsByType.put(type, list);
+            }
+            list.add(facet);
+         }
+      }
+   }
+
+   private void removeFacetInstance(final Facet facet)
+   {
+      if (facets.remove(facet))
+      {
+         for (Class<?> type : getFacetTypes(facet.getClass()))
+         {
+            List<Facet> list = facetsByType.get(type);
+            if (list != null)
+            {
+               list.remove(facet);
+               if (list.isEmpty())
+               {
+                  facetsByType.remove(type);
+               }
+            }
+         }
+      }
+   }
+
+   /*
+    * All classes and interfaces the given facet type can be looked up by.
+    */
+   private static Set<Class<?>> getFacetTypes(final Class<?> type)
+   {
+      Set<Class<?>> result = new HashSet<Class<?>>();
+      List<Class<?>> pending = new ArrayList<Class<?>>();
+      pending.add(type);
+      while (!pending.isEmpty())
+      {
+         Class<?> current = pending.remove(pending.size() - 1);
+         if ((current != null) && (current != Object.class) && result.add(current))
+         {
+            pending.add(current.getSuperclass());
+            pending.addAll(Arrays.asList(current.getInterfaces()));
+         }
+      }
+      return result;
+   }
+
    /*
     * Project instances are the same if they share a common root directory.
     */
@@ -18,6 +18,7 @@ import org.jboss.forge.project.Facet;
 import org.jboss.forge.project.Project;
 import org.jboss.forge.resources.DirectoryResource;
 import org.jboss.forge.resources.java.JavaResource;
+import org.jboss.forge.resources.java.JavaResourceCollector;
 import org.jboss.forge.resources.java.JavaResourceVisitor;
 
 /**
@@ -167,4 +168,25 @@ public interface JavaSourceFacet extends Facet
     */
    public void visitJavaTestSources(JavaResourceVisitor visitor);
 
+   /**
+    * Like {@link #visitJavaSources(JavaResourceVisitor)}, but lists directories and calls the visitor on up to the
+    * given number of threads, returning once every java file has been visited. The visitor must be thread-safe, and
+    * the order of the visits is not defined; use a {@link JavaResourceCollector} to obtain ordered results. If the
+    * calling thread is interrupted, the visit is abandoned with an
+    * {@link org.jboss.forge.shell.exceptions.AbortedException}.
+    *
+    * @param visitor The {@link JavaResourceVisitor} that processes all the found java files. Cannot be null.
+    * @param parallelism The maximum number of threads to use; 1 visits on the calling thread.
+    */
+   public void visitJavaSources(JavaResourceVisitor visitor, int parallelism);
+
+   /**
+    * Like {@link #visitJavaTestSources(JavaResourceVisitor)}, but lists directories and calls the visitor on up to the
+    * given number of threads. See {@link #visitJavaSources(JavaResourceVisitor, int)}.
+    *
+    * @param visitor The {@link JavaResourceVisitor} that processes all the found java files. Cannot be null.
+    * @param parallelism The maximum number of threads to use; 1 visits on the calling thread.
+    */
+   public void visitJavaTestSources(JavaResourceVisitor visitor, int parallelism);
+
 }
@@ -7,11 +7,17 @@
 
 package org.jboss.forge.project.services;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
@@ -19,20 +25,64 @@ import javax.inject.Singleton;
 
 import org.jboss.forge.project.Facet;
 import org.jboss.forge.project.Project;
+import org.jboss.forge.project.facets.events.FacetInstalled;
+import org.jboss.forge.project.facets.events.FacetRemoved;
 import org.jboss.forge.project.locator.ProjectLocator;
 import org.jboss.forge.resources.DirectoryResource;
+import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.events.ResourceCreated;
+import org.jboss.forge.resources.events.ResourceDeleted;
+import org.jboss.forge.resources.events.ResourceEvent;
 import org.jboss.forge.shell.util.BeanManagerUtils;
 import org.jboss.forge.shell.util.ConstraintInspector;
 import org.jboss.forge.shell.util.ResourceUtil;
 
 /**
  * Responsible for instantiating project instances through CDI.
+ * <p>
+ * Project roots are cached by starting directory; a cached root is checked again with its {@link ProjectLocator} before
+ * it is returned. The facets found on a project are also remembered per project root, so that only these facets are
+ * registered again the next time the project is created. This snapshot is discarded when a file directly in the project
+ * root (such as the project descriptor) or one of the {@link #STAMPED_PATHS} that facets commonly look for changes, when
+ * resources in the project are modified through Forge, or when a facet is installed or removed.
  * 
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  */
 @Singleton
 public class ProjectFactory
 {
+   private static final int MAX_CACHED_ROOTS = 256;
+
+   /**
+    * Paths, relative to the project root, of the source folders and descriptors whose presence decides whether common
+    * facets are installed.
+    */
+   private static final String[] STAMPED_PATHS = {
+            "src/main/java",
+            "src/main/resources",
+            "src/main/resources/META-INF",
+            "src/main/resources/META-INF/beans.xml",
+            "src/main/resources/META-INF/persistence.xml",
+            "src/main/webapp",
+            "src/main/webapp/WEB-INF",
+            "src/main/webapp/WEB-INF/beans.xml",
+            "src/main/webapp/WEB-INF/faces-config.xml",
+            "src/main/webapp/WEB-INF/web.xml",
+            "src/test/java",
+            "src/test/resources" };
+
+   private final Map<String, CachedRoot> roots = new LinkedHashMap<String, CachedRoot>(16, 0.75f, true)
+   {
+      private static final long serialVersionUID = -4722466227312376393L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, CachedRoot> eldest)
+      {
+         return size() > MAX_CACHED_ROOTS;
+      }
+   };
+   private final Map<String, FacetSnapshot> snapshots = new HashMap<String, FacetSnapshot>();
+
    private final FacetFactory facetFactory;
    private List<ProjectLocator> locators;
    private final BeanManager manager;
@@ -64,6 +114,12 @@ public class ProjectFactory
 
    public DirectoryResource findProjectRootRecusively(final DirectoryResource currentDirectory)
    {
+      CachedRoot cached = getCachedRoot(currentDirectory);
+      if (cached != null)
+      {
+         return cached.root;
+      }
+
       DirectoryResource root = null;
       List<ProjectLocator> locators = getLocators();
       for (ProjectLocator locator : locators)
@@ -71,6 +127,7 @@ public class ProjectFactory
          root = locateRecursively(currentDirectory, locator);
          if (root != null)
          {
+            cacheRoot(currentDirectory, root, locator);
             break;
          }
       }
@@ -97,9 +154,16 @@ public class ProjectFactory
    public Project findProjectRecursively(final DirectoryResource startingPath)
    {
       Project project = null;
+      CachedRoot cached = getCachedRoot(startingPath);
+      if (cached != null)
+      {
+         project = cached.locator.createProject(cached.root);
+      }
+
       List<ProjectLocator> locators = getLocators();
-      for (ProjectLocator locator : locators)
+      for (int i = 0; (project == null) && (i < locators.size()); i++)
       {
+         ProjectLocator locator = locators.get(i);
          DirectoryResource root = locateRecursively(startingPath, locator);
 
          if ((root != null) && locator.containsProject(root))
@@ -107,7 +171,7 @@ public class ProjectFactory
             project = locator.createProject(root);
             if (project != null)
             {
-               break;
+               cacheRoot(startingPath, root, locator);
             }
          }
       }
@@ -143,6 +207,7 @@ public class ProjectFactory
             installSingleFacet(project, type);
          }
 
+         invalidateSnapshot(root);
          registerFacets(project);
       }
       return project;
@@ -172,11 +237,180 @@ public class ProjectFactory
       if (project != null)
       {
          Set<Class<? extends Facet>> facets = facetFactory.getFacetTypes();
+         DirectoryResource root = project.getProjectRoot();
+         String key = root == null ? null : pathOf(root);
+         long stamp = root == null ? 0 : getStamp(root.getUnderlyingResourceObject());
+
+         FacetSnapshot snapshot = null;
+         if (key != null)
+         {
+            synchronized (snapshots)
+            {
+               snapshot = snapshots.get(key);
+            }
+         }
 
-         for (Class<? extends Facet> facet : facets)
+         if ((snapshot != null) && (snapshot.stamp == stamp) && snapshot.knownTypes.equals(facets))
          {
-            registerSingleFacet(project, facet);
+            for (Class<? extends Facet> facet : snapshot.installedTypes)
+            {
+               registerSingleFacet(project, facet);
+            }
          }
+         else
+         {
+            for (Class<? extends Facet> facet : facets)
+            {
+               registerSingleFacet(project, facet);
+            }
+
+            if (key != null)
+            {
+               List<Class<? extends Facet>> installed = new ArrayList<Class<? extends Facet>>();
+               for (Facet facet : project.getFacets())
+               {
+                  installed.add(facet.getClass());
+               }
+               synchronized (snapshots)
+               {
+                  snapshots.put(key, new FacetSnapshot(stamp, facets, installed));
+               }
+            }
+         }
+      }
+   }
+
+   /*
+    * Changes to the files directly in the project root, such as the project descriptor, and to the STAMPED_PATHS change
+    * this stamp.
+    */
+   private static long getStamp(final File root)
+   {
+      long stamp = root.lastModified();
+      File[] files = root.listFiles();
+      if (files != null)
+      {
+         for (File file : files)
+         {
+            if (file.isFile())
+            {
+               stamp = stamp(stamp, file);
+            }
+         }
+      }
+      for (String path : STAMPED_PATHS)
+      {
+         stamp = stamp(stamp, new File(root, path));
+      }
+      return stamp;
+   }
+
+   private static long stamp(final long stamp, final File file)
+   {
+      return (31 * stamp) + file.getName().hashCode() + file.lastModified() + file.length();
+   }
+
+   private CachedRoot getCachedRoot(final DirectoryResource directory)
+   {
+      if (directory == null)
+      {
+         return null;
+      }
+
+      String key = pathOf(directory);
+      CachedRoot cached;
+      synchronized (roots)
+      {
+         cached = roots.get(key);
+      }
+
+      if ((cached != null) && !cached.locator.containsProject(cached.root))
+      {
+         synchronized (roots)
+         {
+            roots.clear();
+         }
+         cached = null;
+      }
+      return cached;
+   }
+
+   private void cacheRoot(final DirectoryResource directory, final DirectoryResource root, final ProjectLocator locator)
+   {
+      CachedRoot cached = new CachedRoot(root, locator);
+      String rootPath = pathOf(root);
+      synchronized (roots)
+      {
+         for (File dir = directory.getUnderlyingResourceObject(); dir != null; dir = dir.getParentFile())
+         {
+            String key = dir.getAbsolutePath();
+            roots.put(key, cached);
+            if (key.equals(rootPath))
+            {
+               break;
+            }
+         }
+      }
+   }
+
+   private void invalidateSnapshot(final DirectoryResource root)
+   {
+      if (root != null)
+      {
+         synchronized (snapshots)
+         {
+            snapshots.remove(pathOf(root));
+         }
+      }
+   }
+
+   private static String pathOf(final Resource<?> resource)
+   {
+      Object underlying = resource.getUnderlyingResourceObject();
+      if (underlying instanceof File)
+      {
+         return ((File) underlying).getAbsolutePath();
+      }
+      return resource.getFullyQualifiedName();
+   }
+
+   void resourceChanged(@Observes final ResourceEvent event)
+   {
+      if ((event instanceof ResourceCreated) || (event instanceof ResourceDeleted))
+      {
+         synchronized (roots)
+         {
+            roots.clear();
+         }
+      }
+
+      String path = pathOf(event.getResource());
+      synchronized (snapshots)
+      {
+         for (Iterator<String> iterator = snapshots.keySet().iterator(); iterator.hasNext();)
+         {
+            String root = iterator.next();
+            if (path.equals(root) || path.startsWith(root + File.separator))
+            {
+               iterator.remove();
+            }
+         }
+      }
+   }
+
+   void facetInstalled(@Observes final FacetInstalled event)
+   {
+      synchronized (snapshots)
+      {
+         snapshots.clear();
+      }
+   }
+
+   void facetRemoved(@Observes final FacetRemoved event)
+   {
+      synchronized (snapshots)
+      {
+         snapshots.clear();
       }
    }
 
@@ -245,4 +479,31 @@ public class ProjectFactory
       init();
       return locators;
    }
+
+   private static class CachedRoot
+   {
+      private final DirectoryResource root;
+      private final ProjectLocator locator;
+
+      public CachedRoot(final DirectoryResource root, final ProjectLocator locator)
+      {
+         this.root = root;
+         this.locator = locator;
+      }
+   }
+
+   private static class FacetSnapshot
+   {
+      private final long stamp;
+      private final Set<Class<? extends Facet>> knownTypes;
+      private final List<Class<? extends Facet>> installedTypes;
+
+      public FacetSnapshot(final long stamp, final Set<Class<? extends Facet>> knownTypes,
+               final List<Class<? extends Facet>> installedTypes)
+      {
+         this.stamp = stamp;
+         this.knownTypes = new HashSet<Class<? extends Facet>>(knownTypes);
+         this.installedTypes = installedTypes;
+      }
+   }
 }
@@ -9,6 +9,7 @@ package org.jboss.forge.project.services;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -29,6 +30,10 @@ import org.jboss.forge.resources.UnknownFileResource;
 import org.jboss.forge.shell.events.PostStartup;
 
 /**
+ * Creates {@link Resource} instances for files, using the resource types registered with {@link ResourceHandles}.
+ * Resources may be created from any thread: the registered generators are replaced as a whole (copy-on-write) when a
+ * type is registered, so that lookups never take a lock.
+ *
  * @author Mike Brock <cbrock@redhat.com>
  */
 @Singleton
@@ -37,7 +42,7 @@ public class ResourceFactory implements Extension
    @Inject
    private Instance<BeanManager> managerInstance;
 
-   private final List<ResourceGenerator> resourceGenerators = new ArrayList<ResourceGenerator>();
+   private volatile List<ResourceGenerator> resourceGenerators = Collections.emptyList();
 
    /**
     * Most directories will tend to contain the same type of file (such as .java, .jar, .xml, etc). So we will remember
@@ -71,28 +76,32 @@ public class ResourceFactory implements Extension
             CreationalContext<?> creationalCtx = manager.createCreationalContext(bean);
             Resource<?> rInst = (Resource<?>) manager.getReference(bean, bean.getBeanClass(), creationalCtx);
 
-            resourceGenerators.add(new ResourceGenerator(p, rInst));
+            addGenerator(new ResourceGenerator(p, rInst));
          }
       }
    }
 
+   private synchronized void addGenerator(final ResourceGenerator generator)
+   {
+      List<ResourceGenerator> generators = new ArrayList<ResourceGenerator>(resourceGenerators);
+      generators.add(generator);
+      resourceGenerators = Collections.unmodifiableList(generators);
+   }
+
    @SuppressWarnings("unchecked")
    public <E, T extends Resource<E>> T createFromType(final Class<T> type, final E underlyingResource)
    {
-      synchronized (this)
+      for (ResourceGenerator gen : resourceGenerators)
       {
-         for (ResourceGenerator gen : resourceGenerators)
+         Resource<?> resource = gen.getResource();
+         if (type.isAssignableFrom(resource.getClass()))
          {
-            Resource<?> resource = gen.getResource();
-            if (type.isAssignableFrom(resource.getClass()))
-            {
-               /*
-                * This little <T> hack is required due to bug in javac:
-                * http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6302954
-                */
-               T result = (lastTypeLoaded = gen).<T> getResource();
-               return (T) result.createFrom(underlyingResource);
-            }
+            /*
+             * This little <T> hack is required due to bug in javac:
+             * http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6302954
+             */
+            T result = (lastTypeLoaded = gen).<T> getResource();
+            return (T) result.createFrom(underlyingResource);
          }
       }
       return null;
@@ -111,19 +120,17 @@ public class ResourceFactory implements Extension
 
       final String name = file.getName();
 
-      synchronized (this)
+      ResourceGenerator last = lastTypeLoaded;
+      if (last.matches(name))
       {
-         if (lastTypeLoaded.matches(name))
-         {
-            return lastTypeLoaded.getResource(File.class).createFrom(file);
-         }
+         return last.getResource(File.class).createFrom(file);
+      }
 
-         for (ResourceGenerator gen : resourceGenerators)
+      for (ResourceGenerator gen : resourceGenerators)
+      {
+         if (gen.matches(name))
          {
-            if (gen.matches(name))
-            {
-               return (lastTypeLoaded = gen).getResource(File.class).createFrom(file);
-            }
+            return (lastTypeLoaded = gen).getResource(File.class).createFrom(file);
          }
       }
 
@@ -58,27 +58,46 @@ public class JavaFieldResource extends JavaMemberResource<Field<? extends JavaSo
    @Override
    public String getName()
    {
-      return field.getName() + "::" + field.getType();
+      synchronized (field.getOrigin())
+      {
+         return field.getName() + "::" + field.getType();
+      }
    }
 
    @Override
    public String toString()
    {
-      return field.toString();
+      synchronized (field.getOrigin())
+      {
+         return field.toString();
+      }
    }
 
+   /**
+    * Remove this field from a private copy of its source, and write that copy back.
+    */
    @Override
    @SuppressWarnings({ "unchecked", "rawtypes" })
    public boolean delete() throws UnsupportedOperationException
    {
-      JavaSource<?> origin = field.getOrigin();
+      String name;
+      synchronized (field.getOrigin())
+      {
+         name = field.getName();
+      }
+
+      JavaSource<?> origin = getPrivateSource();
       if (origin instanceof FieldHolder)
       {
-         ((FieldHolder) origin).removeField(field);
-         if (!((FieldHolder) origin).hasField(field))
+         Field copy = ((FieldHolder) origin).getField(name);
+         if (copy != null)
          {
-            ((JavaResource) this.getParent()).setContents(origin.toString());
-            return true;
+            ((FieldHolder) origin).removeField(copy);
+            if (!((FieldHolder) origin).hasField(name))
+            {
+               ((JavaResource) this.getParent()).setContents(origin.toString());
+               return true;
+            }
          }
       }
       return false;
@@ -101,18 +120,21 @@ public class JavaFieldResource extends JavaMemberResource<Field<? extends JavaSo
    {
       List<Resource<?>> result = new ArrayList<Resource<?>>();
       JavaClass entity = (JavaClass) field.getOrigin();
-      String methodNameSuffix = Strings.capitalize(field.getName());
-      // Condition to remove getField()
-      if (entity.hasMethodSignature("get" + methodNameSuffix))
+      synchronized (entity)
       {
-         Method<JavaClass> method = entity.getMethod("get" + methodNameSuffix);
-         result.add(new JavaMethodResource(this.getParent(), method));
-      }
-      // Condition to remove setField()
-      if (entity.hasMethodSignature("set" + methodNameSuffix, field.getQualifiedType()))
-      {
-         Method<JavaClass> method = entity.getMethod("set" + methodNameSuffix, field.getQualifiedType());
-         result.add(new JavaMethodResource(this.getParent(), method));
+         String methodNameSuffix = Strings.capitalize(field.getName());
+         // Condition to remove getField()
+         if (entity.hasMethodSignature("get" + methodNameSuffix))
+         {
+            Method<JavaClass> method = entity.getMethod("get" + methodNameSuffix);
+            result.add(new JavaMethodResource(this.getParent(), method));
+         }
+         // Condition to remove setField()
+         if (entity.hasMethodSignature("set" + methodNameSuffix, field.getQualifiedType()))
+         {
+            Method<JavaClass> method = entity.getMethod("set" + methodNameSuffix, field.getQualifiedType());
+            result.add(new JavaMethodResource(this.getParent(), method));
+         }
       }
       return result;
    }
@@ -7,11 +7,14 @@
 
 package org.jboss.forge.resources.java;
 
+import java.io.FileNotFoundException;
 import java.util.Collections;
 import java.util.List;
 
+import org.jboss.forge.parser.java.JavaSource;
 import org.jboss.forge.parser.java.Member;
 import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.ResourceException;
 import org.jboss.forge.resources.ResourceFlag;
 import org.jboss.forge.resources.VirtualResource;
 
@@ -51,12 +54,35 @@ public abstract class JavaMemberResource<T extends Member> extends VirtualResour
    @Override
    public String getName()
    {
-      return member.getName();
+      synchronized (member.getOrigin())
+      {
+         return member.getName();
+      }
    }
 
    @Override
    public String toString()
    {
-      return member.toString();
+      synchronized (member.getOrigin())
+      {
+         return member.toString();
+      }
+   }
+
+   /**
+    * Return a private copy of the source declaring this member, which may be modified and written back. The member
+    * itself belongs to the parse of its file shared by all listings, and is only read while holding the lock of its
+    * origin.
+    */
+   protected JavaSource<?> getPrivateSource()
+   {
+      try
+      {
+         return ((JavaResource) getParent()).getJavaSource();
+      }
+      catch (FileNotFoundException e)
+      {
+         throw new ResourceException(e);
+      }
    }
 }
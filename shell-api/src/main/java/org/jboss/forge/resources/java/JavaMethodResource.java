@@ -53,34 +53,56 @@ public class JavaMethodResource extends JavaMemberResource<Method>
    @Override
    public String getName()
    {
-      List<String> parameterTypes = new ArrayList<String>();
-      for (Parameter<?> p : method.getParameters())
+      synchronized (method.getOrigin())
       {
-         parameterTypes.add(p.getType());
-      }
+         List<String> parameterTypes = new ArrayList<String>();
+         for (Parameter<?> p : method.getParameters())
+         {
+            parameterTypes.add(p.getType());
+         }
 
-      String returnType = method.getReturnType() == null ? "void" : method.getReturnType();
-      return String.format("%s(%s)::%s", method.getName(), Strings.join(parameterTypes, ","), returnType);
+         String returnType = method.getReturnType() == null ? "void" : method.getReturnType();
+         return String.format("%s(%s)::%s", method.getName(), Strings.join(parameterTypes, ","), returnType);
+      }
    }
 
    @Override
    public String toString()
    {
-      return method.toString();
+      synchronized (method.getOrigin())
+      {
+         return method.toString();
+      }
    }
 
+   /**
+    * Remove the method with the signature of this one from a private copy of its source, and write that copy back.
+    */
    @Override
    @SuppressWarnings({ "unchecked" })
    public boolean delete() throws UnsupportedOperationException
    {
-      JavaSource<?> origin = method.getOrigin();
+      String signature;
+      synchronized (method.getOrigin())
+      {
+         signature = method.toSignature();
+      }
+
+      JavaSource<?> origin = getPrivateSource();
       if (origin instanceof MethodHolder)
       {
-         ((MethodHolder) origin).removeMethod(method);
-         if (!((MethodHolder) origin).hasMethodSignature(method))
+         for (Method<?> copy : ((MethodHolder<?>) origin).getMethods())
          {
-            ((JavaResource) this.getParent()).setContents(origin.toString());
-            return true;
+            if (copy.toSignature().equals(signature))
+            {
+               ((MethodHolder) origin).removeMethod(copy);
+               if (!((MethodHolder) origin).hasMethodSignature(copy))
+               {
+                  ((JavaResource) this.getParent()).setContents(origin.toString());
+                  return true;
+               }
+               break;
+            }
          }
       }
       return false;
@@ -8,7 +8,9 @@
 package org.jboss.forge.resources.java;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -31,6 +33,7 @@ import org.jboss.forge.resources.ResourceException;
 import org.jboss.forge.resources.ResourceFlag;
 import org.jboss.forge.resources.ResourceHandles;
 import org.jboss.forge.resources.enumtype.EnumConstantResource;
+import org.jboss.forge.shell.util.Streams;
 
 /**
  * @author Mike Brock
@@ -39,6 +42,11 @@ import org.jboss.forge.resources.enumtype.EnumConstantResource;
 @ResourceHandles("*.java")
 public class JavaResource extends FileResource<JavaResource>
 {
+   /**
+    * Parsed sources shared by all {@link JavaResource} instances, since a new instance is created every time a file is
+    * resolved.
+    */
+   private static final JavaSourceCache cache = new JavaSourceCache();
 
    @Inject
    public JavaResource(final ResourceFactory factory)
@@ -93,27 +101,31 @@ public class JavaResource extends FileResource<JavaResource>
       {
          List<Resource<?>> list = new LinkedList<Resource<?>>();
 
-         for (Member<?, ?> member : getJavaSource().getMembers())
+         JavaSource<?> source = getCachedJavaSource();
+         synchronized (source)
          {
-            if (member instanceof Field)
-            {
-               list.add(new JavaFieldResource(this, (Field<? extends JavaSource<?>>) member));
-            }
-            else if (member instanceof Method)
-            {
-               list.add(new JavaMethodResource(this, (Method<? extends JavaSource<?>>) member));
-            }
-            else
+            for (Member<?, ?> member : source.getMembers())
             {
-               throw new UnsupportedOperationException("Unknown member type: " + member);
+               if (member instanceof Field)
+               {
+                  list.add(new JavaFieldResource(this, (Field<? extends JavaSource<?>>) member));
+               }
+               else if (member instanceof Method)
+               {
+                  list.add(new JavaMethodResource(this, (Method<? extends JavaSource<?>>) member));
+               }
+               else
+               {
+                  throw new UnsupportedOperationException("Unknown member type: " + member);
+               }
             }
-         }
 
-         if (getJavaSource() instanceof JavaEnum)
-         {
-            for (EnumConstant<JavaEnum> e : ((JavaEnum) getJavaSource()).getEnumConstants())
+            if (source instanceof JavaEnum)
             {
-               list.add(new EnumConstantResource(this, (EnumConstant<JavaEnum>) e));
+               for (EnumConstant<JavaEnum> e : ((JavaEnum) source).getEnumConstants())
+               {
+                  list.add(new EnumConstantResource(this, (EnumConstant<JavaEnum>) e));
+               }
             }
          }
 
@@ -135,12 +147,91 @@ public class JavaResource extends FileResource<JavaResource>
       return this;
    }
 
+   @Override
+   public JavaResource setContents(final InputStream data)
+   {
+      try
+      {
+         return super.setContents(data);
+      }
+      finally
+      {
+         cache.invalidate(file);
+      }
+   }
+
+   @Override
+   public boolean delete(final boolean recursive)
+   {
+      cache.invalidate(file);
+      return super.delete(recursive);
+   }
+
    /**
     * Attempts to perform cast automatically. This can lead to problems.
+    * <p>
+    * The returned {@link JavaSource} belongs to the caller, and may be modified freely: a spare parse of this file is
+    * handed over (and removed from the cache) if one is available, otherwise the cached text of the file is parsed. It
+    * is never the instance read by member listings.
     */
    public JavaSource<?> getJavaSource() throws FileNotFoundException
    {
-      return JavaParser.parse(file);
+      JavaSource<?> source = cache.take(file);
+      if (source == null)
+      {
+         source = JavaParser.parse(getCachedContents());
+      }
+      return source;
+   }
+
+   /**
+    * Return the shared parse of this file, parsing and caching it if necessary. The result is only read, and only while
+    * holding its lock, since other {@link JavaResource} instances for the same file may read it concurrently. Members
+    * of this file are modified through a private copy obtained from {@link #getJavaSource()}.
+    */
+   private JavaSource<?> getCachedJavaSource() throws FileNotFoundException
+   {
+      JavaSource<?> source = cache.get(file);
+      if (source == null)
+      {
+         long lastModified = file.lastModified();
+         long length = file.length();
+         source = JavaParser.parse(getCachedContents());
+         cache.put(file, lastModified, length, source);
+      }
+      return source;
+   }
+
+   /**
+    * Return the text of this file, reading and caching it if necessary.
+    */
+   private String getCachedContents() throws FileNotFoundException
+   {
+      String contents = cache.getContents(file);
+      if (contents == null)
+      {
+         long lastModified = file.lastModified();
+         long length = file.length();
+         InputStream stream = new FileInputStream(file);
+         try
+         {
+            contents = Streams.toString(stream);
+         }
+         finally
+         {
+            Streams.closeQuietly(stream);
+         }
+         cache.putContents(file, lastModified, length, contents);
+      }
+      return contents;
+   }
+
+   /**
+    * Return the cache of parsed sources used by all {@link JavaResource} instances.
+    */
+   public static JavaSourceCache getJavaSourceCache()
+   {
+      return cache;
    }
 
    @Override
@@ -154,7 +245,11 @@ public class JavaResource extends FileResource<JavaResource>
    {
       try
       {
-         return getJavaSource().getQualifiedName();
+         JavaSource<?> source = getCachedJavaSource();
+         synchronized (source)
+         {
+            return source.getQualifiedName();
+         }
       }
       catch (FileNotFoundException e)
       {
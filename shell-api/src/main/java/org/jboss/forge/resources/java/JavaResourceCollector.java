@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.resources.java;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A thread-safe {@link JavaResourceVisitor} that computes one result per visited {@link JavaResource}, and returns them
+ * ordered by the fully qualified name of their resource, whatever the order (or number of threads) in which the
+ * resources were visited. Subclasses must themselves be safe to call from several threads when used with
+ * {@link org.jboss.forge.project.facets.JavaSourceFacet#visitJavaSources(JavaResourceVisitor, int)}.
+ */
+public abstract class JavaResourceCollector<T> implements JavaResourceVisitor
+{
+   private final Map<String, T> results = new TreeMap<String, T>();
+
+   /**
+    * Compute the result for the given {@link JavaResource}, or return null to leave it out of the results.
+    */
+   protected abstract T collect(final JavaResource javaResource);
+
+   @Override
+   public void visit(final JavaResource javaResource)
+   {
+      T result = collect(javaResource);
+      if (result != null)
+      {
+         synchronized (results)
+         {
+            results.put(javaResource.getFullyQualifiedName(), result);
+         }
+      }
+   }
+
+   /**
+    * Return the results collected so far, ordered by the fully qualified name of their {@link JavaResource}.
+    */
+   public List<T> getResults()
+   {
+      synchronized (results)
+      {
+         return new ArrayList<T>(results.values());
+      }
+   }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.resources.java;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.forge.parser.java.JavaSource;
+
+/**
+ * Bounded, least-recently-used cache of parsed {@link JavaSource} instances, keyed by file path. An entry is only
+ * returned while the modification time and length of its file are unchanged, and parsed sources are held through
+ * {@link SoftReference} so that they may be reclaimed under memory pressure.
+ * <p>
+ * Each entry has two independent slots: a shared instance returned by {@link #get(File)}, which may be read by many
+ * callers and must never be modified, and a spare instance stored by {@link #offer(File, long, long, JavaSource)} and
+ * handed to exactly one caller of {@link #take(File)}, which then owns it. An instance is never stored in both slots.
+ * The text of the file is also kept, so that private copies may be parsed without reading the file again.
+ */
+public class JavaSourceCache
+{
+   public static final int DEFAULT_SIZE = 64;
+
+   private final Map<String, Entry> entries;
+   private long hits;
+   private long misses;
+
+   public JavaSourceCache()
+   {
+      this(DEFAULT_SIZE);
+   }
+
+   public JavaSourceCache(final int maxSize)
+   {
+      this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true)
+      {
+         private static final long serialVersionUID = -2837615502418416032L;
+
+         @Override
+         protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest)
+         {
+            return size() > maxSize;
+         }
+      };
+   }
+
+   /**
+    * Return the shared, read-only {@link JavaSource} for the given file, or null if there is none, or if the file has
+    * changed since it was cached.
+    */
+   public synchronized JavaSource<?> get(final File file)
+   {
+      Entry entry = getEntry(file);
+      JavaSource<?> source = entry == null ? null : entry.shared.get();
+
+      if (source == null)
+         misses++;
+      else
+         hits++;
+      return source;
+   }
+
+   /**
+    * Cache the given {@link JavaSource} as the shared, read-only parsed contents of the given file, in its current
+    * state.
+    */
+   public void put(final File file, final JavaSource<?> source)
+   {
+      put(file, file.lastModified(), file.length(), source);
+   }
+
+   /**
+    * Cache the given {@link JavaSource} as the shared, read-only parsed contents of the given file, as of the given
+    * modification time and length. These should be read before parsing the file, so that concurrent changes are never
+    * attributed to the parsed contents.
+    */
+   public synchronized void put(final File file, final long lastModified, final long length, final JavaSource<?> source)
+   {
+      getEntry(file, lastModified, length).shared = new SoftReference<JavaSource<?>>(source);
+   }
+
+   /**
+    * Return the text of the given file, or null if there is none, or if the file has changed since it was cached.
+    */
+   public synchronized String getContents(final File file)
+   {
+      Entry entry = getEntry(file);
+      String contents = entry == null ? null : entry.contents.get();
+
+      if (contents == null)
+         misses++;
+      else
+         hits++;
+      return contents;
+   }
+
+   /**
+    * Cache the given text of the given file, as of the given modification time and length.
+    */
+   public synchronized void putContents(final File file, final long lastModified, final long length,
+            final String contents)
+   {
+      getEntry(file, lastModified, length).contents = new SoftReference<String>(contents);
+   }
+
+   /**
+    * Store the given {@link JavaSource}, which nobody else references, as parsed contents of the given file as of the
+    * given modification time and length, to be handed over to the next caller of {@link #take(File)}.
+    */
+   public synchronized void offer(final File file, final long lastModified, final long length,
+            final JavaSource<?> source)
+   {
+      getEntry(file, lastModified, length).spare = new SoftReference<JavaSource<?>>(source);
+   }
+
+   /**
+    * Remove and return the spare {@link JavaSource} for the given file, or null if there is none. The caller becomes
+    * the sole owner of the returned instance.
+    */
+   public synchronized JavaSource<?> take(final File file)
+   {
+      Entry entry = getEntry(file);
+      JavaSource<?> source = null;
+      if (entry != null)
+      {
+         source = entry.spare.get();
+         entry.spare = Entry.EMPTY;
+      }
+      return source;
+   }
+
+   public synchronized void invalidate(final File file)
+   {
+      entries.remove(file.getAbsolutePath());
+   }
+
+   public synchronized void clear()
+   {
+      entries.clear();
+   }
+
+   public synchronized int size()
+   {
+      return entries.size();
+   }
+
+   public synchronized long getHits()
+   {
+      return hits;
+   }
+
+   public synchronized long getMisses()
+   {
+      return misses;
+   }
+
+   /*
+    * Return the entry for the given file, dropping it if the file has changed since.
+    */
+   private Entry getEntry(final File file)
+   {
+      String key = file.getAbsolutePath();
+      Entry entry = entries.get(key);
+      if ((entry != null) && !entry.matches(file))
+      {
+         entries.remove(key);
+         entry = null;
+      }
+      return entry;
+   }
+
+   private Entry getEntry(final File file, final long lastModified, final long length)
+   {
+      String key = file.getAbsolutePath();
+      Entry entry = entries.get(key);
+      if ((entry == null) || (entry.lastModified != lastModified) || (entry.length != length))
+      {
+         entry = new Entry(lastModified, length);
+         entries.put(key, entry);
+      }
+      return entry;
+   }
+
+   private static class Entry
+   {
+      private static final SoftReference<JavaSource<?>> EMPTY = new SoftReference<JavaSource<?>>(null);
+      private static final SoftReference<String> NO_CONTENTS = new SoftReference<String>(null);
+
+      private final long lastModified;
+      private final long length;
+      private SoftReference<JavaSource<?>> shared = EMPTY;
+      private SoftReference<JavaSource<?>> spare = EMPTY;
+      private SoftReference<String> contents = NO_CONTENTS;
+
+      public Entry(final long lastModified, final long length)
+      {
+         this.lastModified = lastModified;
+         this.length = length;
+      }
+
+      public boolean matches(final File file)
+      {
+         return (lastModified != 0L) && (lastModified == file.lastModified()) && (length == file.length());
+      }
+   }
+}
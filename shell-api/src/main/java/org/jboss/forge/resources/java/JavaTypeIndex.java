@@ -0,0 +1,554 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.resources.java;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jboss.forge.ForgeEnvironment;
+import org.jboss.forge.parser.JavaParser;
+import org.jboss.forge.parser.java.JavaSource;
+import org.jboss.forge.parser.java.SourceType;
+import org.jboss.forge.project.Project;
+import org.jboss.forge.project.facets.JavaSourceFacet;
+import org.jboss.forge.resources.DirectoryResource;
+import org.jboss.forge.resources.Resource;
+import org.jboss.forge.shell.events.CommandExecuted;
+
+/**
+ * Index of the types declared in the main Java sources of each project, so that questions such as "which classes are
+ * annotated with <code>@Entity</code>" can be answered without parsing every source file.
+ * <p>
+ * The first query for a project in each command lists its source folder, and only parses the files whose
+ * modification time or length differ from the indexed ones; later queries of the same command answer from the index
+ * as it was then. A query restricted to a directory, such as a package, checks the files of that directory on every
+ * call instead, so that it also sees sources written earlier in the same command. The index of each project is
+ * persisted in the Forge configuration directory, so that it survives restarts.
+ * <p>
+ * A scan only holds the lock of the project it indexes; the types of a project are locked while they are read or
+ * updated, but not while the sources are parsed.
+ */
+@Singleton
+public class JavaTypeIndex
+{
+   public static final String INDEX_DIRECTORY = "java-type-index";
+   public static final String THREADS_PROPERTY = "forge.index.threads";
+   private static final int FORMAT_VERSION = 1;
+
+   private final Map<String, ProjectIndex> indexes = new HashMap<String, ProjectIndex>();
+
+   @Inject
+   private ForgeEnvironment environment;
+
+   public JavaTypeIndex()
+   {
+   }
+
+   public JavaTypeIndex(final ForgeEnvironment environment)
+   {
+      this.environment = environment;
+   }
+
+   /**
+    * Return all indexed types of the given {@link Project}.
+    */
+   public List<JavaTypeInfo> getTypes(final Project project)
+   {
+      List<JavaTypeInfo> result = new ArrayList<JavaTypeInfo>();
+      if (project.hasFacet(JavaSourceFacet.class))
+      {
+         ProjectIndex index = getIndex(project);
+         synchronized (index.scanLock)
+         {
+            refresh(project, index);
+         }
+         synchronized (index)
+         {
+            for (Entry entry : index.entries.values())
+            {
+               if (entry.info != null)
+               {
+                  result.add(entry.info);
+               }
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Return the indexed types of the given {@link Project} declared in the given directory of its main sources, or in
+    * any of its subdirectories. The Java files of that directory are listed, and those that changed are parsed again,
+    * on every call.
+    */
+   public List<JavaTypeInfo> getTypes(final Project project, final DirectoryResource directory)
+   {
+      List<JavaTypeInfo> result = new ArrayList<JavaTypeInfo>();
+      if (project.hasFacet(JavaSourceFacet.class))
+      {
+         ProjectIndex index = getIndex(project);
+         File dir = directory.getUnderlyingResourceObject();
+         String prefix = dir.getAbsolutePath() + File.separator;
+         if (prefix.startsWith(index.sourceFolder + File.separator))
+         {
+            Set<String> seen = new HashSet<String>();
+            synchronized (index.scanLock)
+            {
+               scan(index, dir, seen);
+               synchronized (index)
+               {
+                  for (Iterator<String> iterator = index.entries.keySet().iterator(); iterator.hasNext();)
+                  {
+                     String path = iterator.next();
+                     if (path.startsWith(prefix) && !seen.contains(path))
+                     {
+                        iterator.remove();
+                        index.modified = true;
+                     }
+                  }
+               }
+               flush(index);
+            }
+
+            synchronized (index)
+            {
+               for (String path : seen)
+               {
+                  Entry entry = index.entries.get(path);
+                  if ((entry != null) && (entry.info != null))
+                  {
+                     result.add(entry.info);
+                  }
+               }
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Return the types of the given {@link Project} annotated with the given annotation type.
+    */
+   public List<JavaTypeInfo> findAnnotatedWith(final Project project, final Class<? extends Annotation> type)
+   {
+      return findAnnotatedWith(project, type.getName());
+   }
+
+   /**
+    * Return the types of the given {@link Project} annotated with the given annotation type, given by qualified or
+    * simple name.
+    */
+   public List<JavaTypeInfo> findAnnotatedWith(final Project project, final String type)
+   {
+      List<JavaTypeInfo> result = new ArrayList<JavaTypeInfo>();
+      for (JavaTypeInfo info : getTypes(project))
+      {
+         if (info.hasAnnotation(type))
+         {
+            result.add(info);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Return the types of the given {@link Project} that directly extend or implement the given type, given by qualified
+    * or simple name.
+    */
+   public List<JavaTypeInfo> findSubtypes(final Project project, final String type)
+   {
+      List<JavaTypeInfo> result = new ArrayList<JavaTypeInfo>();
+      for (JavaTypeInfo info : getTypes(project))
+      {
+         if (info.hasSuperType(type))
+         {
+            result.add(info);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Forget all indexed types.
+    */
+   public synchronized void clear()
+   {
+      indexes.clear();
+   }
+
+   private synchronized ProjectIndex getIndex(final Project project)
+   {
+      JavaSourceFacet facet = project.getFacet(JavaSourceFacet.class);
+      String root = project.getProjectRoot().getUnderlyingResourceObject().getAbsolutePath();
+      String sourceFolder = getPath(facet.getSourceFolder());
+
+      ProjectIndex index = indexes.get(root);
+      if ((index == null) || !index.sourceFolder.equals(sourceFolder))
+      {
+         index = new ProjectIndex(root, sourceFolder);
+         load(index);
+         indexes.put(root, index);
+      }
+      return index;
+   }
+
+   /*
+    * Called with the scan lock of the index held. If the visit fails or is interrupted, the entries of the files that
+    * were not visited are kept, and the index is scanned again by the next query.
+    */
+   private void refresh(final Project project, final ProjectIndex index)
+   {
+      if (!index.scanned)
+      {
+         final Set<String> seen = new HashSet<String>();
+         project.getFacet(JavaSourceFacet.class).visitJavaSources(new JavaResourceVisitor()
+         {
+            @Override
+            public void visit(final JavaResource javaResource)
+            {
+               File file = javaResource.getUnderlyingResourceObject();
+               synchronized (seen)
+               {
+                  seen.add(file.getAbsolutePath());
+               }
+               update(index, file);
+            }
+         }, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
+         synchronized (index)
+         {
+            if (index.entries.keySet().retainAll(seen))
+            {
+               index.modified = true;
+            }
+         }
+         index.scanned = true;
+      }
+
+      flush(index);
+   }
+
+   /*
+    * Update the entries of the Java files in the given directory and its subdirectories, adding their paths to seen.
+    */
+   private void scan(final ProjectIndex index, final File directory, final Set<String> seen)
+   {
+      File[] files = directory.listFiles();
+      if (files != null)
+      {
+         for (File file : files)
+         {
+            if (file.isDirectory())
+            {
+               scan(index, file, seen);
+            }
+            else if (file.getName().endsWith(".java"))
+            {
+               seen.add(file.getAbsolutePath());
+               update(index, file);
+            }
+         }
+      }
+   }
+
+   private void flush(final ProjectIndex index)
+   {
+      synchronized (index)
+      {
+         if (index.modified)
+         {
+            store(index);
+            index.modified = false;
+         }
+      }
+   }
+
+   /*
+    * Called concurrently while scanning; the entries are only locked while they are read or written, never while a file
+    * is parsed.
+    */
+   private void update(final ProjectIndex index, final File file)
+   {
+      String path = file.getAbsolutePath();
+      long lastModified = file.lastModified();
+      long length = file.length();
+
+      Entry entry;
+      synchronized (index)
+      {
+         entry = index.entries.get(path);
+      }
+      if ((entry == null) || (entry.lastModified != lastModified) || (entry.length != length))
+      {
+         JavaTypeInfo info = null;
+         try
+         {
+            JavaSource<?> source = JavaParser.parse(file);
+            info = JavaTypeInfo.from(path, source);
+            JavaResource.getJavaSourceCache().offer(file, lastModified, length, source);
+         }
+         catch (FileNotFoundException e)
+         {
+            // deleted since it was listed
+         }
+         catch (RuntimeException e)
+         {
+            // not a parseable type; remembered as such until the file changes
+         }
+         synchronized (index)
+         {
+            index.entries.put(path, new Entry(lastModified, length, info));
+            index.modified = true;
+         }
+      }
+   }
+
+   void commandExecuted(@Observes final CommandExecuted event)
+   {
+      synchronized (this)
+      {
+         for (ProjectIndex index : indexes.values())
+         {
+            index.scanned = false;
+         }
+      }
+   }
+
+   private static String getPath(final Resource<?> resource)
+   {
+      Object underlying = resource.getUnderlyingResourceObject();
+      if (underlying instanceof File)
+      {
+         return ((File) underlying).getAbsolutePath();
+      }
+      return resource.getFullyQualifiedName();
+   }
+
+   /*
+    * Persistence
+    */
+   private void load(final ProjectIndex index)
+   {
+      File file = getIndexFile(index);
+      if ((file != null) && file.isFile())
+      {
+         try
+         {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try
+            {
+               if ((in.readInt() == FORMAT_VERSION) && in.readUTF().equals(index.root))
+               {
+                  int count = in.readInt();
+                  for (int i = 0; i < count; i++)
+                  {
+                     String path = in.readUTF();
+                     long lastModified = in.readLong();
+                     long length = in.readLong();
+                     JavaTypeInfo info = null;
+                     if (in.readBoolean())
+                     {
+                        String qualifiedName = in.readUTF();
+                        SourceType sourceType = SourceType.valueOf(in.readUTF());
+                        List<String> annotations = readList(in);
+                        String superType = in.readBoolean() ? in.readUTF() : null;
+                        List<String> interfaces = readList(in);
+                        List<String> members = readList(in);
+                        info = new JavaTypeInfo(path, qualifiedName, sourceType, annotations, superType, interfaces,
+                                 members);
+                     }
+                     index.entries.put(path, new Entry(lastModified, length, info));
+                  }
+               }
+            }
+            finally
+            {
+               in.close();
+            }
+         }
+         catch (IOException e)
+         {
+            // a corrupt index is simply rebuilt
+            index.entries.clear();
+         }
+         catch (IllegalArgumentException e)
+         {
+            index.entries.clear();
+         }
+      }
+   }
+
+   private void store(final ProjectIndex index)
+   {
+      File file = getIndexFile(index);
+      if (file != null)
+      {
+         try
+         {
+            file.getParentFile().mkdirs();
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try
+            {
+               out.writeInt(FORMAT_VERSION);
+               out.writeUTF(index.root);
+               out.writeInt(index.entries.size());
+               for (Map.Entry<String, Entry> e : index.entries.entrySet())
+               {
+                  JavaTypeInfo info = e.getValue().info;
+                  out.writeUTF(e.getKey());
+                  out.writeLong(e.getValue().lastModified);
+                  out.writeLong(e.getValue().length);
+                  out.writeBoolean(info != null);
+                  if (info != null)
+                  {
+                     out.writeUTF(info.getQualifiedName());
+                     out.writeUTF(info.getSourceType().name());
+                     writeList(out, info.getAnnotations());
+                     out.writeBoolean(info.getSuperType() != null);
+                     if (info.getSuperType() != null)
+                     {
+                        out.writeUTF(info.getSuperType());
+                     }
+                     writeList(out, info.getInterfaces());
+                     writeList(out, info.getMembers());
+                  }
+               }
+            }
+            finally
+            {
+               out.close();
+            }
+            if (!temp.renameTo(file))
+            {
+               file.delete();
+               temp.renameTo(file);
+            }
+         }
+         catch (IOException e)
+         {
+            // the index remains usable in memory
+         }
+      }
+   }
+
+   private static List<String> readList(final DataInputStream in) throws IOException
+   {
+      int size = in.readInt();
+      List<String> result = new ArrayList<String>(size);
+      for (int i = 0; i < size; i++)
+      {
+         result.add(in.readUTF());
+      }
+      return result;
+   }
+
+   private static void writeList(final DataOutputStream out, final List<String> list) throws IOException
+   {
+      out.writeInt(list.size());
+      for (String value : list)
+      {
+         out.writeUTF(value);
+      }
+   }
+
+   private File getIndexFile(final ProjectIndex index)
+   {
+      try
+      {
+         if (environment != null)
+         {
+            DirectoryResource config = environment.getConfigDirectory();
+            return new File(new File(config.getUnderlyingResourceObject(), INDEX_DIRECTORY),
+                     getIndexFileName(index.root));
+         }
+      }
+      catch (RuntimeException e)
+      {
+         // no configuration directory available, index in memory only
+      }
+      return null;
+   }
+
+   /*
+    * Named by a digest of the project root, so that no two projects share an index file.
+    */
+   static String getIndexFileName(final String root)
+   {
+      try
+      {
+         byte[] digest = MessageDigest.getInstance("SHA-1").digest(root.getBytes("UTF-8"));
+         StringBuilder result = new StringBuilder(digest.length * 2 + 4);
+         for (byte b : digest)
+         {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+         }
+         return result.append(".idx").toString();
+      }
+      catch (NoSuchAlgorithmException e)
+      {
+         throw new IllegalStateException(e);
+      }
+      catch (UnsupportedEncodingException e)
+      {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static class ProjectIndex
+   {
+      private final String root;
+      private final String sourceFolder;
+      private final Object scanLock = new Object();
+      private final Map<String, Entry> entries = new HashMap<String, Entry>();
+      private volatile boolean scanned;
+      private boolean modified;
+
+      public ProjectIndex(final String root, final String sourceFolder)
+      {
+         this.root = root;
+         this.sourceFolder = sourceFolder;
+      }
+   }
+
+   private static class Entry
+   {
+      private final long lastModified;
+      private final long length;
+      private final JavaTypeInfo info;
+
+      public Entry(final long lastModified, final long length, final JavaTypeInfo info)
+      {
+         this.lastModified = lastModified;
+         this.length = length;
+         this.info = info;
+      }
+   }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.resources.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.forge.parser.java.Annotation;
+import org.jboss.forge.parser.java.Extendable;
+import org.jboss.forge.parser.java.InterfaceCapable;
+import org.jboss.forge.parser.java.JavaSource;
+import org.jboss.forge.parser.java.Member;
+import org.jboss.forge.parser.java.SourceType;
+
+/**
+ * Summary of the top-level type declared in a Java source file, as recorded by the {@link JavaTypeIndex}: its name,
+ * kind, type annotations, direct super-types, and member names. Type names are qualified as far as the parser could
+ * resolve them through the imports of the file.
+ */
+public class JavaTypeInfo
+{
+   private final String path;
+   private final String qualifiedName;
+   private final SourceType sourceType;
+   private final List<String> annotations;
+   private final String superType;
+   private final List<String> interfaces;
+   private final List<String> members;
+
+   public JavaTypeInfo(final String path, final String qualifiedName, final SourceType sourceType,
+            final List<String> annotations, final String superType, final List<String> interfaces,
+            final List<String> members)
+   {
+      this.path = path;
+      this.qualifiedName = qualifiedName;
+      this.sourceType = sourceType;
+      this.annotations = Collections.unmodifiableList(annotations);
+      this.superType = superType;
+      this.interfaces = Collections.unmodifiableList(interfaces);
+      this.members = Collections.unmodifiableList(members);
+   }
+
+   /**
+    * Summarize the given parsed source, read from the file at the given path.
+    */
+   public static JavaTypeInfo from(final String path, final JavaSource<?> source)
+   {
+      List<String> annotations = new ArrayList<String>();
+      for (Annotation<?> annotation : source.getAnnotations())
+      {
+         annotations.add(annotation.getQualifiedName());
+      }
+
+      String superType = null;
+      if (source instanceof Extendable)
+      {
+         superType = ((Extendable<?>) source).getSuperType();
+      }
+
+      List<String> interfaces = new ArrayList<String>();
+      if (source instanceof InterfaceCapable)
+      {
+         interfaces.addAll(((InterfaceCapable<?>) source).getInterfaces());
+      }
+
+      List<String> members = new ArrayList<String>();
+      for (Member<?, ?> member : source.getMembers())
+      {
+         members.add(member.getName());
+      }
+
+      return new JavaTypeInfo(path, source.getQualifiedName(), source.getSourceType(), annotations, superType,
+               interfaces, members);
+   }
+
+   /**
+    * Return the absolute path of the source file declaring this type.
+    */
+   public String getPath()
+   {
+      return path;
+   }
+
+   public String getQualifiedName()
+   {
+      return qualifiedName;
+   }
+
+   public SourceType getSourceType()
+   {
+      return sourceType;
+   }
+
+   public List<String> getAnnotations()
+   {
+      return annotations;
+   }
+
+   /**
+    * Return the super-class of this type, or null if this type cannot extend a class.
+    */
+   public String getSuperType()
+   {
+      return superType;
+   }
+
+   public List<String> getInterfaces()
+   {
+      return interfaces;
+   }
+
+   /**
+    * Return the names of the fields and methods of this type.
+    */
+   public List<String> getMembers()
+   {
+      return members;
+   }
+
+   /**
+    * Return true if this type is annotated with the given annotation type, given by qualified or simple name.
+    */
+   public boolean hasAnnotation(final String type)
+   {
+      return matches(annotations, type);
+   }
+
+   /**
+    * Return true if this type directly extends or implements the given type, given by qualified or simple name.
+    */
+   public boolean hasSuperType(final String type)
+   {
+      return ((superType != null) && matches(Collections.singletonList(superType), type)) || matches(interfaces, type);
+   }
+
+   private static boolean matches(final List<String> names, final String type)
+   {
+      String simple = type.substring(type.lastIndexOf('.') + 1);
+      for (String name : names)
+      {
+         if (name.equals(type) || ((name.indexOf('.') < 0) && name.equals(simple))
+                  || ((type.indexOf('.') < 0) && name.endsWith("." + type)))
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public String toString()
+   {
+      return sourceType + " " + qualifiedName;
+   }
+}
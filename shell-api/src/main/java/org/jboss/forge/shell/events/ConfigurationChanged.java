@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.events;
+
+import java.io.File;
+
+import org.jboss.forge.env.Configuration;
+import org.jboss.forge.env.ConfigurationScope;
+
+/**
+ * An event that notifies observers after a {@link Configuration} file was changed by another process, and has been read
+ * again. Changes made through the {@link Configuration} of this shell do not fire this event.
+ * <p>
+ * <strong>For example:</strong>
+ * <p>
+ * <code>public void myObserver(@Observes {@link ConfigurationChanged} event)<br/>
+ * {<br/>
+ *    // do something<br/>
+ * }<br/>
+ * </code>
+ */
+public final class ConfigurationChanged
+{
+   private final ConfigurationScope scope;
+   private final File file;
+
+   public ConfigurationChanged(final ConfigurationScope scope, final File file)
+   {
+      this.scope = scope;
+      this.file = file;
+   }
+
+   /**
+    * @return the {@link ConfigurationScope} of the changed configuration
+    */
+   public ConfigurationScope getScope()
+   {
+      return scope;
+   }
+
+   /**
+    * @return the configuration file that was read again
+    */
+   public File getFile()
+   {
+      return file;
+   }
+}
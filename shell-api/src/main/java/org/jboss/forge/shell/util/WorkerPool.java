@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.shell.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of daemon worker threads shared by all of Forge, created on first use. Its threads terminate after being idle
+ * for {@value #KEEP_ALIVE_SECONDS} seconds, so the pool costs nothing between uses.
+ * <p>
+ * Work is submitted through an {@link Executor} obtained from {@link #newExecutor(int)}, which runs its tasks on at most
+ * the given number of pool threads at a time, in submission order, with a fixed context class loader. Such executors
+ * need not be shut down; tasks that should not run once their work is abandoned must check for it themselves.
+ */
+public final class WorkerPool
+{
+   public static final int KEEP_ALIVE_SECONDS = 30;
+
+   private static final AtomicInteger threadCount = new AtomicInteger();
+   private static volatile ExecutorService pool;
+
+   private WorkerPool()
+   {
+   }
+
+   /**
+    * Return an {@link Executor} running tasks on at most the given number of pool threads at a time, with the context
+    * class loader of the calling thread.
+    */
+   public static Executor newExecutor(final int parallelism)
+   {
+      return newExecutor(parallelism, Thread.currentThread().getContextClassLoader());
+   }
+
+   /**
+    * Return an {@link Executor} running tasks on at most the given number of pool threads at a time, with the given
+    * context class loader.
+    */
+   public static Executor newExecutor(final int parallelism, final ClassLoader loader)
+   {
+      return new BoundedExecutor(getPool(), Math.max(1, parallelism), loader);
+   }
+
+   private static ExecutorService getPool()
+   {
+      ExecutorService result = pool;
+      if (result == null)
+      {
+         synchronized (WorkerPool.class)
+         {
+            result = pool;
+            if (result == null)
+            {
+               pool = result = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new SynchronousQueue<Runnable>(), new ThreadFactory()
+                        {
+                           @Override
+                           public Thread newThread(final Runnable r)
+                           {
+                              Thread thread = new Thread(r, "forge-worker-" + threadCount.incrementAndGet());
+                              thread.setDaemon(true);
+                              return thread;
+                           }
+                        });
+            }
+         }
+      }
+      return result;
+   }
+
+   /*
+    * Queues its tasks, and drains them with at most the given number of pool threads.
+    */
+   private static class BoundedExecutor implements Executor
+   {
+      private final Executor pool;
+      private final int parallelism;
+      private final ClassLoader loader;
+      private final Queue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+      private final AtomicInteger workers = new AtomicInteger();
+
+      private final Runnable worker = new Runnable()
+      {
+         @Override
+         public void run()
+         {
+            Thread thread = Thread.currentThread();
+            ClassLoader previous = thread.getContextClassLoader();
+            thread.setContextClassLoader(loader);
+            try
+            {
+               Runnable task;
+               while ((task = queue.poll()) != null)
+               {
+                  task.run();
+               }
+            }
+            finally
+            {
+               thread.setContextClassLoader(previous);
+               workers.decrementAndGet();
+               // a task queued while this worker was leaving would otherwise wait for the next one
+               startWorker();
+            }
+         }
+      };
+
+      public BoundedExecutor(final Executor pool, final int parallelism, final ClassLoader loader)
+      {
+         this.pool = pool;
+         this.parallelism = parallelism;
+         this.loader = loader;
+      }
+
+      @Override
+      public void execute(final Runnable task)
+      {
+         queue.add(task);
+         startWorker();
+      }
+
+      private void startWorker()
+      {
+         while (!queue.isEmpty())
+         {
+            int current = workers.get();
+            if (current >= parallelism)
+            {
+               return;
+            }
+            if (workers.compareAndSet(current, current + 1))
+            {
+               pool.execute(worker);
+               return;
+            }
+         }
+      }
+   }
+}
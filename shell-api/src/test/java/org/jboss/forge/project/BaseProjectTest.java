@@ -9,6 +9,7 @@ package org.jboss.forge.project;
 
 import static org.junit.Assert.fail;
 
+import org.jboss.forge.project.facets.BaseFacet;
 import org.jboss.forge.resources.DirectoryResource;
 import org.junit.Assert;
 import org.junit.Test;
@@ -70,4 +71,20 @@ public class BaseProjectTest
       Assert.assertTrue(project.getFacet(MockFacet.class).isInstalled());
    }
 
+   @Test
+   public void testFacetsCanBeFoundBySupertype()
+   {
+      MockFacet facet = new MockFacet();
+      project.registerFacet(facet);
+      Assert.assertTrue(project.hasFacet(Facet.class));
+      Assert.assertTrue(project.hasFacet(BaseFacet.class));
+      Assert.assertSame(facet, project.getFacet(Facet.class));
+      Assert.assertEquals(1, project.getFacets(BaseFacet.class).size());
+      Assert.assertTrue(project.getFacets(FacetNotRegistered.class).isEmpty());
+   }
+
+   private interface FacetNotRegistered extends Facet
+   {
+   }
+
 }
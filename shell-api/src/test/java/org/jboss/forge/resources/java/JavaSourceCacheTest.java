@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.resources.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.jboss.forge.parser.java.JavaSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JavaSourceCacheTest
+{
+   private File file;
+   private JavaSourceCache cache;
+
+   @Before
+   public void setUp() throws IOException
+   {
+      file = File.createTempFile("Example", ".java");
+      write("public class Example {}");
+      cache = new JavaSourceCache(2);
+   }
+
+   @After
+   public void tearDown()
+   {
+      file.delete();
+   }
+
+   @Test
+   public void testHitsAndMisses() throws Exception
+   {
+      JavaSource<?> source = createSource();
+      assertNull(cache.get(file));
+      cache.put(file, source);
+      assertSame(source, cache.get(file));
+      assertSame(source, cache.get(file));
+
+      assertEquals(2, cache.getHits());
+      assertEquals(1, cache.getMisses());
+   }
+
+   @Test
+   public void testChangedFileIsNotReturned() throws Exception
+   {
+      cache.put(file, createSource());
+      write("public class Example { private int field; }");
+
+      assertNull(cache.get(file));
+      assertEquals(0, cache.size());
+   }
+
+   @Test
+   public void testTakeTransfersOwnership() throws Exception
+   {
+      JavaSource<?> source = createSource();
+      cache.offer(file, file.lastModified(), file.length(), source);
+
+      assertSame(source, cache.take(file));
+      assertNull(cache.take(file));
+      assertNull(cache.get(file));
+   }
+
+   @Test
+   public void testSharedSourceIsNeverHandedOver() throws Exception
+   {
+      JavaSource<?> shared = createSource();
+      JavaSource<?> spare = createSource();
+      cache.put(file, shared);
+      assertNull(cache.take(file));
+
+      cache.offer(file, file.lastModified(), file.length(), spare);
+      assertSame(spare, cache.take(file));
+      assertSame(shared, cache.get(file));
+   }
+
+   @Test
+   public void testContentsAreDroppedWhenFileChanges() throws Exception
+   {
+      cache.putContents(file, file.lastModified(), file.length(), "public class Example {}");
+      assertEquals("public class Example {}", cache.getContents(file));
+
+      write("public class Example { private int field; }");
+      assertNull(cache.getContents(file));
+   }
+
+   @Test
+   public void testLeastRecentlyUsedEntryIsEvicted() throws Exception
+   {
+      File other = File.createTempFile("Other", ".java");
+      File third = File.createTempFile("Third", ".java");
+      try
+      {
+         cache.put(file, createSource());
+         cache.put(other, createSource());
+         cache.get(file);
+         cache.put(third, createSource());
+
+         assertEquals(2, cache.size());
+         assertNull(cache.get(other));
+      }
+      finally
+      {
+         other.delete();
+         third.delete();
+      }
+   }
+
+   private void write(final String contents) throws IOException
+   {
+      FileWriter writer = new FileWriter(file);
+      try
+      {
+         writer.write(contents);
+      }
+      finally
+      {
+         writer.close();
+      }
+   }
+
+   private static JavaSource<?> createSource()
+   {
+      return (JavaSource<?>) Proxy.newProxyInstance(JavaSource.class.getClassLoader(),
+               new Class<?>[] { JavaSource.class }, new InvocationHandler()
+               {
+                  @Override
+                  public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+                  {
+                     throw new UnsupportedOperationException(method.getName());
+                  }
+               });
+   }
+}
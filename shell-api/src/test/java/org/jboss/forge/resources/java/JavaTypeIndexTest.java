@@ -0,0 +1,34 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.resources.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+public class JavaTypeIndexTest
+{
+   @Test
+   public void testIndexFileNamesOfRootsWithEqualHashCodesDiffer()
+   {
+      String first = "/home/user/Aa";
+      String second = "/home/user/BB";
+      assertEquals(first.hashCode(), second.hashCode());
+
+      assertFalse(JavaTypeIndex.getIndexFileName(first).equals(JavaTypeIndex.getIndexFileName(second)));
+   }
+
+   @Test
+   public void testIndexFileNameIsStable()
+   {
+      assertEquals(JavaTypeIndex.getIndexFileName("/home/user/project"),
+               JavaTypeIndex.getIndexFileName("/home/user/project"));
+      assertEquals(44, JavaTypeIndex.getIndexFileName("/home/user/project").length());
+   }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.resources.java;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.forge.parser.java.SourceType;
+import org.junit.Test;
+
+/**
+ * Test case for {@link JavaTypeInfo}
+ */
+public class JavaTypeInfoTest
+{
+   private final JavaTypeInfo info = new JavaTypeInfo("/tmp/Customer.java", "com.example.model.Customer",
+            SourceType.CLASS, Arrays.asList("javax.persistence.Entity", "Table"), "com.example.model.Base",
+            Arrays.asList("java.io.Serializable"), Collections.singletonList("id"));
+
+   @Test
+   public void testAnnotationsMatchQualifiedAndSimpleNames()
+   {
+      assertTrue(info.hasAnnotation("javax.persistence.Entity"));
+      assertTrue(info.hasAnnotation("Entity"));
+      assertTrue(info.hasAnnotation("javax.persistence.Table"));
+      assertFalse(info.hasAnnotation("javax.ws.rs.Path"));
+      assertFalse(info.hasAnnotation("org.example.Entity"));
+   }
+
+   @Test
+   public void testSuperTypes()
+   {
+      assertTrue(info.hasSuperType("com.example.model.Base"));
+      assertTrue(info.hasSuperType("Serializable"));
+      assertFalse(info.hasSuperType("java.lang.Object"));
+   }
+}
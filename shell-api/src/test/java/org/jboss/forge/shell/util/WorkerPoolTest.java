@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.shell.util;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WorkerPoolTest
+{
+   @Test
+   public void testTasksRunOnAtMostTheGivenNumberOfThreads() throws Exception
+   {
+      final int tasks = 20;
+      final AtomicInteger running = new AtomicInteger();
+      final AtomicInteger maxRunning = new AtomicInteger();
+      final CountDownLatch done = new CountDownLatch(tasks);
+
+      Executor executor = WorkerPool.newExecutor(3);
+      for (int i = 0; i < tasks; i++)
+      {
+         executor.execute(new Runnable()
+         {
+            @Override
+            public void run()
+            {
+               int current = running.incrementAndGet();
+               int max;
+               while ((max = maxRunning.get()) < current && !maxRunning.compareAndSet(max, current))
+               {
+               }
+               try
+               {
+                  Thread.sleep(5);
+               }
+               catch (InterruptedException e)
+               {
+                  Thread.currentThread().interrupt();
+               }
+               running.decrementAndGet();
+               done.countDown();
+            }
+         });
+      }
+
+      Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+      Assert.assertTrue(maxRunning.get() <= 3);
+   }
+
+   @Test
+   public void testTasksRunWithTheGivenContextClassLoader() throws Exception
+   {
+      final ClassLoader loader = new URLClassLoader(new URL[0]);
+      final AtomicReference<ClassLoader> seen = new AtomicReference<ClassLoader>();
+      final AtomicReference<Boolean> daemon = new AtomicReference<Boolean>();
+      final CountDownLatch done = new CountDownLatch(1);
+
+      WorkerPool.newExecutor(1, loader).execute(new Runnable()
+      {
+         @Override
+         public void run()
+         {
+            seen.set(Thread.currentThread().getContextClassLoader());
+            daemon.set(Thread.currentThread().isDaemon());
+            done.countDown();
+         }
+      });
+
+      Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+      Assert.assertSame(loader, seen.get());
+      Assert.assertTrue(daemon.get());
+   }
+
+   @Test
+   public void testFailingTaskDoesNotStopLaterTasks() throws Exception
+   {
+      final CountDownLatch done = new CountDownLatch(1);
+
+      Executor executor = WorkerPool.newExecutor(1);
+      executor.execute(new Runnable()
+      {
+         @Override
+         public void run()
+         {
+            throw new IllegalStateException("expected");
+         }
+      });
+      executor.execute(new Runnable()
+      {
+         @Override
+         public void run()
+         {
+            done.countDown();
+         }
+      });
+
+      Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+   }
+}
@@ -18,6 +18,8 @@ import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 
 import org.jboss.forge.shell.events.AcceptUserInput;
+import org.jboss.forge.shell.events.PluginInstalled;
+import org.jboss.forge.shell.events.PluginRemoved;
 import org.jboss.forge.shell.events.PostStartup;
 import org.jboss.forge.shell.events.PreStartup;
 import org.jboss.forge.shell.events.ReinitializeEnvironment;
@@ -40,6 +42,7 @@ public class Bootstrap
 
    public static final String PROP_PLUGIN_DIR = "org.jboss.forge.pluginDir";
    public static final String PROP_EVALUATE = "org.jboss.forge.evaluate";
+   public static final String PROP_SINGLE_PASS = "forge.bootstrap.singlePass";
    private static final String ARG_PLUGIN_DIR = "-pluginDir";
    private static final String ARG_EVALUATE = "-e";
 
@@ -48,6 +51,8 @@ public class Bootstrap
    private static boolean restartRequested = false;
    private static File workingDir = new File("").getAbsoluteFile();
    private static ClassLoader mainClassLoader;
+   private static boolean weldLoaded = false;
+   private static volatile CompositeClassLoader pluginClassLoader;
 
    @Inject
    private BeanManager manager;
@@ -106,23 +111,30 @@ public class Bootstrap
                Weld weld = new ModularWeld();
                BeanManager manager = null;
 
+               // resolve the plugin modules up front, so that Weld is only started once they are known
+               List<PluginEntry> plugins = getLoadablePlugins();
+
                // FIXME this plugin loading scheme causes classloading issues w/weld because weld cannot load classes
                // from its own classloaders before plugins are loaded and pollute the classpath.
                // We can work around it by loading weld before we load plugins, then restarting weld, but this is SLOW.
-               try
-               {
-                  WeldContainer container = weld.initialize();
-                  manager = container.getBeanManager();
-                  weld.shutdown();
-               }
-               catch (Exception e)
+               // This is only needed once per JVM, and only if there are plugins to pollute the classpath.
+               if (!weldLoaded && !plugins.isEmpty() && !Boolean.getBoolean(PROP_SINGLE_PASS))
                {
+                  try
+                  {
+                     WeldContainer container = weld.initialize();
+                     manager = container.getBeanManager();
+                     weld.shutdown();
+                  }
+                  catch (Exception e)
+                  {
+                  }
                }
 
                try
                {
                   // TODO verify plugin API versions. only activate compatible plugins.
-                  loadPlugins();
+                  loadPlugins(plugins);
                   WeldContainer container = weld.initialize();
                   manager = container.getBeanManager();
                }
@@ -139,6 +151,8 @@ public class Bootstrap
                   WeldContainer container = weld.initialize();
                   manager = container.getBeanManager();
                }
+               weldLoaded = true;
+
                try
                {
                   manager.fireEvent(new PreStartup());
@@ -195,11 +209,34 @@ public class Bootstrap
 
    public void observeReinitialize(@Observes final ReinitializeEnvironment event, final Shell shell)
    {
+      clearMissingClasses();
       workingDir = shell.getCurrentDirectory().getUnderlyingResourceObject();
       manager.fireEvent(new Shutdown());
       restartRequested = true;
    }
 
+   void observePluginInstalled(@Observes final PluginInstalled event)
+   {
+      clearMissingClasses();
+   }
+
+   void observePluginRemoved(@Observes final PluginRemoved event)
+   {
+      clearMissingClasses();
+   }
+
+   /*
+    * Classes looked up before the plugins changed may be found now.
+    */
+   private static void clearMissingClasses()
+   {
+      CompositeClassLoader composite = pluginClassLoader;
+      if (composite != null)
+      {
+         composite.clearMissingClasses();
+      }
+   }
+
    private static void initLogging()
    {
       String[] loggerNames = new String[] { "", "main", Logger.GLOBAL_LOGGER_NAME };
@@ -215,21 +252,17 @@ public class Bootstrap
       }
    }
 
-   synchronized private static void loadPlugins()
+   /**
+    * Return the installed plugins compatible with the running API version, reporting incompatible plugins.
+    */
+   synchronized private static List<PluginEntry> getLoadablePlugins()
    {
-
+      List<PluginEntry> toLoad = new ArrayList<PluginEntry>();
       if (!pluginSystemEnabled)
-         return;
+         return toLoad;
 
       try
       {
-         ModuleLoader moduleLoader = Module.getBootModuleLoader();
-
-         CompositeClassLoader composite = new CompositeClassLoader();
-         composite.add(Module.forClassLoader(Bootstrap.class.getClassLoader(), true).getClassLoader());
-
-         List<PluginEntry> toLoad = new ArrayList<PluginEntry>();
-
          List<PluginEntry> installed = InstalledPluginRegistry.listByAPICompatibleVersion(InstalledPluginRegistry
                   .getRuntimeAPIVersion());
 
@@ -246,6 +279,26 @@ public class Bootstrap
                               .getImplementationVersion() + "]. To remove this plugin, type 'forge remove-plugin "
                      + pluginEntry + ". Otherwise, try installing a new version of the plugin.");
          }
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+      }
+      return toLoad;
+   }
+
+   synchronized private static void loadPlugins(final List<PluginEntry> toLoad)
+   {
+
+      if (!pluginSystemEnabled)
+         return;
+
+      try
+      {
+         ModuleLoader moduleLoader = Module.getBootModuleLoader();
+
+         CompositeClassLoader composite = new CompositeClassLoader();
+         composite.add(Module.forClassLoader(Bootstrap.class.getClassLoader(), true).getClassLoader());
 
          for (PluginEntry plugin : toLoad)
          {
@@ -264,6 +317,7 @@ public class Bootstrap
          Module forge = moduleLoader.loadModule(ModuleIdentifier.fromString("org.jboss.forge:main"));
 
          composite.add(forge.getClassLoader());
+         pluginClassLoader = composite;
          Thread.currentThread().setContextClassLoader(composite);
       }
       catch (Exception e)
@@ -9,19 +9,44 @@ package org.jboss.forge.shell;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.modules.ConcurrentClassLoader;
 
+/**
+ * Delegates to a list of {@link ConcurrentClassLoader} instances. The loader that served each class is remembered so
+ * that later lookups go straight to it, and the names of classes that no loader could find are remembered (up to
+ * {@value #MAX_MISSING_CLASSES} of them) so that repeated lookups fail fast. Both are discarded whenever a loader is
+ * added; the missing classes are also discarded by {@link #clearMissingClasses()}, for when a loader may define classes
+ * it could not find before.
+ */
 public class CompositeClassLoader extends ConcurrentClassLoader
 {
-   private final List<ConcurrentClassLoader> classLoaders = Collections
-            .synchronizedList(new ArrayList<ConcurrentClassLoader>());
+   static final int MAX_MISSING_CLASSES = 4096;
+
+   private volatile ConcurrentClassLoader[] classLoaders = new ConcurrentClassLoader[0];
+
+   private final ConcurrentMap<String, ConcurrentClassLoader> classIndex =
+            new ConcurrentHashMap<String, ConcurrentClassLoader>();
+   private final Map<String, Boolean> missingClasses = new LinkedHashMap<String, Boolean>(16, 0.75f, true)
+   {
+      private static final long serialVersionUID = -8530546133329563425L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest)
+      {
+         return size() > MAX_MISSING_CLASSES;
+      }
+   };
 
    public CompositeClassLoader()
    {
@@ -31,11 +56,28 @@ public class CompositeClassLoader extends ConcurrentClassLoader
     * Add a loader to the internal List of loaders. Loaders will be used in the reverse order from which they were
     * added.
     */
-   public void add(ConcurrentClassLoader loader)
+   public synchronized void add(ConcurrentClassLoader loader)
+   {
+      if (loader != null && !Arrays.asList(classLoaders).contains(loader) && !this.equals(loader))
+      {
+         ConcurrentClassLoader[] updated = new ConcurrentClassLoader[classLoaders.length + 1];
+         updated[0] = loader;
+         System.arraycopy(classLoaders, 0, updated, 1, classLoaders.length);
+         classLoaders = updated;
+
+         classIndex.clear();
+         clearMissingClasses();
+      }
+   }
+
+   /**
+    * Forget the classes that no loader could find, so that they are looked up again.
+    */
+   public void clearMissingClasses()
    {
-      if (loader != null && !classLoaders.contains(loader) && !this.equals(loader))
+      synchronized (missingClasses)
       {
-         classLoaders.add(0, loader);
+         missingClasses.clear();
       }
    }
 
@@ -44,27 +86,59 @@ public class CompositeClassLoader extends ConcurrentClassLoader
     */
    protected List<ConcurrentClassLoader> getClassLoaders()
    {
-      return Collections.unmodifiableList(classLoaders);
+      return Collections.unmodifiableList(Arrays.asList(classLoaders));
    }
 
    @Override
    protected Class<?> findClass(String className, boolean exportsOnly, boolean resolve) throws ClassNotFoundException
    {
-      for (ConcurrentClassLoader loader : classLoaders)
+      ConcurrentClassLoader indexed = classIndex.get(className);
+      if (indexed != null)
       {
-         try
-         {
-            Class<?> found = loader.loadClass(className, resolve);
+         Class<?> found = tryLoad(indexed, className, resolve);
+         if (found != null)
             return found;
-         }
-         catch (ClassNotFoundException e)
+         classIndex.remove(className);
+      }
+
+      synchronized (missingClasses)
+      {
+         if (missingClasses.containsKey(className))
+            throw new ClassNotFoundException(className);
+      }
+
+      for (ConcurrentClassLoader loader : classLoaders)
+      {
+         if (loader != indexed)
          {
-            // I don't care yet...
+            Class<?> found = tryLoad(loader, className, resolve);
+            if (found != null)
+            {
+               classIndex.put(className, loader);
+               return found;
+            }
          }
       }
+
+      synchronized (missingClasses)
+      {
+         missingClasses.put(className, Boolean.TRUE);
+      }
       throw new ClassNotFoundException(className);
    }
 
+   private static Class<?> tryLoad(final ConcurrentClassLoader loader, final String className, final boolean resolve)
+   {
+      try
+      {
+         return loader.loadClass(className, resolve);
+      }
+      catch (ClassNotFoundException e)
+      {
+         return null;
+      }
+   }
+
    @Override
    protected URL findResource(String name, boolean exportsOnly)
    {
@@ -80,8 +154,14 @@ public class CompositeClassLoader extends ConcurrentClassLoader
    @Override
    protected Enumeration<URL> findResources(String name, boolean exportsOnly) throws IOException
    {
-      Set<URL> urls = new HashSet<URL>();
-      for (ConcurrentClassLoader loader : classLoaders)
+      ConcurrentClassLoader[] loaders = classLoaders;
+      if (loaders.length == 1)
+      {
+         return loaders[0].getResources(name);
+      }
+
+      Set<URL> urls = new LinkedHashSet<URL>();
+      for (ConcurrentClassLoader loader : loaders)
       {
          Enumeration<URL> resources = loader.getResources(name);
          while (resources.hasMoreElements())
@@ -110,6 +190,6 @@ public class CompositeClassLoader extends ConcurrentClassLoader
    @Override
    public String toString()
    {
-      return "CompositeClassLoader [classLoaders=" + classLoaders + "]";
+      return "CompositeClassLoader [classLoaders=" + Arrays.asList(classLoaders) + "]";
    }
 }
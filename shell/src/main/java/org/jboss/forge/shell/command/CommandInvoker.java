@@ -0,0 +1,154 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.command;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.jboss.forge.shell.exceptions.CommandExecutionException;
+import org.jboss.forge.shell.plugins.AliasLiteral;
+import org.jboss.forge.shell.util.Enums;
+import org.mvel2.DataConversion;
+import org.mvel2.util.ParseTools;
+
+/**
+ * Everything needed to invoke a given {@link CommandMetadata}, computed once: the resolved plugin {@link Bean}, the
+ * command {@link Method}, and the conversion to apply to each parameter.
+ */
+public class CommandInvoker
+{
+   private static final int CONVERT = 0;
+   private static final int ENUM = 1;
+   private static final int BOOLEAN = 2;
+
+   private final CommandMetadata command;
+   private final Bean<?> bean;
+   private final Method method;
+   private final Class<?>[] parameterTypes;
+   private final Class<?>[] boxedTypes;
+   private final int[] conversions;
+
+   public CommandInvoker(final BeanManager manager, final CommandMetadata command)
+   {
+      this.command = command;
+
+      Set<Bean<?>> beans = manager.getBeans(command.getParent().getType(),
+               new AliasLiteral(command.getParent().getName()));
+      this.bean = manager.resolve(beans);
+
+      this.method = command.getMethod();
+      try
+      {
+         method.setAccessible(true);
+      }
+      catch (SecurityException e)
+      {
+         // invoke with access checks
+      }
+
+      this.parameterTypes = method.getParameterTypes();
+      this.boxedTypes = new Class<?>[parameterTypes.length];
+      this.conversions = new int[parameterTypes.length];
+      for (int i = 0; i < parameterTypes.length; i++)
+      {
+         boxedTypes[i] = ParseTools.boxPrimitive(parameterTypes[i]);
+         if (parameterTypes[i].isEnum())
+         {
+            conversions[i] = ENUM;
+         }
+         else if (ParseTools.unboxPrimitive(parameterTypes[i]) == boolean.class)
+         {
+            conversions[i] = BOOLEAN;
+         }
+         else
+         {
+            conversions[i] = CONVERT;
+         }
+      }
+   }
+
+   /**
+    * Return the resolved plugin {@link Bean}, or null if none could be resolved.
+    */
+   public Bean<?> getBean()
+   {
+      return bean;
+   }
+
+   public Method getMethod()
+   {
+      return method;
+   }
+
+   /**
+    * Convert the given parsed parameter values to the types of the command method parameters.
+    */
+   public Object[] convert(final Object[] parameters)
+   {
+      Object[] result = new Object[parameters.length];
+      for (int i = 0; i < parameterTypes.length; i++)
+      {
+         try
+         {
+            Object value = parameters[i];
+            switch (conversions[i])
+            {
+            case ENUM:
+               result[i] = Enums.valueOf(parameterTypes[i], value);
+               break;
+            case BOOLEAN:
+               result[i] = convert(value, i);
+               if (result[i] == null)
+               {
+                  result[i] = false;
+               }
+               break;
+            default:
+               result[i] = convert(value, i);
+            }
+         }
+         catch (Exception e)
+         {
+            OptionMetadata option = command.getOptionByAbsoluteIndex(i);
+            String name = null;
+            if (option.isNamed())
+            {
+               name = "--" + option.getName();
+            }
+            else
+            {
+               name = "at index [" + option.getIndex() + "]";
+            }
+            throw new CommandExecutionException(command, "command option '"
+                     + name
+                     + "' must be of type '" + parameterTypes[i].getSimpleName() + "'", e);
+         }
+      }
+      return result;
+   }
+
+   private Object convert(final Object value, final int index)
+   {
+      if ((value == null) || boxedTypes[index].isInstance(value))
+      {
+         return value;
+      }
+      return DataConversion.convert(value, parameterTypes[index]);
+   }
+
+   /**
+    * Invoke the command method on the given plugin instance, with parameters already converted by
+    * {@link #convert(Object[])}.
+    */
+   public void invoke(final Object plugin, final Object[] parameters) throws Exception
+   {
+      method.invoke(plugin, parameters);
+   }
+}
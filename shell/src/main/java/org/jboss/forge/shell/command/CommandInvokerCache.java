@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.command;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jboss.forge.shell.events.PluginInstalled;
+import org.jboss.forge.shell.events.PluginRemoved;
+import org.jboss.forge.shell.events.ReinitializeEnvironment;
+
+/**
+ * Holds the {@link CommandInvoker} of each {@link CommandMetadata} that has been executed. The cache is cleared
+ * whenever the set of available plugins changes.
+ */
+@Singleton
+public class CommandInvokerCache
+{
+   private final Map<CommandMetadata, CommandInvoker> invokers = new HashMap<CommandMetadata, CommandInvoker>();
+   private final BeanManager manager;
+
+   @Inject
+   public CommandInvokerCache(final BeanManager manager)
+   {
+      this.manager = manager;
+   }
+
+   public synchronized CommandInvoker getInvoker(final CommandMetadata command)
+   {
+      CommandInvoker invoker = invokers.get(command);
+      if (invoker == null)
+      {
+         invoker = new CommandInvoker(manager, command);
+         invokers.put(command, invoker);
+      }
+      return invoker;
+   }
+
+   /**
+    * Discard all cached {@link CommandInvoker} instances.
+    */
+   public synchronized void invalidate()
+   {
+      invokers.clear();
+   }
+
+   void pluginInstalled(@Observes final PluginInstalled event)
+   {
+      invalidate();
+   }
+
+   void pluginRemoved(@Observes final PluginRemoved event)
+   {
+      invalidate();
+   }
+
+   void reinitialize(@Observes final ReinitializeEnvironment event)
+   {
+      invalidate();
+   }
+}
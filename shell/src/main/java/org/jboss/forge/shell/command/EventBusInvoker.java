@@ -6,11 +6,16 @@
  */
 package org.jboss.forge.shell.command;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.jboss.forge.bus.EventBus;
+import org.jboss.forge.shell.Shell;
+import org.jboss.forge.shell.ShellMessages;
 import org.jboss.forge.shell.events.CommandExecuted;
+import org.jboss.forge.shell.events.PreShutdown;
 
 /**
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
@@ -18,12 +23,53 @@ import org.jboss.forge.shell.events.CommandExecuted;
  */
 public class EventBusInvoker
 {
+   private static final long SHUTDOWN_FLUSH_SECONDS = 10;
+
    @Inject
    private EventBus bus;
 
+   @Inject
+   private Shell shell;
+
    @SuppressWarnings("unused")
    private void fire(@Observes final CommandExecuted event)
    {
       bus.fireAll();
+      reportFailures();
+   }
+
+   @SuppressWarnings("unused")
+   private void flush(@Observes final PreShutdown event)
+   {
+      try
+      {
+         bus.flush(SHUTDOWN_FLUSH_SECONDS, TimeUnit.SECONDS);
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+      }
+      reportFailures();
+   }
+
+   /*
+    * With asynchronous delivery, these may come from events fired after an earlier command; each is reported on one
+    * line, with its stack trace only in verbose mode.
+    */
+   private void reportFailures()
+   {
+      for (Exception e : bus.drainFailures())
+      {
+         String message = "Event observer failed: " + (e.getMessage() == null ? e.getClass().getName() : e.getMessage());
+         if (shell.isVerbose())
+         {
+            ShellMessages.warn(shell, message);
+            e.printStackTrace();
+         }
+         else
+         {
+            ShellMessages.warn(shell, message + " (type \"set VERBOSE true\" to enable stack traces)");
+         }
+      }
    }
 }
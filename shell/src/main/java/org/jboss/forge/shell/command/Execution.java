@@ -7,8 +7,6 @@
 package org.jboss.forge.shell.command;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
-import java.util.Set;
 
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.Bean;
@@ -22,12 +20,8 @@ import org.jboss.forge.shell.events.CommandExecuted;
 import org.jboss.forge.shell.events.CommandExecuted.Status;
 import org.jboss.forge.shell.events.CommandMissing;
 import org.jboss.forge.shell.exceptions.CommandExecutionException;
-import org.jboss.forge.shell.plugins.AliasLiteral;
 import org.jboss.forge.shell.plugins.PipeOut;
 import org.jboss.forge.shell.plugins.Plugin;
-import org.jboss.forge.shell.util.Enums;
-import org.mvel2.DataConversion;
-import org.mvel2.util.ParseTools;
 
 /**
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
@@ -36,17 +30,20 @@ import org.mvel2.util.ParseTools;
 public class Execution
 {
    private final BeanManager manager;
+   private final CommandInvokerCache invokers;
 
    private CommandMetadata command;
    private Object[] parameterArray;
    private String originalStatement;
 
    private boolean scriptOnly;
+   private volatile Object deferredEvent;
 
    @Inject
-   public Execution(final BeanManager manager)
+   public Execution(final BeanManager manager, final CommandInvokerCache invokers)
    {
       this.manager = manager;
+      this.invokers = invokers;
    }
 
    public void verifyConstraints(final Shell shell)
@@ -67,55 +64,26 @@ public class Execution
       }
    }
 
-   @SuppressWarnings("unchecked")
    public void perform(final PipeOut pipeOut)
+   {
+      perform(pipeOut, false);
+   }
+
+   /**
+    * Perform this execution. If <code>deferEvent</code> is true, the {@link CommandExecuted} or {@link CommandMissing}
+    * event is not fired, but kept until {@link #fireDeferredEvent()} is called; this lets a command performed on
+    * another thread (such as one feeding a pipe) have its observers notified on the shell thread.
+    */
+   @SuppressWarnings("unchecked")
+   public void perform(final PipeOut pipeOut, final boolean deferEvent)
    {
       if (command != null)
       {
          Class<? extends Plugin> pluginType = command.getParent().getType();
 
-         Set<Bean<?>> beans = manager.getBeans(pluginType, new AliasLiteral(command.getParent().getName()));
-         Bean<?> bean = manager.resolve(beans);
-
-         Method method = command.getMethod();
-
-         Class<?>[] parmTypes = method.getParameterTypes();
-         Object[] paramStaging = new Object[parameterArray.length];
-
-         for (int i = 0; i < parmTypes.length; i++)
-         {
-            try
-            {
-               if (parmTypes[i].isEnum())
-               {
-                  paramStaging[i] = Enums.valueOf(parmTypes[i], parameterArray[i]);
-               }
-               else
-               {
-                  paramStaging[i] = DataConversion.convert(parameterArray[i], parmTypes[i]);
-                  if (isBooleanOption(parmTypes[i]) && (null == paramStaging[i]))
-                  {
-                     paramStaging[i] = false;
-                  }
-               }
-            }
-            catch (Exception e)
-            {
-               OptionMetadata option = command.getOptionByAbsoluteIndex(i);
-               String name = null;
-               if (option.isNamed())
-               {
-                  name = "--" + option.getName();
-               }
-               else
-               {
-                  name = "at index [" + option.getIndex() + "]";
-               }
-               throw new CommandExecutionException(command, "command option '"
-                        + name
-                        + "' must be of type '" + parmTypes[i].getSimpleName() + "'", e);
-            }
-         }
+         CommandInvoker invoker = invokers.getInvoker(command);
+         Bean<?> bean = invoker.getBean();
+         Object[] paramStaging = invoker.convert(parameterArray);
 
          Plugin plugin;
          if (bean != null)
@@ -131,7 +99,7 @@ public class Execution
                try
                {
                   Thread.currentThread().setContextClassLoader(plugin.getClass().getClassLoader());
-                  command.getMethod().invoke(plugin, paramStaging);
+                  invoker.invoke(plugin, paramStaging);
                   status = Status.SUCCESS;
                }
                catch (Exception e)
@@ -141,22 +109,41 @@ public class Execution
                finally
                {
                   Thread.currentThread().setContextClassLoader(current);
-                  manager.fireEvent(new CommandExecuted(status, command, originalStatement, parameterArray),
-                           new Annotation[] {});
+                  fireEvent(new CommandExecuted(status, command, originalStatement, parameterArray), deferEvent);
                }
             }
          }
       }
       else
       {
-         manager.fireEvent(new CommandMissing(originalStatement, parameterArray));
+         fireEvent(new CommandMissing(originalStatement, parameterArray), deferEvent);
       }
 
    }
 
-   private static boolean isBooleanOption(final Class<?> type)
+   /**
+    * Fire the event kept by {@link #perform(PipeOut, boolean)}, if any.
+    */
+   public void fireDeferredEvent()
+   {
+      Object event = deferredEvent;
+      deferredEvent = null;
+      if (event != null)
+      {
+         manager.fireEvent(event, new Annotation[] {});
+      }
+   }
+
+   private void fireEvent(final Object event, final boolean defer)
    {
-      return ParseTools.unboxPrimitive(type) == boolean.class;
+      if (defer)
+      {
+         deferredEvent = event;
+      }
+      else
+      {
+         manager.fireEvent(event, new Annotation[] {});
+      }
    }
 
    public CommandMetadata getCommand()
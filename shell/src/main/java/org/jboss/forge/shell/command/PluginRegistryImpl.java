@@ -15,20 +15,31 @@ import java.util.Set;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jboss.forge.project.Facet;
+import org.jboss.forge.project.Project;
+import org.jboss.forge.project.facets.events.FacetInstalled;
+import org.jboss.forge.project.facets.events.FacetRemoved;
 import org.jboss.forge.project.packaging.PackagingType;
+import org.jboss.forge.project.packaging.events.PackagingChanged;
 import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.events.ResourceEvent;
 import org.jboss.forge.shell.Shell;
+import org.jboss.forge.shell.events.InitProject;
+import org.jboss.forge.shell.events.ProjectChanged;
 import org.jboss.forge.shell.plugins.Plugin;
 import org.jboss.forge.shell.plugins.RequiresResource;
 
 /**
  * Stores the current registry of all installed & loaded plugins.
+ * <p>
+ * Plugins resolved for a given name and resource scope are cached for as long as the current project remains the same,
+ * and until an event signals a change of its facets, its packaging type or its POM.
  * 
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  */
@@ -37,15 +48,20 @@ public class PluginRegistryImpl implements PluginRegistry
 {
    private Map<String, List<PluginMetadata>> plugins;
    private Map<String, Map<Class<?>, PluginMetadata>> accessCache;
+   private Map<PluginMetadata, PluginMetadata> setupViews;
+   private Project accessProject;
 
    private final CommandLibraryExtension library;
    private final BeanManager manager;
+   private final CommandInvokerCache invokers;
 
    @Inject
-   public PluginRegistryImpl(final CommandLibraryExtension library, final BeanManager manager)
+   public PluginRegistryImpl(final CommandLibraryExtension library, final BeanManager manager,
+            final CommandInvokerCache invokers)
    {
       this.library = library;
       this.manager = manager;
+      this.invokers = invokers;
    }
 
    @PostConstruct
@@ -53,6 +69,7 @@ public class PluginRegistryImpl implements PluginRegistry
    {
       plugins = library.getPlugins();
       accessCache = new HashMap<String, Map<Class<?>, PluginMetadata>>();
+      setupViews = new HashMap<PluginMetadata, PluginMetadata>();
       sanityCheck();
    }
 
@@ -71,6 +88,8 @@ public class PluginRegistryImpl implements PluginRegistry
       }
 
       plugins.get(plugin.getName()).add(plugin);
+      invalidateAccessCache();
+      invokers.invalidate();
    }
 
    @Override
@@ -122,12 +141,21 @@ public class PluginRegistryImpl implements PluginRegistry
     * match for the given constraints can be found.
     */
    @Override
-   public PluginMetadata getPluginMetadataForScopeAndConstraints(final String name, final Shell shell)
+   public synchronized PluginMetadata getPluginMetadataForScopeAndConstraints(final String name, final Shell shell)
    {
       Class<? extends Resource<?>> scope = shell.getCurrentResourceScope();
-      if (accessCache.containsKey(name) && accessCache.get(name).containsKey(scope))
+
+      Project project = shell.getCurrentProject();
+      if (project != accessProject)
+      {
+         accessCache.clear();
+         accessProject = project;
+      }
+
+      Map<Class<?>, PluginMetadata> scopes = accessCache.get(name);
+      if ((scopes != null) && scopes.containsKey(scope))
       {
-         return accessCache.get(name).get(scope);
+         return scopes.get(scope);
       }
 
       List<PluginMetadata> pluginMetadataList = plugins.get(name);
@@ -146,35 +174,93 @@ public class PluginRegistryImpl implements PluginRegistry
          }
          else if (p.isSetupAvailable(shell))
          {
-            /*
-             * Return a view of this plugin metadata, containing only the setup command.
-             */
-            PluginMetadataImpl temp = new PluginMetadataImpl();
-            temp.setName(p.getName());
-            temp.setType(p.getType());
-
-            CommandMetadata original = p.getSetupCommand();
-            CommandMetadataImpl command = new CommandMetadataImpl();
-            command.setDefault(original.isDefault());
-            command.setSetup(original.isSetup());
-            command.setHelp(original.getHelp());
-            command.setMethod(original.getMethod());
-            command.setName(original.getName());
-            command.setParent(temp);
-            for (OptionMetadata option : original.getOptions())
-            {
-               command.addOption(option);
-            }
-
-            temp.addCommand(command);
-            pmd = temp;
+            pmd = getSetupView(p);
             break;
          }
       }
 
+      if (scopes == null)
+      {
+         scopes = new HashMap<Class<?>, PluginMetadata>();
+         accessCache.put(name, scopes);
+      }
+      scopes.put(scope, pmd);
+
       return pmd;
    }
 
+   /**
+    * Return a view of the given plugin metadata, containing only the setup command.
+    */
+   private PluginMetadata getSetupView(final PluginMetadata p)
+   {
+      PluginMetadata view = setupViews.get(p);
+      if (view == null)
+      {
+         PluginMetadataImpl temp = new PluginMetadataImpl();
+         temp.setName(p.getName());
+         temp.setType(p.getType());
+
+         CommandMetadata original = p.getSetupCommand();
+         CommandMetadataImpl command = new CommandMetadataImpl();
+         command.setDefault(original.isDefault());
+         command.setSetup(original.isSetup());
+         command.setHelp(original.getHelp());
+         command.setMethod(original.getMethod());
+         command.setName(original.getName());
+         command.setParent(temp);
+         for (OptionMetadata option : original.getOptions())
+         {
+            command.addOption(option);
+         }
+
+         temp.addCommand(command);
+         view = temp;
+         setupViews.put(p, view);
+      }
+      return view;
+   }
+
+   private synchronized void invalidateAccessCache()
+   {
+      accessCache.clear();
+      accessProject = null;
+   }
+
+   void projectChanged(@Observes final ProjectChanged event)
+   {
+      invalidateAccessCache();
+   }
+
+   void initProject(@Observes final InitProject event)
+   {
+      invalidateAccessCache();
+   }
+
+   void facetInstalled(@Observes final FacetInstalled event)
+   {
+      invalidateAccessCache();
+   }
+
+   void facetRemoved(@Observes final FacetRemoved event)
+   {
+      invalidateAccessCache();
+   }
+
+   void packagingChanged(@Observes final PackagingChanged event)
+   {
+      invalidateAccessCache();
+   }
+
+   void resourceEvent(@Observes final ResourceEvent event)
+   {
+      Resource<?> resource = event.getResource();
+      if ((resource != null) && "pom.xml".equals(resource.getName()))
+      {
+         invalidateAccessCache();
+      }
+   }
+
    private void sanityCheck()
    {
       for (Map.Entry<String, List<PluginMetadata>> entry : plugins.entrySet())
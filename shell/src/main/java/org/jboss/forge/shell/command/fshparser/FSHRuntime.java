@@ -6,8 +6,12 @@
  */
 package org.jboss.forge.shell.command.fshparser;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
@@ -18,6 +22,7 @@ import org.jboss.forge.shell.command.Execution;
 import org.jboss.forge.shell.command.ExecutionParser;
 import org.jboss.forge.shell.command.PluginRegistry;
 import org.jboss.forge.shell.plugins.PipeOut;
+import org.jboss.forge.shell.util.PipeChannel;
 import org.jboss.forge.shell.util.PipeOutImpl;
 
 /**
@@ -30,28 +35,44 @@ public class FSHRuntime
    private final PluginRegistry pluginRegistry;
    private final Instance<Execution> executionInstance;
    private final ExecutionParser executionParser;
+   private final ScriptCache scriptCache;
 
    @Inject
    public FSHRuntime(Shell shell, PluginRegistry pluginRegistry,
             Instance<Execution> executionInstance,
-            ExecutionParser executionParser)
+            ExecutionParser executionParser, ScriptCache scriptCache)
    {
       this.shell = shell;
       this.pluginRegistry = pluginRegistry;
       this.executionInstance = executionInstance;
       this.executionParser = executionParser;
+      this.scriptCache = scriptCache;
    }
 
    public void run(final String str)
    {
-      run(new FSHParser(str).parse(), null);
+      run(scriptCache.parse(str), null);
    }
 
-   public void run(final Node startNode, final PipeOut forwardPipe)
+   /**
+    * Run the statements starting at the given {@link Node}. Statements piped into another statement run on a separate
+    * thread, streaming their output through a bounded {@link PipeChannel}, while the downstream statements run on the
+    * calling thread. The events signaling the completion of each command of a pipe are fired on the calling thread,
+    * in statement order, once all of its commands have completed, so that their observers never run concurrently with
+    * a command.
+    */
+   public void run(final Node startNode, final InputStream pipeIn)
+   {
+      run(startNode, pipeIn, null);
+   }
+
+   /*
+    * Executions performed while deferred is not null keep their completion events, and are added to it.
+    */
+   private void run(final Node startNode, final InputStream pipeIn, final List<Execution> deferred)
    {
       AutoReducingQueue arQueue;
       Node n = startNode;
-      PipeOut lastPipe = null;
 
       do
       {
@@ -61,13 +82,8 @@ public class FSHRuntime
          }
          else if (n instanceof PipeNode)
          {
-            if (lastPipe == null)
-            {
-               throw new RuntimeException("broken pipe");
-            }
-
-            run(((PipeNode) n).getNest(), lastPipe);
-            continue;
+            // pipes are consumed along with the statement feeding them
+            throw new RuntimeException("broken pipe");
          }
          else
          {
@@ -86,27 +102,53 @@ public class FSHRuntime
 
          if (!outQueue.isEmpty())
          {
-            PipeOut pipeOut = new PipeOutImpl(shell);
-
-            if (n.next != null && n.next instanceof PipeNode)
+            if (n.next instanceof PipeNode)
             {
+               PipeChannel channel = new PipeChannel();
+               PipeOut pipeOut = new PipeOutImpl(shell, channel);
                pipeOut.setPiped(true);
-               lastPipe = pipeOut;
-            }
 
-            Node x = n;
-            while (x instanceof LogicalStatement && (x = ((LogicalStatement) x).nest) != null)
+               Execution execution = executionParser.parse(outQueue, pipeIn, pipeOut);
+               execution.verifyConstraints(shell);
+
+               List<Execution> stages = new ArrayList<Execution>();
+               stages.add(execution);
+               PipeProducer producer = new PipeProducer(execution, pipeOut, channel);
+               producer.start();
+               try
+               {
+                  n = n.next;
+                  run(((PipeNode) n).getNest(), channel.getInputStream(), stages);
+               }
+               finally
+               {
+                  channel.closeInput();
+                  producer.await();
+                  if (deferred != null)
+                  {
+                     deferred.addAll(stages);
+                  }
+                  else
+                  {
+                     for (Execution stage : stages)
+                     {
+                        stage.fireDeferredEvent();
+                     }
+                  }
+               }
+               producer.rethrow();
+            }
+            else
             {
-               if (x instanceof ScriptNode || x.next != null)
+               PipeOut pipeOut = new PipeOutImpl(shell);
+               Execution execution = executionParser.parse(outQueue, pipeIn, pipeOut);
+               execution.verifyConstraints(shell);
+               if (deferred != null)
                {
-                  break;
+                  deferred.add(execution);
                }
+               execution.perform(pipeOut, deferred != null);
             }
-
-            String pipeIn = forwardPipe != null ? forwardPipe.getBuffer() : null;
-            Execution execution = executionParser.parse(outQueue, pipeIn, pipeOut);
-            execution.verifyConstraints(shell);
-            execution.perform(forwardPipe);
          }
       }
       while ((n = n.next) != null);
@@ -131,4 +173,85 @@ public class FSHRuntime
    {
       return executionInstance;
    }
+
+   public ScriptCache getScriptCache()
+   {
+      return scriptCache;
+   }
+
+   /**
+    * Performs a piped {@link Execution}, closing its {@link PipeChannel} once the command completes. The completion
+    * event of the execution is left for the shell thread to fire.
+    */
+   private static class PipeProducer extends Thread
+   {
+      private static final AtomicInteger count = new AtomicInteger();
+
+      private final Execution execution;
+      private final PipeOut pipeOut;
+      private final PipeChannel channel;
+      private volatile Throwable failure;
+
+      public PipeProducer(final Execution execution, final PipeOut pipeOut, final PipeChannel channel)
+      {
+         super("forge-pipe-" + count.incrementAndGet());
+         this.execution = execution;
+         this.pipeOut = pipeOut;
+         this.channel = channel;
+         setDaemon(true);
+      }
+
+      @Override
+      public void run()
+      {
+         try
+         {
+            execution.perform(pipeOut, true);
+         }
+         catch (RuntimeException e)
+         {
+            failure = e;
+         }
+         catch (Error e)
+         {
+            failure = e;
+         }
+         finally
+         {
+            channel.closeOutput();
+         }
+      }
+
+      public void await()
+      {
+         boolean interrupted = false;
+         while (isAlive())
+         {
+            try
+            {
+               join();
+            }
+            catch (InterruptedException e)
+            {
+               interrupted = true;
+            }
+         }
+         if (interrupted)
+         {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      public void rethrow()
+      {
+         if (failure instanceof RuntimeException)
+         {
+            throw (RuntimeException) failure;
+         }
+         else if (failure instanceof Error)
+         {
+            throw (Error) failure;
+         }
+      }
+   }
 }
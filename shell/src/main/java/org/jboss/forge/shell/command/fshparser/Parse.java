@@ -13,8 +13,6 @@ import java.util.Iterator;
 import java.util.Queue;
 import java.util.Set;
 
-import org.mvel2.MVEL;
-
 /**
  * @author Mike Brock .
  */
@@ -135,7 +133,7 @@ public abstract class Parse
 
       // System.out.println("\n----\n" + toExec + "\n========\n");
 
-      Object r = MVEL.eval(toExec, runtime, runtime.getShell().getEnvironment().getProperties());
+      Object r = runtime.getScriptCache().execute(toExec, runtime, runtime.getShell().getEnvironment().getProperties());
       if (r == null)
       {
          return null;
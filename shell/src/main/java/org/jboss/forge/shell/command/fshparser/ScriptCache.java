@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.command.fshparser;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.inject.Singleton;
+
+import org.mvel2.MVEL;
+
+/**
+ * Caches parsed FSH statements and compiled MVEL expressions by their source text, so that scripts and loops do not
+ * parse or compile the same text on every execution. Parsed {@link Node} trees are never modified once built, and are
+ * shared by all executions of the same statement.
+ */
+@Singleton
+public class ScriptCache
+{
+   public static final int DEFAULT_SIZE = 256;
+
+   private final Map<String, Node> statements;
+   private final Map<String, Serializable> expressions;
+
+   public ScriptCache()
+   {
+      this(DEFAULT_SIZE);
+   }
+
+   public ScriptCache(final int maxSize)
+   {
+      this.statements = new BoundedMap<Node>(maxSize);
+      this.expressions = new BoundedMap<Serializable>(maxSize);
+   }
+
+   /**
+    * Return the parsed form of the given FSH statement.
+    */
+   public Node parse(final String statement)
+   {
+      Node node;
+      synchronized (statements)
+      {
+         node = statements.get(statement);
+      }
+
+      if (node == null)
+      {
+         node = new FSHParser(statement).parse();
+         synchronized (statements)
+         {
+            statements.put(statement, node);
+         }
+      }
+      return node;
+   }
+
+   /**
+    * Return the compiled form of the given MVEL expression.
+    */
+   public Serializable compile(final String expression)
+   {
+      Serializable compiled;
+      synchronized (expressions)
+      {
+         compiled = expressions.get(expression);
+      }
+
+      if (compiled == null)
+      {
+         compiled = MVEL.compileExpression(expression);
+         synchronized (expressions)
+         {
+            expressions.put(expression, compiled);
+         }
+      }
+      return compiled;
+   }
+
+   /**
+    * Execute the given MVEL expression against the given context object and variables.
+    */
+   @SuppressWarnings("rawtypes")
+   public Object execute(final String expression, final Object context, final Map variables)
+   {
+      return MVEL.executeExpression(compile(expression), context, variables);
+   }
+
+   public void clear()
+   {
+      synchronized (statements)
+      {
+         statements.clear();
+      }
+      synchronized (expressions)
+      {
+         expressions.clear();
+      }
+   }
+
+   private static class BoundedMap<V> extends LinkedHashMap<String, V>
+   {
+      private static final long serialVersionUID = 4462043219316870962L;
+      private final int maxSize;
+
+      public BoundedMap(final int maxSize)
+      {
+         super(16, 0.75f, true);
+         this.maxSize = maxSize;
+      }
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, V> eldest)
+      {
+         return size() > maxSize;
+      }
+   }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.env;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.inject.Typed;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.commons.configuration.event.ConfigurationEvent;
+import org.apache.commons.configuration.event.ConfigurationListener;
+import org.jboss.forge.env.ConfigurationException;
+import org.jboss.forge.shell.util.Streams;
+
+/**
+ * An XML configuration file, held in memory and written back lazily. Changes only mark the configuration as modified
+ * (the {@link XMLConfiguration} notifies this file of each change) and are written by {@link #flush()}, which replaces
+ * the file atomically. The file is read again by {@link #refresh()}, and only if another process changed it since it
+ * was last read or written; pending changes made in this process always win. A {@link Listener} is told whenever
+ * the configuration becomes modified, so that its owner knows which files need writing.
+ */
+@Typed()
+public class ConfigurationFile implements ConfigurationListener
+{
+   private static final String ENCODING = "UTF-8";
+
+   private final File file;
+   private final XMLConfiguration configuration;
+   private final boolean parentExisted;
+   private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+   private volatile boolean modified;
+   private boolean loading;
+   private long lastModified;
+   private long length;
+
+   public ConfigurationFile(final File file) throws ConfigurationException
+   {
+      this.file = file;
+      this.parentExisted = file.getAbsoluteFile().getParentFile().isDirectory();
+      this.configuration = new XMLConfiguration();
+      configuration.setEncoding(ENCODING);
+      configuration.setFile(file);
+      configuration.addConfigurationListener(this);
+      load();
+   }
+
+   public File getFile()
+   {
+      return file;
+   }
+
+   public XMLConfiguration getConfiguration()
+   {
+      return configuration;
+   }
+
+   public void addListener(final Listener listener)
+   {
+      listeners.add(listener);
+   }
+
+   public void removeListener(final Listener listener)
+   {
+      listeners.remove(listener);
+   }
+
+   /**
+    * Return true if this configuration was changed since it was last written.
+    */
+   public boolean isModified()
+   {
+      return modified;
+   }
+
+   /**
+    * Write this configuration to its file, if it was changed since it was last written.
+    */
+   public synchronized void flush() throws ConfigurationException
+   {
+      if (!modified)
+      {
+         return;
+      }
+
+      File parent = file.getAbsoluteFile().getParentFile();
+      if (!parent.isDirectory())
+      {
+         if (parentExisted)
+         {
+            // the directory (typically a project) was deleted since; do not bring it back
+            modified = false;
+            return;
+         }
+         parent.mkdirs();
+      }
+      File temp = new File(parent, file.getName() + ".tmp");
+      OutputStream out = null;
+      try
+      {
+         modified = false;
+         out = new BufferedOutputStream(new FileOutputStream(temp));
+         configuration.save(out, ENCODING);
+         out.close();
+         out = null;
+
+         if (!temp.renameTo(file))
+         {
+            file.delete();
+            if (!temp.renameTo(file))
+            {
+               throw new IOException("Could not replace configuration file [" + file + "]");
+            }
+         }
+         stamp();
+      }
+      catch (IOException e)
+      {
+         modified = true;
+         throw new ConfigurationException(e);
+      }
+      catch (org.apache.commons.configuration.ConfigurationException e)
+      {
+         modified = true;
+         throw new ConfigurationException(e);
+      }
+      finally
+      {
+         Streams.closeQuietly(out);
+         temp.delete();
+      }
+   }
+
+   /**
+    * Read this configuration again if its file was changed by another process, and it has no pending changes. Return
+    * true if it was read again.
+    */
+   public synchronized boolean refresh() throws ConfigurationException
+   {
+      if (!modified && ((file.lastModified() != lastModified) || (file.length() != length)))
+      {
+         load();
+         return true;
+      }
+      return false;
+   }
+
+   private void load() throws ConfigurationException
+   {
+      loading = true;
+      try
+      {
+         configuration.clear();
+         if (file.isFile())
+         {
+            configuration.load(file);
+         }
+         stamp();
+      }
+      catch (org.apache.commons.configuration.ConfigurationException e)
+      {
+         throw new ConfigurationException(e);
+      }
+      finally
+      {
+         loading = false;
+      }
+   }
+
+   private void stamp()
+   {
+      lastModified = file.lastModified();
+      length = file.length();
+   }
+
+   @Override
+   public void configurationChanged(final ConfigurationEvent event)
+   {
+      if (!event.isBeforeUpdate() && !loading && !modified)
+      {
+         modified = true;
+         for (Listener listener : listeners)
+         {
+            listener.modified(this);
+         }
+      }
+   }
+
+   /**
+    * Notified when a {@link ConfigurationFile} is changed after it was last read or written.
+    */
+   public interface Listener
+   {
+      void modified(ConfigurationFile file);
+   }
+}
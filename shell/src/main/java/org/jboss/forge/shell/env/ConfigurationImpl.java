@@ -6,12 +6,19 @@
  */
 package org.jboss.forge.shell.env;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 
-import org.apache.commons.configuration.XMLConfiguration;
-import org.apache.commons.configuration.reloading.FileChangedReloadingStrategy;
 import org.jboss.forge.ForgeEnvironment;
 import org.jboss.forge.env.Configuration;
 import org.jboss.forge.env.ConfigurationException;
@@ -19,17 +26,50 @@ import org.jboss.forge.env.ConfigurationScope;
 import org.jboss.forge.project.Project;
 import org.jboss.forge.resources.FileResource;
 import org.jboss.forge.shell.Shell;
+import org.jboss.forge.shell.ShellMessages;
+import org.jboss.forge.shell.events.CommandExecuted;
+import org.jboss.forge.shell.events.ConfigurationChanged;
+import org.jboss.forge.shell.events.PreShutdown;
+import org.jboss.forge.shell.events.ProjectChanged;
 import org.jboss.forge.shell.squelch.ConfigAdapterQualifierLiteral;
 import org.jboss.forge.shell.util.BeanManagerUtils;
 import org.jboss.solder.unwraps.Unwraps;
 
 /**
+ * Provides the user and project {@link Configuration}. Each configuration file is read once and kept in memory; changes
+ * are written back when a command completes and when the shell shuts down, rather than on every change.
+ * <p>
+ * Only the files in use are kept: the user configuration, and the settings of the current project. The settings of a
+ * project the shell has left are written and dropped. When a command completes, the files in use are read again if
+ * another process changed them, and a {@link ConfigurationChanged} event is fired for each; Java 6 offers no file
+ * change notification, so this costs one file status check per file in use.
+ *
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  * 
  */
 @ApplicationScoped
 public class ConfigurationImpl
 {
+   private final Map<File, ConfigurationFile> files = new LinkedHashMap<File, ConfigurationFile>();
+
+   /*
+    * A configuration still referenced after its file was dropped may be changed again; keep it until it is written.
+    */
+   private final ConfigurationFile.Listener modifiedListener = new ConfigurationFile.Listener()
+   {
+      @Override
+      public void modified(final ConfigurationFile file)
+      {
+         synchronized (ConfigurationImpl.this)
+         {
+            if (!files.containsKey(file.getFile()))
+            {
+               files.put(file.getFile(), file);
+            }
+         }
+      }
+   };
+
    private Shell shell;
    private ForgeEnvironment environment;
    private ScopedConfigurationAdapter userConfig;
@@ -58,23 +98,12 @@ public class ConfigurationImpl
       {
          currentProject = project;
          ScopedConfigurationAdapter projectConfig = new ScopedConfigurationAdapter();
-         XMLConfiguration projectLocalConfig;
-         try
-         {
-            projectLocalConfig = new XMLConfiguration(getProjectSettings(project).getUnderlyingResourceObject());
-            projectLocalConfig.setEncoding("UTF-8");
-         }
-         catch (org.apache.commons.configuration.ConfigurationException e)
-         {
-            throw new ConfigurationException(e);
-         }
-         projectLocalConfig.setReloadingStrategy(new FileChangedReloadingStrategy());
-         projectLocalConfig.setAutoSave(true);
+         ConfigurationFile projectLocalConfig = getFile(getProjectSettings(project).getUnderlyingResourceObject());
 
          ConfigurationAdapter adapter = BeanManagerUtils.getContextualInstance(bm, ConfigurationAdapter.class,
                   new ConfigAdapterQualifierLiteral());
          adapter.setParent(projectConfig);
-         adapter.setDelegate(projectLocalConfig);
+         adapter.setDelegate(projectLocalConfig.getConfiguration());
          adapter.setBeanManager(bm);
          projectConfig.setScopedConfiguration(ConfigurationScope.PROJECT, adapter);
          projectConfig.setScopedConfiguration(ConfigurationScope.USER, getUserConfig());
@@ -94,22 +123,11 @@ public class ConfigurationImpl
       // FIXME NPE caused when no project exists because config param is null
       if (userConfig == null)
       {
-         XMLConfiguration globalXml;
-         try
-         {
-            globalXml = new XMLConfiguration(environment.getUserConfiguration().getUnderlyingResourceObject());
-            globalXml.setEncoding("UTF-8");
-         }
-         catch (org.apache.commons.configuration.ConfigurationException e)
-         {
-            throw new ConfigurationException(e);
-         }
-         globalXml.setReloadingStrategy(new FileChangedReloadingStrategy());
-         globalXml.setAutoSave(true);
+         ConfigurationFile globalXml = getFile(environment.getUserConfiguration().getUnderlyingResourceObject());
 
          ConfigurationAdapter adapter = BeanManagerUtils.getContextualInstance(bm, ConfigurationAdapter.class,
                   new ConfigAdapterQualifierLiteral());
-         adapter.setDelegate(globalXml);
+         adapter.setDelegate(globalXml.getConfiguration());
          adapter.setBeanManager(bm);
          userConfig = new ScopedConfigurationAdapter(ConfigurationScope.USER, adapter);
       }
@@ -121,4 +139,154 @@ public class ConfigurationImpl
       FileResource<?> settingsFile = project.getProjectRoot().getChild(".forge_settings").reify(FileResource.class);
       return settingsFile;
    }
+
+   private synchronized ConfigurationFile getFile(final File file) throws ConfigurationException
+   {
+      File key = file.getAbsoluteFile();
+      ConfigurationFile result = files.get(key);
+      if (result == null)
+      {
+         result = new ConfigurationFile(key);
+         result.addListener(modifiedListener);
+         files.put(key, result);
+      }
+      return result;
+   }
+
+   /**
+    * Write all changed configuration files.
+    */
+   public synchronized void flush() throws ConfigurationException
+   {
+      ConfigurationException failure = null;
+      for (ConfigurationFile file : files.values())
+      {
+         try
+         {
+            file.flush();
+         }
+         catch (ConfigurationException e)
+         {
+            failure = e;
+         }
+      }
+      if (failure != null)
+      {
+         throw failure;
+      }
+   }
+
+   void commandExecuted(@Observes final CommandExecuted event)
+   {
+      flushAndWarn();
+      List<ConfigurationChanged> changes = new ArrayList<ConfigurationChanged>();
+      synchronized (this)
+      {
+         File userFile = getUserFile();
+         File projectFile = getProjectFile(shell.getCurrentProject());
+         for (Iterator<ConfigurationFile> iterator = files.values().iterator(); iterator.hasNext();)
+         {
+            ConfigurationFile file = iterator.next();
+            boolean user = file.getFile().equals(userFile);
+            if (!user && !file.getFile().equals(projectFile))
+            {
+               if (!file.isModified())
+               {
+                  iterator.remove();
+               }
+               continue;
+            }
+            try
+            {
+               if (file.refresh())
+               {
+                  changes.add(new ConfigurationChanged(user ? ConfigurationScope.USER : ConfigurationScope.PROJECT,
+                           file.getFile()));
+               }
+            }
+            catch (ConfigurationException e)
+            {
+               // keep the configuration read earlier
+            }
+         }
+      }
+      for (ConfigurationChanged change : changes)
+      {
+         bm.fireEvent(change);
+      }
+   }
+
+   void projectChanged(@Observes final ProjectChanged event)
+   {
+      File oldFile = getProjectFile(event.getOldProject());
+      if ((oldFile == null) || oldFile.equals(getProjectFile(event.getNewProject())))
+      {
+         return;
+      }
+      synchronized (this)
+      {
+         ConfigurationFile file = files.remove(oldFile);
+         if (file != null)
+         {
+            try
+            {
+               file.flush();
+            }
+            catch (ConfigurationException e)
+            {
+               files.put(oldFile, file);
+               ShellMessages.warn(shell, "Could not save configuration: " + e.getMessage());
+            }
+         }
+         if (event.getOldProject().equals(currentProject))
+         {
+            currentProject = null;
+            projectConfig = null;
+         }
+      }
+   }
+
+   void preShutdown(@Observes final PreShutdown event)
+   {
+      flushAndWarn();
+   }
+
+   @PreDestroy
+   void destroy()
+   {
+      try
+      {
+         flush();
+      }
+      catch (ConfigurationException e)
+      {
+         // nowhere left to report this
+      }
+   }
+
+   private File getUserFile()
+   {
+      return environment.getUserConfiguration().getUnderlyingResourceObject().getAbsoluteFile();
+   }
+
+   private File getProjectFile(final Project project)
+   {
+      if (project == null)
+      {
+         return null;
+      }
+      return getProjectSettings(project).getUnderlyingResourceObject().getAbsoluteFile();
+   }
+
+   private void flushAndWarn()
+   {
+      try
+      {
+         flush();
+      }
+      catch (ConfigurationException e)
+      {
+         ShellMessages.warn(shell, "Could not save configuration: " + e.getMessage());
+      }
+   }
 }
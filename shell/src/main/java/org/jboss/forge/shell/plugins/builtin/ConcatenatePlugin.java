@@ -8,6 +8,9 @@ package org.jboss.forge.shell.plugins.builtin;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 
 import org.jboss.forge.resources.Resource;
 import org.jboss.forge.shell.plugins.Alias;
@@ -18,6 +21,7 @@ import org.jboss.forge.shell.plugins.PipeIn;
 import org.jboss.forge.shell.plugins.PipeOut;
 import org.jboss.forge.shell.plugins.Plugin;
 import org.jboss.forge.shell.plugins.Topic;
+import org.jboss.forge.shell.util.PipeChannel;
 import org.jboss.forge.shell.util.Streams;
 
 /**
@@ -28,6 +32,8 @@ import org.jboss.forge.shell.util.Streams;
 @Help("Concatenate and print files")
 public class ConcatenatePlugin implements Plugin
 {
+   private static final int BUFFER_SIZE = 0x10000;
+
    @DefaultCommand
    public void run(
             @PipeIn final InputStream in, // pipe in
@@ -35,10 +41,10 @@ public class ConcatenatePlugin implements Plugin
             final PipeOut out // pipe out
    ) throws IOException
    {
-      String lastBuf = null;
+      int last = -1;
       if (in != null)
       {
-         lastBuf = writeOutToConsole(in, out);
+         last = writeOutToConsole(new InputStreamReader(in, PipeChannel.ENCODING), out, last);
       }
 
       if (paths != null)
@@ -52,7 +58,7 @@ public class ConcatenatePlugin implements Plugin
                is = res.getResourceInputStream();
                if (is != null)
                {
-                  lastBuf = writeOutToConsole(is, out);
+                  last = writeOutToConsole(new InputStreamReader(is, Charset.defaultCharset()), out, last);
                }
             }
             finally
@@ -62,23 +68,28 @@ public class ConcatenatePlugin implements Plugin
          }
       }
 
-      if (lastBuf == null || lastBuf.charAt(lastBuf.length() - 1) != '\n')
+      if (last != '\n')
       {
          out.println();
       }
    }
 
-   private static String writeOutToConsole(InputStream istream, PipeOut out) throws IOException
+   /**
+    * Copy the given reader to the output, and return the last character written (or the given last character if the
+    * reader was empty.)
+    */
+   private static int writeOutToConsole(Reader reader, PipeOut out, int last) throws IOException
    {
-      byte[] buf = new byte[10];
+      char[] buf = new char[BUFFER_SIZE];
       int read;
-      String s = null;
-      while ((read = istream.read(buf)) != -1)
+      while ((read = reader.read(buf)) != -1)
       {
-         out.print(s = new String(buf, 0, read));
+         if (read > 0)
+         {
+            out.print(new String(buf, 0, read));
+            last = buf[read - 1];
+         }
       }
-
-      return s;
-
+      return last;
    }
 }
@@ -6,10 +6,16 @@
  */
 package org.jboss.forge.shell.plugins.builtin;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.List;
+import java.util.regex.Pattern;
 
+import org.jboss.forge.git.gitignore.GitIgnoreMatcher;
+import org.jboss.forge.resources.FileResource;
 import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.ResourceFilter;
+import org.jboss.forge.resources.ResourceFlag;
+import org.jboss.forge.shell.exceptions.ShellExecutionException;
 import org.jboss.forge.shell.plugins.Alias;
 import org.jboss.forge.shell.plugins.DefaultCommand;
 import org.jboss.forge.shell.plugins.Help;
@@ -17,6 +23,7 @@ import org.jboss.forge.shell.plugins.Option;
 import org.jboss.forge.shell.plugins.PipeOut;
 import org.jboss.forge.shell.plugins.Plugin;
 import org.jboss.forge.shell.plugins.Topic;
+import org.jboss.forge.shell.util.ResourceTreeWalker;
 
 /**
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
@@ -30,22 +37,91 @@ public class FindPlugin implements Plugin
    public void run(
             @Option(description = "The starting resource to be listed",
                      defaultValue = ".") final Resource<?> r,
-            PipeOut out)
+            @Option(name = "name", help = "only list resources whose name matches this pattern (* and ? wildcards)") final String name,
+            @Option(name = "type", help = "only list resources of this type: 'd' for directories, 'f' for anything else") final String type,
+            @Option(name = "gitignore", help = "skip resources ignored by .gitignore files", flagOnly = true) final boolean gitignore,
+            @Option(name = "unordered", help = "list resources as soon as they are found, in no particular order", flagOnly = true) final boolean unordered,
+            final PipeOut out)
             throws IOException
    {
-      listResources(out, r);
+      if ((type != null) && !"d".equals(type) && !"f".equals(type))
+      {
+         throw new ShellExecutionException("unknown type '" + type + "', expected 'd' or 'f'");
+      }
+
+      ResourceTreeWalker walker = new ResourceTreeWalker();
+      if ((name != null) || (type != null))
+      {
+         walker.accept(new NameAndTypeFilter(name, type));
+      }
+      if (gitignore)
+      {
+         walker.prune(new GitIgnoreFilter());
+      }
+      if (unordered)
+      {
+         walker.unordered();
+      }
+
+      walker.walk(r, new ResourceTreeWalker.Visitor()
+      {
+         @Override
+         public void visit(final Resource<?> resource)
+         {
+            out.println(resource.getFullyQualifiedName());
+         }
+      });
+   }
+
+   private static class NameAndTypeFilter implements ResourceFilter
+   {
+      private final Pattern name;
+      private final String type;
+
+      public NameAndTypeFilter(final String name, final String type)
+      {
+         this.name = name == null ? null : Pattern.compile(wildcardToRegEx(name));
+         this.type = type;
+      }
+
+      @Override
+      public boolean accept(final Resource<?> resource)
+      {
+         if (type != null && "d".equals(type) != resource.isFlagSet(ResourceFlag.Node))
+         {
+            return false;
+         }
+         return (name == null) || name.matcher(resource.getName()).matches();
+      }
+
+      private static String wildcardToRegEx(final String wildcard)
+      {
+         StringBuilder result = new StringBuilder();
+         for (String part : wildcard.split("((?<=[*?])|(?=[*?]))"))
+         {
+            if ("*".equals(part))
+               result.append(".*");
+            else if ("?".equals(part))
+               result.append('.');
+            else if (part.length() > 0)
+               result.append(Pattern.quote(part));
+         }
+         return result.toString();
+      }
    }
 
-   private void listResources(PipeOut out, Resource<?> r)
+   private static class GitIgnoreFilter implements ResourceFilter
    {
-      List<Resource<?>> list = r.listResources();
-      out.println(r.getFullyQualifiedName());
-      if (list != null && !list.isEmpty())
+      private final GitIgnoreMatcher matcher = new GitIgnoreMatcher();
+
+      @Override
+      public boolean accept(final Resource<?> resource)
       {
-         for (Resource<?> resource : list)
+         if (resource instanceof FileResource<?>)
          {
-            listResources(out, resource);
+            return matcher.isIgnored((File) resource.getUnderlyingResourceObject());
          }
+         return false;
       }
    }
 }
@@ -6,11 +6,16 @@
  */
 package org.jboss.forge.shell.plugins.builtin;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+import org.jboss.forge.resources.FileResource;
 import org.jboss.forge.resources.Resource;
 import org.jboss.forge.resources.ResourceFlag;
 import org.jboss.forge.shell.plugins.Alias;
@@ -30,6 +35,10 @@ import org.jboss.forge.shell.plugins.Topic;
 @Help("calculate a hash for the specified resource")
 public class FingerprintPlugin implements Plugin
 {
+   private static final int BUFFER_SIZE = 0x10000;
+   private static final long MAP_THRESHOLD = 0x100000;
+   private static final long MAP_REGION = 0x4000000;
+
    @DefaultCommand
    public void run(
             @PipeIn final InputStream pipeIn,
@@ -62,6 +71,12 @@ public class FingerprintPlugin implements Plugin
                   continue;
 
                names.append(r.getName()).append(" ");
+               if (r instanceof FileResource)
+               {
+                  fingerprint(((FileResource<?>) r).getUnderlyingResourceObject(), md);
+                  continue;
+               }
+
                try
                {
                   fingerprint(inputStream = r.getResourceInputStream(), md);
@@ -97,10 +112,41 @@ public class FingerprintPlugin implements Plugin
 
    private void fingerprint(InputStream instream, MessageDigest md) throws IOException
    {
-      byte b;
-      while ((b = (byte) instream.read()) != -1)
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = instream.read(buffer)) != -1)
+      {
+         md.update(buffer, 0, read);
+      }
+   }
+
+   /**
+    * Large files are digested through memory-mapped regions of the file, small ones through a buffered stream.
+    */
+   private void fingerprint(File file, MessageDigest md) throws IOException
+   {
+      FileInputStream instream = new FileInputStream(file);
+      try
+      {
+         FileChannel channel = instream.getChannel();
+         long size = channel.size();
+         if (size < MAP_THRESHOLD)
+         {
+            fingerprint(instream, md);
+         }
+         else
+         {
+            for (long position = 0; position < size; position += MAP_REGION)
+            {
+               MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_REGION, size - position));
+               md.update(region);
+            }
+         }
+      }
+      finally
       {
-         md.update(b);
+         instream.close();
       }
    }
 }
@@ -6,8 +6,13 @@
  */
 package org.jboss.forge.shell.plugins.builtin;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.jboss.forge.resources.Resource;
@@ -19,7 +24,7 @@ import org.jboss.forge.shell.plugins.PipeIn;
 import org.jboss.forge.shell.plugins.PipeOut;
 import org.jboss.forge.shell.plugins.Plugin;
 import org.jboss.forge.shell.plugins.Topic;
-import org.mvel2.util.StringAppender;
+import org.jboss.forge.shell.util.PipeChannel;
 
 /**
  * A simple port of the Unix grep command.
@@ -31,6 +36,8 @@ import org.mvel2.util.StringAppender;
 @Help("print lines matching a pattern")
 public class GrepPlugin implements Plugin
 {
+   private static final int BUFFER_SIZE = 0x10000;
+
    @DefaultCommand
    public void run(
             @PipeIn final InputStream pipeIn,
@@ -41,14 +48,13 @@ public class GrepPlugin implements Plugin
             final PipeOut pipeOut
             ) throws IOException
    {
+      int flags = ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
       Pattern matchPattern;
+      boolean wholeLine;
       if (regExp != null)
       {
-         if (ignoreCase)
-         {
-            regExp = regExp.toLowerCase();
-         }
-         matchPattern = Pattern.compile(regExp);
+         matchPattern = Pattern.compile(regExp, flags);
+         wholeLine = true;
       }
       else if (pattern == null)
       {
@@ -56,11 +62,8 @@ public class GrepPlugin implements Plugin
       }
       else
       {
-         if (ignoreCase)
-         {
-            pattern = pattern.toLowerCase();
-         }
-         matchPattern = Pattern.compile(".*" + pattern + ".*");
+         matchPattern = Pattern.compile(pattern, flags);
+         wholeLine = false;
       }
 
       if (resources != null)
@@ -70,7 +73,7 @@ public class GrepPlugin implements Plugin
             InputStream inputStream = r.getResourceInputStream();
             try
             {
-               match(inputStream, matchPattern, pipeOut, ignoreCase);
+               match(new InputStreamReader(inputStream, Charset.defaultCharset()), matchPattern, wholeLine, pipeOut);
             }
             finally
             {
@@ -80,7 +83,7 @@ public class GrepPlugin implements Plugin
       }
       else if (pipeIn != null)
       {
-         match(pipeIn, matchPattern, pipeOut, ignoreCase);
+         match(new InputStreamReader(pipeIn, PipeChannel.ENCODING), matchPattern, wholeLine, pipeOut);
       }
       else
       {
@@ -88,28 +91,21 @@ public class GrepPlugin implements Plugin
       }
    }
 
-   private void match(InputStream instream, Pattern pattern, PipeOut out, boolean caseInsensitive) throws IOException
+   /**
+    * Print the lines read from the given reader that match the pattern; a single {@link Matcher} is reset for each line.
+    */
+   private void match(Reader in, Pattern pattern, boolean wholeLine, PipeOut out) throws IOException
    {
-      StringAppender buf = new StringAppender();
+      BufferedReader reader = new BufferedReader(in, BUFFER_SIZE);
+      Matcher matcher = pattern.matcher("");
 
-      int c;
-      while ((c = instream.read()) != -1)
+      String line;
+      while ((line = reader.readLine()) != null)
       {
-         switch (c)
+         matcher.reset(line);
+         if (wholeLine ? matcher.matches() : matcher.find())
          {
-         case '\r':
-         case '\n':
-            String s = caseInsensitive ? buf.toString().toLowerCase() : buf.toString();
-
-            if (pattern.matcher(s).matches())
-            {
-               out.println(s);
-            }
-            buf.reset();
-            break;
-         default:
-            buf.append((char) c);
-            break;
+            out.println(line);
          }
       }
    }
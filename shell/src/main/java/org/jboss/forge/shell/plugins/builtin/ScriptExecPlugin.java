@@ -7,11 +7,11 @@
 package org.jboss.forge.shell.plugins.builtin;
 
 import static java.lang.String.valueOf;
-import static org.mvel2.MVEL.eval;
 
 import javax.inject.Inject;
 
 import org.jboss.forge.shell.Shell;
+import org.jboss.forge.shell.command.fshparser.ScriptCache;
 import org.jboss.forge.shell.plugins.Alias;
 import org.jboss.forge.shell.plugins.DefaultCommand;
 import org.jboss.forge.shell.plugins.Help;
@@ -29,11 +29,13 @@ import org.mvel2.util.StringAppender;
 public class ScriptExecPlugin implements Plugin
 {
    private final Shell shell;
+   private final ScriptCache scriptCache;
 
    @Inject
-   public ScriptExecPlugin(final Shell shell)
+   public ScriptExecPlugin(final Shell shell, final ScriptCache scriptCache)
    {
       this.shell = shell;
+      this.scriptCache = scriptCache;
    }
 
    @DefaultCommand
@@ -45,7 +47,8 @@ public class ScriptExecPlugin implements Plugin
          appender.append(s);
       }
 
-      Object retVal = eval(appender.toString(), new ScriptContext(), shell.getEnvironment().getProperties());
+      Object retVal = scriptCache.execute(appender.toString(), new ScriptContext(),
+               shell.getEnvironment().getProperties());
 
       if (retVal != null)
       {
@@ -100,7 +100,7 @@ public class WordCountPlugin implements Plugin
    private static Results count(InputStream stream, boolean lines, boolean words, boolean chars)
             throws IOException
    {
-      byte[] buffer = new byte[1024];
+      byte[] buffer = new byte[0x10000];
       int read;
 
       Results res = new Results();
@@ -15,6 +15,7 @@ import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.jboss.forge.maven.MavenPluginFacet;
+import org.jboss.forge.maven.dependencies.RepositoryLookup;
 import org.jboss.forge.parser.java.util.Strings;
 import org.jboss.forge.project.Facet;
 import org.jboss.forge.project.Project;
@@ -64,6 +65,7 @@ public class ProjectPlugin implements Plugin
    private Event<InstallFacets> installFacets;
    private Event<RemoveFacets> removeFacets;
    private DependencyInstaller dependencyInstaller;
+   private RepositoryLookup lookup;
 
    public ProjectPlugin()
    {
@@ -72,7 +74,7 @@ public class ProjectPlugin implements Plugin
    @Inject
    public ProjectPlugin(final Project project, final Shell shell, final FacetFactory factory,
             final Event<InstallFacets> installFacets, final Event<RemoveFacets> removeFacets,
-            final DependencyInstaller installer)
+            final DependencyInstaller installer, final RepositoryLookup lookup)
    {
       this.project = project;
       this.shell = shell;
@@ -80,6 +82,7 @@ public class ProjectPlugin implements Plugin
       this.installFacets = installFacets;
       this.removeFacets = removeFacets;
       this.dependencyInstaller = installer;
+      this.lookup = lookup;
    }
 
    @DefaultCommand
@@ -173,9 +176,19 @@ public class ProjectPlugin implements Plugin
                      description = "[ groupId:artifactId {:version:scope:packaging} ]",
                      type = PromptType.DEPENDENCY_ID
             ) Dependency gav,
+            @Option(required = false,
+                     flagOnly = true,
+                     help = "Discard cached search results and consult the repositories again",
+                     name = "refresh"
+            ) final boolean refresh,
             final PipeOut out
             )
    {
+      if (refresh)
+      {
+         lookup.refresh();
+      }
+
       DependencyFacet deps = project.getFacet(DependencyFacet.class);
       if ((gav.getVersion() == null) || gav.getVersion().trim().isEmpty())
       {
@@ -296,9 +309,19 @@ public class ProjectPlugin implements Plugin
                      help = "Perform a search only within the locally configured repository",
                      name = "offlineSearch"
             ) final boolean offline,
+            @Option(required = false,
+                     flagOnly = true,
+                     help = "Discard cached search results and consult the repositories again",
+                     name = "refresh"
+            ) final boolean refresh,
             final PipeOut out
             )
    {
+      if (refresh)
+      {
+         lookup.refresh();
+      }
+
       DependencyFacet manDeps = project.getFacet(DependencyFacet.class);
       if ((gav.getVersion() == null) || gav.getVersion().trim().isEmpty())
       {
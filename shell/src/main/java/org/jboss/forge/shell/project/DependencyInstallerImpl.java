@@ -10,6 +10,8 @@ import java.util.List;
 
 import javax.inject.Inject;
 
+import org.jboss.forge.maven.MavenCoreFacet;
+import org.jboss.forge.maven.PomTransaction;
 import org.jboss.forge.parser.java.util.Strings;
 import org.jboss.forge.project.Project;
 import org.jboss.forge.project.dependencies.Dependency;
@@ -58,6 +60,19 @@ public class DependencyInstallerImpl implements DependencyInstaller
 
    @Override
    public Dependency install(Project project, Dependency dependency, ScopeType type, DependencyFilter filter)
+   {
+      PomTransaction transaction = beginTransaction(project);
+      try
+      {
+         return doInstall(project, dependency, type, filter);
+      }
+      finally
+      {
+         commit(transaction);
+      }
+   }
+
+   private Dependency doInstall(Project project, Dependency dependency, ScopeType type, DependencyFilter filter)
    {
       DependencyFacet deps = project.getFacet(DependencyFacet.class);
 
@@ -173,6 +188,23 @@ public class DependencyInstallerImpl implements DependencyInstaller
    /*
     * Helpers
     */
+
+   /*
+    * The dependency and its managed version are written to the POM at once.
+    */
+   private PomTransaction beginTransaction(final Project project)
+   {
+      return project.hasFacet(MavenCoreFacet.class) ? project.getFacet(MavenCoreFacet.class).beginTransaction() : null;
+   }
+
+   private void commit(final PomTransaction transaction)
+   {
+      if ((transaction != null) && transaction.isActive())
+      {
+         transaction.commit();
+      }
+   }
+
    private DependencyBuilder getUnversioned(final Dependency dependency, final ScopeType type)
    {
       return getWithScopeType(dependency, type).setVersion(null);
@@ -13,6 +13,8 @@ import javax.enterprise.event.Observes;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 
+import org.jboss.forge.maven.MavenCoreFacet;
+import org.jboss.forge.maven.PomTransaction;
 import org.jboss.forge.project.Facet;
 import org.jboss.forge.project.Project;
 import org.jboss.forge.project.facets.FacetActionAborted;
@@ -51,19 +53,32 @@ public class FacetInstallationHandler
                || shell.promptBoolean("An action has requested to install the following facets into your project "
                         + request.getFacetTypes() + " continue?", true))
       {
-         for (Class<? extends Facet> type : request.getFacetTypes())
+         /*
+          * The facets and the facets they depend on change the POM at once.
+          */
+         PomTransaction transaction = project.hasFacet(MavenCoreFacet.class) ? project.getFacet(MavenCoreFacet.class)
+                  .beginTransaction() : null;
+         try
          {
-            Facet facet = factory.getFacet(type);
-            if (!project.hasFacet(type))
-            {
-               install(facet, false);
-               installed.add(facet);
-            }
-            else
+            for (Class<? extends Facet> type : request.getFacetTypes())
             {
-               shell.printlnVerbose("Facet type already installed [" + type + "]");
+               Facet facet = factory.getFacet(type);
+               if (!project.hasFacet(type))
+               {
+                  install(facet, false);
+                  installed.add(facet);
+               }
+               else
+               {
+                  shell.printlnVerbose("Facet type already installed [" + type + "]");
+               }
             }
          }
+         finally
+         {
+            if ((transaction != null) && transaction.isActive())
+               transaction.commit();
+         }
       }
       else if (request.promptRequested())
       {
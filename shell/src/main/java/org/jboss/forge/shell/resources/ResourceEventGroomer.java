@@ -7,15 +7,19 @@
 package org.jboss.forge.shell.resources;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
 
 import org.jboss.forge.bus.spi.EventBusGroomer;
 import org.jboss.forge.resources.Resource;
-import org.jboss.forge.resources.VirtualResource;
 import org.jboss.forge.resources.events.ResourceEvent;
 
 /**
- * Publishes file change events to the shell output stream.
+ * Collapses queued {@link ResourceEvent}s so that only the last event for each {@link Resource} is fired, at the
+ * position of that last event. All other events are left untouched.
  * 
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  */
@@ -24,67 +28,19 @@ public class ResourceEventGroomer implements EventBusGroomer
    @Override
    public List<Object> groom(final List<Object> events)
    {
-      List<Resource<?>> seen = new ArrayList<Resource<?>>();
-      List<Object> result = new ArrayList<Object>();
+      Set<Resource<?>> seen = new HashSet<Resource<?>>();
+      List<Object> result = new ArrayList<Object>(events.size());
 
-      for (Object e : events)
+      for (ListIterator<Object> iterator = events.listIterator(events.size()); iterator.hasPrevious();)
       {
-         if (e instanceof ResourceEvent)
+         Object e = iterator.previous();
+         if (!(e instanceof ResourceEvent) || seen.add(((ResourceEvent) e).getResource()))
          {
-            Resource<?> resource = ((ResourceEvent) e).getResource();
-            if (seen.contains(resource))
-            {
-               result.remove(seen.indexOf(resource));
-               seen.remove(seen.indexOf(resource));
-            }
             result.add(e);
-            seen.add(resource);
-         }
-         else
-         {
-            result.add(e);
-            seen.add(new Placeholder(null));
          }
       }
 
+      Collections.reverse(result);
       return result;
    }
-
-   private final class Placeholder extends VirtualResource<Object>
-   {
-      private Placeholder(final Resource<?> parent)
-      {
-         super(null);
-      }
-
-      @Override
-      public boolean delete() throws UnsupportedOperationException
-      {
-         return true;
-      }
-
-      @Override
-      public boolean delete(final boolean recursive) throws UnsupportedOperationException
-      {
-         return true;
-      }
-
-      @Override
-      public String getName()
-      {
-         return "";
-      }
-
-      @Override
-      protected List<Resource<?>> doListResources()
-      {
-         return new ArrayList<Resource<?>>();
-      }
-
-      @Override
-      public Object getUnderlyingResourceObject()
-      {
-         return new Object();
-      }
-   }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Bounded byte channel connecting the output of a piped command to the input of the next command. Writers block while
+ * the buffer is full, and readers block while it is empty, so that a pipeline runs in constant memory.
+ * <p>
+ * Closing the output signals the end of the stream to the reader, once the buffer has been drained. Closing the input
+ * discards any buffered and subsequently written data, so that a writer never blocks on a reader that has stopped
+ * reading.
+ */
+public class PipeChannel
+{
+   public static final int DEFAULT_CAPACITY = 0x10000;
+
+   /**
+    * The encoding of text written to, and read from, a channel.
+    */
+   public static final String ENCODING = "UTF-8";
+
+   private final byte[] buffer;
+   private int head;
+   private int count;
+   private boolean outputClosed;
+   private boolean inputClosed;
+
+   private final InputStream input = new ChannelInputStream();
+   private final OutputStream output = new ChannelOutputStream();
+
+   public PipeChannel()
+   {
+      this(DEFAULT_CAPACITY);
+   }
+
+   public PipeChannel(final int capacity)
+   {
+      if (capacity < 1)
+      {
+         throw new IllegalArgumentException("Capacity must be positive, was [" + capacity + "]");
+      }
+      this.buffer = new byte[capacity];
+   }
+
+   /**
+    * Return the reading end of this channel.
+    */
+   public InputStream getInputStream()
+   {
+      return input;
+   }
+
+   /**
+    * Return the writing end of this channel.
+    */
+   public OutputStream getOutputStream()
+   {
+      return output;
+   }
+
+   /**
+    * Signal that no more data will be written; the reader sees the end of the stream once the buffer is drained.
+    */
+   public synchronized void closeOutput()
+   {
+      outputClosed = true;
+      notifyAll();
+   }
+
+   /**
+    * Signal that no more data will be read; buffered data is discarded, as is any data written from now on.
+    */
+   public synchronized void closeInput()
+   {
+      inputClosed = true;
+      count = 0;
+      notifyAll();
+   }
+
+   private synchronized void write(final byte[] b, int offset, int length) throws IOException
+   {
+      while (length > 0)
+      {
+         if (outputClosed)
+         {
+            throw new IOException("Pipe closed");
+         }
+
+         while ((count == buffer.length) && !inputClosed)
+         {
+            await();
+         }
+
+         if (inputClosed)
+         {
+            return;
+         }
+
+         int tail = (head + count) % buffer.length;
+         int chunk = Math.min(length, Math.min(buffer.length - count, buffer.length - tail));
+         System.arraycopy(b, offset, buffer, tail, chunk);
+         count += chunk;
+         offset += chunk;
+         length -= chunk;
+         notifyAll();
+      }
+   }
+
+   private synchronized int read(final byte[] b, final int offset, final int length) throws IOException
+   {
+      if (length == 0)
+      {
+         return 0;
+      }
+
+      while (count == 0)
+      {
+         if (outputClosed || inputClosed)
+         {
+            return -1;
+         }
+         await();
+      }
+
+      int chunk = Math.min(length, Math.min(count, buffer.length - head));
+      System.arraycopy(buffer, head, b, offset, chunk);
+      head = (head + chunk) % buffer.length;
+      count -= chunk;
+      notifyAll();
+      return chunk;
+   }
+
+   private synchronized int available()
+   {
+      return count;
+   }
+
+   private void await() throws InterruptedIOException
+   {
+      try
+      {
+         wait();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting on pipe");
+      }
+   }
+
+   private class ChannelInputStream extends InputStream
+   {
+      @Override
+      public int read() throws IOException
+      {
+         byte[] single = new byte[1];
+         return PipeChannel.this.read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+      }
+
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException
+      {
+         return PipeChannel.this.read(b, off, len);
+      }
+
+      @Override
+      public int available() throws IOException
+      {
+         return PipeChannel.this.available();
+      }
+
+      @Override
+      public void close() throws IOException
+      {
+         closeInput();
+      }
+   }
+
+   private class ChannelOutputStream extends OutputStream
+   {
+      @Override
+      public void write(final int b) throws IOException
+      {
+         PipeChannel.this.write(new byte[] { (byte) b }, 0, 1);
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) throws IOException
+      {
+         PipeChannel.this.write(b, off, len);
+      }
+
+      @Override
+      public void close() throws IOException
+      {
+         closeOutput();
+      }
+   }
+}
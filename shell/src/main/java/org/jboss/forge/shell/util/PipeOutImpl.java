@@ -6,22 +6,35 @@
  */
 package org.jboss.forge.shell.util;
 
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
 import org.jboss.forge.shell.Shell;
 import org.jboss.forge.shell.ShellColor;
 import org.jboss.forge.shell.plugins.PipeOut;
 
 /**
+ * When piped, output is either buffered, or streamed to the next command through a {@link PipeChannel} (encoded as
+ * {@link PipeChannel#ENCODING}).
+ *
  * @author Mike Brock .
  */
 public class PipeOutImpl implements PipeOut
 {
    private final StringBuilder buffer = new StringBuilder();
    private final Shell shell;
+   private final PipeChannel channel;
    private boolean piped = false;
 
    public PipeOutImpl(final Shell shell)
+   {
+      this(shell, null);
+   }
+
+   public PipeOutImpl(final Shell shell, final PipeChannel channel)
    {
       this.shell = shell;
+      this.channel = channel;
    }
 
    @Override
@@ -29,7 +42,10 @@ public class PipeOutImpl implements PipeOut
    {
       if (piped)
       {
-         buffer.append(b);
+         if (channel != null)
+            stream(new byte[] { (byte) b }, 0, 1);
+         else
+            buffer.append(b);
       }
       else
       {
@@ -42,7 +58,10 @@ public class PipeOutImpl implements PipeOut
    {
       if (piped)
       {
-         buffer.append((char) b);
+         if (channel != null)
+            stream(new byte[] { b }, 0, 1);
+         else
+            buffer.append((char) b);
       }
       else
       {
@@ -55,7 +74,10 @@ public class PipeOutImpl implements PipeOut
    {
       if (piped)
       {
-         buffer.append(new String(b));
+         if (channel != null)
+            stream(b, 0, b.length);
+         else
+            buffer.append(new String(b));
       }
       else
       {
@@ -68,7 +90,10 @@ public class PipeOutImpl implements PipeOut
    {
       if (piped)
       {
-         buffer.append(new String(b, offset, length));
+         if (channel != null)
+            stream(b, offset, length);
+         else
+            buffer.append(new String(b, offset, length));
       }
       else
       {
@@ -81,7 +106,7 @@ public class PipeOutImpl implements PipeOut
    {
       if (piped)
       {
-         buffer.append(s);
+         append(s);
       }
       else
       {
@@ -94,7 +119,7 @@ public class PipeOutImpl implements PipeOut
    {
       if (piped)
       {
-         buffer.append(s).append("\n");
+         append(s + "\n");
       }
       else
       {
@@ -107,7 +132,7 @@ public class PipeOutImpl implements PipeOut
    {
       if (piped)
       {
-         buffer.append("\n");
+         append("\n");
       }
       else
       {
@@ -145,12 +170,47 @@ public class PipeOutImpl implements PipeOut
       this.piped = v;
    }
 
+   /**
+    * Return the buffered output. Output streamed through a {@link PipeChannel} is not buffered.
+    */
    @Override
    public String getBuffer()
    {
       return buffer.toString();
    }
 
+   private void append(final String s)
+   {
+      if (channel != null)
+      {
+         try
+         {
+            byte[] bytes = String.valueOf(s).getBytes(PipeChannel.ENCODING);
+            stream(bytes, 0, bytes.length);
+         }
+         catch (UnsupportedEncodingException e)
+         {
+            throw new RuntimeException(e);
+         }
+      }
+      else
+      {
+         buffer.append(s);
+      }
+   }
+
+   private void stream(final byte[] b, final int offset, final int length)
+   {
+      try
+      {
+         channel.getOutputStream().write(b, offset, length);
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException("broken pipe", e);
+      }
+   }
+
    @Override
    public void flush()
    {
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.forge.resources.DirectoryResource;
+import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.ResourceFilter;
+
+/**
+ * Walks a {@link Resource} tree, listing each {@link DirectoryResource} on at most the given number of threads of
+ * the shared {@link WorkerPool} (by default, the {@value #THREADS_PROPERTY} system property, or one thread per
+ * processor). Accepted
+ * resources are handed to the {@link Visitor} on the calling thread as soon as they are found, so that results may be
+ * streamed (for instance, into a {@link org.jboss.forge.shell.plugins.PipeOut}) while the walk is in progress.
+ * <p>
+ * By default resources are visited depth-first, in the order in which they are listed, exactly as a sequential walk
+ * would; directories are listed ahead of the walk. An {@link #unordered()} walk visits each resource as soon as its
+ * directory has been listed, in no defined order other than a resource always being visited after its parent. With a
+ * single thread, the tree is walked on the calling thread.
+ */
+public class ResourceTreeWalker
+{
+   public static final String THREADS_PROPERTY = "forge.find.threads";
+
+   private static final Object END = new Object();
+
+   private final int threads;
+   private boolean ordered = true;
+   private ResourceFilter prune;
+   private ResourceFilter accept;
+
+   public ResourceTreeWalker()
+   {
+      this(getDefaultThreads());
+   }
+
+   /**
+    * Create a walker; with a single thread, the tree is walked on the calling thread, otherwise on the shared pool.
+    */
+   public ResourceTreeWalker(final int threads)
+   {
+      this.threads = Math.max(1, threads);
+   }
+
+   /**
+    * Resources accepted by the given filter are skipped, along with all their children.
+    */
+   public ResourceTreeWalker prune(final ResourceFilter prune)
+   {
+      this.prune = prune;
+      return this;
+   }
+
+   /**
+    * Only resources accepted by the given filter are visited; their children are walked regardless.
+    */
+   public ResourceTreeWalker accept(final ResourceFilter accept)
+   {
+      this.accept = accept;
+      return this;
+   }
+
+   /**
+    * Visit resources as soon as they are found, rather than in the order of a depth-first walk.
+    */
+   public ResourceTreeWalker unordered()
+   {
+      this.ordered = false;
+      return this;
+   }
+
+   /**
+    * Walk the tree starting at (and including) the given resource.
+    */
+   public void walk(final Resource<?> root, final Visitor visitor)
+   {
+      if (isPruned(root))
+      {
+         return;
+      }
+
+      if (threads == 1)
+      {
+         walkSequentially(root, visitor);
+      }
+      else if (ordered)
+      {
+         walkInOrder(root, visitor);
+      }
+      else
+      {
+         walkInParallel(root, visitor);
+      }
+   }
+
+   private void walkSequentially(final Resource<?> resource, final Visitor visitor)
+   {
+      if (isAccepted(resource))
+      {
+         visitor.visit(resource);
+      }
+
+      List<Resource<?>> children = resource.listResources();
+      if (children != null)
+      {
+         for (Resource<?> child : children)
+         {
+            if (!isPruned(child))
+            {
+               walkSequentially(child, visitor);
+            }
+         }
+      }
+   }
+
+   private void walkInOrder(final Resource<?> root, final Visitor visitor)
+   {
+      Walk walk = new Walk();
+      try
+      {
+         walk.visitInOrder(root, null, visitor);
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+      }
+      finally
+      {
+         walk.cancelled = true;
+      }
+   }
+
+   private void walkInParallel(final Resource<?> root, final Visitor visitor)
+   {
+      Walk walk = new Walk();
+      try
+      {
+         walk.submit(root);
+
+         Object next;
+         while ((next = walk.results.take()) != END)
+         {
+            visitor.visit((Resource<?>) next);
+         }
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+      }
+      finally
+      {
+         walk.cancelled = true;
+      }
+
+      if (walk.failure.get() != null)
+      {
+         throw walk.failure.get();
+      }
+   }
+
+   private boolean isPruned(final Resource<?> resource)
+   {
+      return (prune != null) && prune.accept(resource);
+   }
+
+   private boolean isAccepted(final Resource<?> resource)
+   {
+      return (accept == null) || accept.accept(resource);
+   }
+
+   private static int getDefaultThreads()
+   {
+      return Math.max(1, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+   }
+
+   /**
+    * State shared by the tasks of a single parallel walk. Tasks run with the context class loader of the thread that
+    * started the walk, and do nothing once the walk has been cancelled.
+    */
+   private class Walk
+   {
+      private final Executor executor = WorkerPool.newExecutor(threads);
+      private volatile boolean cancelled;
+
+      private final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+      private final AtomicInteger pending = new AtomicInteger();
+      private final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+      /*
+       * Visit the given resource, whose children are being listed by the given task (if any), then its children. The
+       * child directories are all submitted for listing before the first of them is walked.
+       */
+      private void visitInOrder(final Resource<?> resource, final Future<List<Resource<?>>> listing,
+               final Visitor visitor) throws InterruptedException
+      {
+         if (isAccepted(resource))
+         {
+            visitor.visit(resource);
+         }
+
+         List<Resource<?>> children = listing == null ? resource.listResources() : getListing(listing);
+         if (children != null)
+         {
+            List<Resource<?>> walked = new ArrayList<Resource<?>>(children.size());
+            List<Future<List<Resource<?>>>> listings = new ArrayList<Future<List<Resource<?>>>>(children.size());
+            for (Resource<?> child : children)
+            {
+               if (!isPruned(child))
+               {
+                  walked.add(child);
+                  listings.add(child instanceof DirectoryResource ? list(child) : null);
+               }
+            }
+
+            for (int i = 0; i < walked.size(); i++)
+            {
+               visitInOrder(walked.get(i), listings.get(i), visitor);
+            }
+         }
+      }
+
+      private Future<List<Resource<?>>> list(final Resource<?> directory)
+      {
+         FutureTask<List<Resource<?>>> task = new FutureTask<List<Resource<?>>>(new Callable<List<Resource<?>>>()
+         {
+            @Override
+            public List<Resource<?>> call() throws Exception
+            {
+               return cancelled ? null : directory.listResources();
+            }
+         });
+         executor.execute(task);
+         return task;
+      }
+
+      private List<Resource<?>> getListing(final Future<List<Resource<?>>> listing) throws InterruptedException
+      {
+         try
+         {
+            return listing.get();
+         }
+         catch (ExecutionException e)
+         {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+               throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+               throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+         }
+      }
+
+      private void submit(final Resource<?> directory)
+      {
+         pending.incrementAndGet();
+         executor.execute(new Runnable()
+         {
+            @Override
+            public void run()
+            {
+               try
+               {
+                  if (!cancelled && (failure.get() == null))
+                  {
+                     listUnordered(directory);
+                  }
+               }
+               catch (RuntimeException e)
+               {
+                  failure.compareAndSet(null, e);
+               }
+               finally
+               {
+                  if (pending.decrementAndGet() == 0)
+                  {
+                     results.add(END);
+                  }
+               }
+            }
+         });
+      }
+
+      /*
+       * Child directories are listed by new tasks; any other children (such as the members of a Java source file) are
+       * listed on the current thread.
+       */
+      private void listUnordered(final Resource<?> resource)
+      {
+         if (isAccepted(resource))
+         {
+            results.add(resource);
+         }
+
+         List<Resource<?>> children = resource.listResources();
+         if (children != null)
+         {
+            for (Resource<?> child : children)
+            {
+               if (isPruned(child))
+               {
+                  continue;
+               }
+
+               if (child instanceof DirectoryResource)
+               {
+                  submit(child);
+               }
+               else
+               {
+                  listUnordered(child);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Receives the resources found by a {@link ResourceTreeWalker}, always on the thread that started the walk.
+    */
+   public interface Visitor
+   {
+      void visit(Resource<?> resource);
+   }
+}
@@ -6,12 +6,16 @@
  */
 package org.jboss.forge.env;
 
+import java.io.InputStream;
+
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.jboss.forge.project.Project;
 import org.jboss.forge.project.facets.events.InstallFacets;
 import org.jboss.forge.project.packaging.PackagingType;
+import org.jboss.forge.resources.FileResource;
+import org.jboss.forge.shell.util.Streams;
 import org.jboss.forge.test.AbstractShellTest;
 import org.junit.After;
 import org.junit.Assert;
@@ -194,6 +198,26 @@ public class ConfigurationImplTest extends AbstractShellTest
       Assert.assertNull(config.getString(key));
    }
 
+   @Test
+   public void testProjectConfigIsWrittenWhenLeavingProject() throws Exception
+   {
+      Project project = initializeProject(PackagingType.JAR);
+      config.getScopedConfiguration(ConfigurationScope.PROJECT).setProperty(key, "left");
+
+      getShell().setCurrentResource(createTempFolder());
+      FileResource<?> settings = project.getProjectRoot().getChild(".forge_settings").reify(FileResource.class);
+      Assert.assertTrue(settings.exists());
+      InputStream stream = settings.getResourceInputStream();
+      try
+      {
+         Assert.assertTrue(Streams.toString(stream).contains("left"));
+      }
+      finally
+      {
+         Streams.closeQuietly(stream);
+      }
+   }
+
    @Test
    public void testListConfig() throws Exception
    {
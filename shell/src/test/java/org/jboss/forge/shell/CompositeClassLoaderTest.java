@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.modules.ConcurrentClassLoader;
+import org.junit.Test;
+
+public class CompositeClassLoaderTest
+{
+   private static final String FOO = Foo.class.getName();
+   private static final String BAR = Bar.class.getName();
+   private static final String MISSING = CompositeClassLoaderTest.class.getName() + "$Missing";
+
+   @Test
+   public void testServingLoaderIsRemembered() throws Exception
+   {
+      CountingLoader first = new CountingLoader(BAR);
+      CountingLoader second = new CountingLoader(FOO);
+      CompositeClassLoader composite = compose(first, second);
+
+      assertSame(Foo.class, composite.findClass(FOO, false, false));
+      assertSame(Foo.class, composite.findClass(FOO, false, false));
+      assertEquals(1, first.getLookups(FOO));
+      assertEquals(2, second.getLookups(FOO));
+   }
+
+   @Test
+   public void testLoaderOrderWinsOverOtherClassesOfSamePackage() throws Exception
+   {
+      CountingLoader first = new CountingLoader(BAR);
+      CountingLoader second = new CountingLoader(FOO, BAR);
+      CompositeClassLoader composite = compose(first, second);
+
+      composite.findClass(FOO, false, false);
+      composite.findClass(BAR, false, false);
+      assertEquals(1, first.getLookups(BAR));
+      assertEquals(0, second.getLookups(BAR));
+   }
+
+   @Test
+   public void testMissingClassesFailFast() throws Exception
+   {
+      CountingLoader first = new CountingLoader(FOO);
+      CompositeClassLoader composite = compose(first);
+
+      assertMissing(composite, MISSING);
+      assertMissing(composite, MISSING);
+      assertEquals(1, first.getLookups(MISSING));
+   }
+
+   @Test
+   public void testMissingClassesAreBounded() throws Exception
+   {
+      CountingLoader first = new CountingLoader(FOO);
+      CompositeClassLoader composite = compose(first);
+
+      assertMissing(composite, MISSING);
+      for (int i = 0; i < CompositeClassLoader.MAX_MISSING_CLASSES; i++)
+      {
+         assertMissing(composite, MISSING + i);
+      }
+      assertMissing(composite, MISSING);
+      assertEquals(2, first.getLookups(MISSING));
+   }
+
+   @Test
+   public void testAddedLoaderResetsMissingClasses() throws Exception
+   {
+      CompositeClassLoader composite = compose(new CountingLoader(FOO));
+      assertMissing(composite, BAR);
+
+      composite.add(new CountingLoader(BAR));
+      assertSame(Bar.class, composite.findClass(BAR, false, false));
+   }
+
+   @Test
+   public void testClassDefinedAfterMissIsFoundOnceMissingClassesAreCleared() throws Exception
+   {
+      CountingLoader loader = new CountingLoader(FOO);
+      CompositeClassLoader composite = compose(loader);
+      assertMissing(composite, BAR);
+
+      loader.define(BAR);
+      assertMissing(composite, BAR);
+
+      composite.clearMissingClasses();
+      assertSame(Bar.class, composite.findClass(BAR, false, false));
+      assertEquals(2, loader.getLookups(BAR));
+   }
+
+   /**
+    * Compose the given loaders, which are consulted in the given order.
+    */
+   private static CompositeClassLoader compose(final CountingLoader... loaders)
+   {
+      CompositeClassLoader composite = new CompositeClassLoader();
+      for (int i = loaders.length - 1; i >= 0; i--)
+      {
+         composite.add(loaders[i]);
+      }
+      return composite;
+   }
+
+   private static void assertMissing(final CompositeClassLoader composite, final String className)
+   {
+      try
+      {
+         composite.findClass(className, false, false);
+         fail("Expected ClassNotFoundException for " + className);
+      }
+      catch (ClassNotFoundException e)
+      {
+         // expected
+      }
+   }
+
+   public static class Foo
+   {
+   }
+
+   public static class Bar
+   {
+   }
+
+   /**
+    * Serves the given classes, and those defined later, from the class loader of this test, counting the lookups of each
+    * class name.
+    */
+   private static class CountingLoader extends ConcurrentClassLoader
+   {
+      private final Set<String> classNames;
+      private final Map<String, Integer> lookups = new HashMap<String, Integer>();
+
+      public CountingLoader(final String... classNames)
+      {
+         this.classNames = Collections.synchronizedSet(new HashSet<String>(Arrays.asList(classNames)));
+      }
+
+      public void define(final String className)
+      {
+         classNames.add(className);
+      }
+
+      @Override
+      protected Class<?> findClass(final String className, final boolean exportsOnly, final boolean resolve)
+               throws ClassNotFoundException
+      {
+         synchronized (lookups)
+         {
+            Integer count = lookups.get(className);
+            lookups.put(className, count == null ? 1 : count + 1);
+         }
+         if (!classNames.contains(className))
+         {
+            throw new ClassNotFoundException(className);
+         }
+         return Class.forName(className, resolve, CompositeClassLoaderTest.class.getClassLoader());
+      }
+
+      public int getLookups(final String className)
+      {
+         synchronized (lookups)
+         {
+            Integer count = lookups.get(className);
+            return count == null ? 0 : count;
+         }
+      }
+   }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.env;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConfigurationFileTest
+{
+   private File file;
+
+   @Before
+   public void setUp() throws Exception
+   {
+      file = File.createTempFile("forge-config", ".xml");
+      file.delete();
+   }
+
+   @After
+   public void tearDown()
+   {
+      file.delete();
+   }
+
+   @Test
+   public void testChangesAreWrittenOnFlush() throws Exception
+   {
+      ConfigurationFile config = new ConfigurationFile(file);
+      for (int i = 0; i < 100; i++)
+      {
+         config.getConfiguration().setProperty("key" + i, "value" + i);
+      }
+      assertTrue(config.isModified());
+      assertFalse(file.exists());
+
+      config.flush();
+      assertFalse(config.isModified());
+      assertTrue(file.isFile());
+
+      ConfigurationFile reread = new ConfigurationFile(file);
+      assertEquals("value42", reread.getConfiguration().getString("key42"));
+      assertFalse(reread.isModified());
+   }
+
+   @Test
+   public void testRefreshReadsExternalChanges() throws Exception
+   {
+      ConfigurationFile config = new ConfigurationFile(file);
+      config.getConfiguration().setProperty("key", "old");
+      config.flush();
+
+      ConfigurationFile other = new ConfigurationFile(file);
+      other.getConfiguration().setProperty("key", "new");
+      other.getConfiguration().setProperty("padding", "changes the file length");
+      other.flush();
+
+      assertTrue(config.refresh());
+      assertEquals("new", config.getConfiguration().getString("key"));
+      assertFalse(config.isModified());
+      assertFalse(config.refresh());
+   }
+
+   @Test
+   public void testListenerIsToldOnceUntilWritten() throws Exception
+   {
+      final AtomicInteger notified = new AtomicInteger();
+      ConfigurationFile config = new ConfigurationFile(file);
+      config.addListener(new ConfigurationFile.Listener()
+      {
+         @Override
+         public void modified(final ConfigurationFile file)
+         {
+            notified.incrementAndGet();
+         }
+      });
+
+      config.getConfiguration().setProperty("first", "value");
+      config.getConfiguration().setProperty("second", "value");
+      assertEquals(1, notified.get());
+
+      config.flush();
+      config.getConfiguration().setProperty("third", "value");
+      assertEquals(2, notified.get());
+      config.flush();
+
+      ConfigurationFile other = new ConfigurationFile(file);
+      other.getConfiguration().setProperty("padding", "changes the file length");
+      other.flush();
+      assertTrue(config.refresh());
+      assertEquals(2, notified.get());
+   }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.command;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.shell.PluginEntry;
+import org.jboss.forge.shell.command.CommandInvoker;
+import org.jboss.forge.shell.command.CommandInvokerCache;
+import org.jboss.forge.shell.command.CommandMetadata;
+import org.jboss.forge.shell.command.PluginMetadataImpl;
+import org.jboss.forge.shell.command.PluginRegistry;
+import org.jboss.forge.shell.events.PluginRemoved;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class CommandInvokerCacheTest extends AbstractShellTest
+{
+   @Inject
+   private CommandInvokerCache cache;
+
+   @Inject
+   private PluginRegistry registry;
+
+   @Inject
+   private Event<PluginRemoved> pluginRemoved;
+
+   @Test
+   public void testInvokerIsReused() throws Exception
+   {
+      CommandMetadata command = getRunCommand();
+      CommandInvoker invoker = cache.getInvoker(command);
+      assertNotNull(invoker.getBean());
+      assertSame(invoker, cache.getInvoker(command));
+   }
+
+   @Test
+   public void testPluginRemovalInvalidatesInvokers() throws Exception
+   {
+      CommandMetadata command = getRunCommand();
+      CommandInvoker invoker = cache.getInvoker(command);
+      pluginRemoved.fire(new PluginRemoved(new PluginEntry("org.example.plugin")));
+      assertNotSame(invoker, cache.getInvoker(command));
+   }
+
+   @Test
+   public void testAddedPluginInvalidatesInvokers() throws Exception
+   {
+      CommandMetadata command = getRunCommand();
+      CommandInvoker invoker = cache.getInvoker(command);
+
+      PluginMetadataImpl plugin = new PluginMetadataImpl();
+      plugin.setName("mock-added-plugin");
+      plugin.setType(MockNamedPlugin.class);
+      registry.addPlugin(plugin);
+
+      assertNotSame(invoker, cache.getInvoker(command));
+   }
+
+   private CommandMetadata getRunCommand()
+   {
+      return registry.getPluginMetadata("mnp").get(0).getCommand("run");
+   }
+}
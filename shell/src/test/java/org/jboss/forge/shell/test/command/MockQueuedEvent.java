@@ -0,0 +1,14 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.command;
+
+import org.jboss.forge.QueuedEvent;
+
+@QueuedEvent
+public class MockQueuedEvent
+{
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+@Singleton
+public class MockQueuedEventObserver
+{
+   private final List<Thread> threads = new ArrayList<Thread>();
+
+   void observe(@Observes final MockQueuedEvent event)
+   {
+      synchronized (threads)
+      {
+         threads.add(Thread.currentThread());
+      }
+   }
+
+   public List<Thread> getThreads()
+   {
+      synchronized (threads)
+      {
+         return new ArrayList<Thread>(threads);
+      }
+   }
+}
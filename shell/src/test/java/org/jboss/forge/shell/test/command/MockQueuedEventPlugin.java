@@ -0,0 +1,29 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.command;
+
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import org.jboss.forge.shell.plugins.Alias;
+import org.jboss.forge.shell.plugins.DefaultCommand;
+import org.jboss.forge.shell.plugins.PipeOut;
+import org.jboss.forge.shell.plugins.Plugin;
+
+@Alias("mqep")
+public class MockQueuedEventPlugin implements Plugin
+{
+   @Inject
+   private Event<MockQueuedEvent> event;
+
+   @DefaultCommand
+   public void run(final PipeOut out)
+   {
+      event.fire(new MockQueuedEvent());
+      out.println("fired");
+   }
+}
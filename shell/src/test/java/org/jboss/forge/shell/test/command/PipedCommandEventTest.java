@@ -0,0 +1,35 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class PipedCommandEventTest extends AbstractShellTest
+{
+   @Inject
+   private MockQueuedEventObserver observer;
+
+   @Test
+   public void testQueuedEventOfPipedCommandIsDeliveredOnShellThread() throws Exception
+   {
+      getShell().execute("mqep | cat");
+      List<Thread> threads = observer.getThreads();
+      assertEquals(1, threads.size());
+      assertSame(Thread.currentThread(), threads.get(0));
+   }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.command.fshparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.forge.shell.command.fshparser.ScriptCache;
+import org.junit.Test;
+
+public class ScriptCacheTest
+{
+   @Test
+   public void testStatementsAreParsedOnce() throws Exception
+   {
+      ScriptCache cache = new ScriptCache();
+      assertSame(cache.parse("ls -l | wc -l"), cache.parse("ls -l | wc -l"));
+      assertNotSame(cache.parse("ls -l"), cache.parse("ls -a"));
+   }
+
+   @Test
+   public void testExpressionsAreCompiledOnce() throws Exception
+   {
+      ScriptCache cache = new ScriptCache();
+      assertSame(cache.compile("x * 2"), cache.compile("x * 2"));
+
+      Map<String, Object> vars = new HashMap<String, Object>();
+      for (int i = 0; i < 3; i++)
+      {
+         vars.put("x", i);
+         assertEquals(i * 2, cache.execute("x * 2", null, vars));
+      }
+   }
+
+   @Test
+   public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception
+   {
+      ScriptCache cache = new ScriptCache(1);
+      Object first = cache.compile("1 + 1");
+      cache.compile("2 + 2");
+      assertNotSame(first, cache.compile("1 + 1"));
+   }
+}
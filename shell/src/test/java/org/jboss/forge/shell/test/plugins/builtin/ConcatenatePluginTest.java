@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.plugins.builtin;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class ConcatenatePluginTest extends AbstractShellTest
+{
+   @Test
+   public void testConcatenatesFiles() throws Exception
+   {
+      writeFile("first.txt", "alpha\n");
+      writeFile("second.txt", "beta");
+      getShell().execute("cat first.txt second.txt");
+      assertTrue(getOutput().contains("alpha"));
+      assertTrue(getOutput().contains("beta"));
+      assertTrue(getOutput().indexOf("alpha") < getOutput().indexOf("beta"));
+   }
+
+   @Test
+   public void testCopiesPipe() throws Exception
+   {
+      getShell().execute("echo gr\u00fc\u00dfe");
+      String direct = getOutput();
+      getShell().execute("echo gr\u00fc\u00dfe | cat");
+      assertTrue(getOutput().substring(direct.length()).contains(direct.trim()));
+   }
+
+   @Test
+   public void testCopiesPipeThroughSeveralCommands() throws Exception
+   {
+      writeFile("greek.txt", "alpha\nbeta\ngamma\n");
+      getShell().execute("cat greek.txt | cat | cat");
+      assertTrue(getOutput().contains("alpha"));
+      assertTrue(getOutput().contains("gamma"));
+   }
+
+   private void writeFile(final String name, final String contents) throws IOException
+   {
+      OutputStream out = new FileOutputStream(new File(getShell().getCurrentDirectory().getUnderlyingResourceObject(),
+               name));
+      try
+      {
+         out.write(contents.getBytes());
+      }
+      finally
+      {
+         out.close();
+      }
+   }
+}
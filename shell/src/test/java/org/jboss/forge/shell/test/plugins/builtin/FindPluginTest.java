@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.plugins.builtin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class FindPluginTest extends AbstractShellTest
+{
+   private File root;
+
+   @Before
+   public void createTree() throws Exception
+   {
+      root = getShell().getCurrentDirectory().getUnderlyingResourceObject();
+      new File(root, "src/main").mkdirs();
+      new File(root, "target/classes").mkdirs();
+      writeFile("src/main/One.java", "class One {}");
+      writeFile("src/main/notes.txt", "notes");
+      writeFile("target/classes/Two.java", "class Two {}");
+   }
+
+   @Test
+   public void testListsResourcesDepthFirst() throws Exception
+   {
+      getShell().execute("find");
+      assertEquals(Arrays.asList("", "src", "src/main", "src/main/One.java", "src/main/notes.txt", "target",
+               "target/classes", "target/classes/Two.java"), getFound());
+   }
+
+   @Test
+   public void testFiltersByName() throws Exception
+   {
+      getShell().execute("find --name \"*.java\"");
+      assertEquals(Arrays.asList("src/main/One.java", "target/classes/Two.java"), getFound());
+   }
+
+   @Test
+   public void testFiltersByType() throws Exception
+   {
+      getShell().execute("find --type d --name \"ma?n\"");
+      getShell().execute("find --type f --name \"*.txt\"");
+      assertEquals(Arrays.asList("src/main", "src/main/notes.txt"), getFound());
+   }
+
+   @Test
+   public void testSkipsResourcesIgnoredByGit() throws Exception
+   {
+      new File(root, ".git").mkdirs();
+      writeFile(".gitignore", "target/\n*.txt\n");
+
+      getShell().execute("find --gitignore");
+      assertEquals(Arrays.asList("", ".gitignore", "src", "src/main", "src/main/One.java"), getFound());
+   }
+
+   @Test
+   public void testUnorderedListsTheSameResources() throws Exception
+   {
+      getShell().execute("find --unordered --name \"*.java\"");
+      List<String> found = getFound();
+      Collections.sort(found);
+      assertEquals(Arrays.asList("src/main/One.java", "target/classes/Two.java"), found);
+   }
+
+   @Test
+   public void testRejectsUnknownType() throws Exception
+   {
+      try
+      {
+         getShell().execute("find --type x");
+         fail();
+      }
+      catch (Exception e)
+      {
+      }
+   }
+
+   /*
+    * The paths listed below the current directory, relative to it
+    */
+   private List<String> getFound()
+   {
+      String prefix = root.getAbsolutePath();
+      List<String> result = new ArrayList<String>();
+      for (String line : getOutput().split("\r?\n"))
+      {
+         if (line.equals(prefix))
+         {
+            result.add("");
+         }
+         else if (line.startsWith(prefix + File.separator))
+         {
+            result.add(line.substring(prefix.length() + 1).replace(File.separatorChar, '/'));
+         }
+      }
+      return result;
+   }
+
+   private void writeFile(final String name, final String contents) throws IOException
+   {
+      OutputStream out = new FileOutputStream(new File(root, name));
+      try
+      {
+         out.write(contents.getBytes());
+      }
+      finally
+      {
+         out.close();
+      }
+   }
+}
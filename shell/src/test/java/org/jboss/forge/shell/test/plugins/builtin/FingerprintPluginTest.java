@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.plugins.builtin;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class FingerprintPluginTest extends AbstractShellTest
+{
+   @Test
+   public void testFingerprintsFile() throws Exception
+   {
+      byte[] contents = "alpha\nbeta\ngamma\n".getBytes();
+      writeFile("greek.txt", contents);
+      getShell().execute("fingerprint greek.txt");
+      assertTrue(getOutput().contains("greek.txt " + digest("SHA-256", contents)));
+   }
+
+   @Test
+   public void testFingerprintsFileWithCipher() throws Exception
+   {
+      byte[] contents = "alpha\nbeta\ngamma\n".getBytes();
+      writeFile("greek.txt", contents);
+      getShell().execute("fingerprint --cipher md5 greek.txt");
+      assertTrue(getOutput().contains("greek.txt " + digest("MD5", contents)));
+   }
+
+   @Test
+   public void testFingerprintsLargeFile() throws Exception
+   {
+      byte[] contents = new byte[0x180000];
+      for (int i = 0; i < contents.length; i++)
+      {
+         contents[i] = (byte) (i * 31);
+      }
+      writeFile("large.bin", contents);
+      getShell().execute("fingerprint large.bin");
+      assertTrue(getOutput().contains("large.bin " + digest("SHA-256", contents)));
+   }
+
+   @Test
+   public void testFingerprintsPipe() throws Exception
+   {
+      byte[] contents = "alpha\nbeta\ngamma\n".getBytes();
+      writeFile("greek.txt", contents);
+      getShell().execute("cat greek.txt | fingerprint");
+      assertTrue(getOutput().contains(digest("SHA-256", contents)));
+   }
+
+   /**
+    * Digest the given bytes, printed the way the fingerprint command prints them.
+    */
+   private static String digest(final String cipher, final byte[] contents) throws Exception
+   {
+      StringBuilder result = new StringBuilder();
+      for (byte b : MessageDigest.getInstance(cipher).digest(contents))
+      {
+         result.append(Integer.toHexString(0xFF & b));
+      }
+      return result.toString();
+   }
+
+   private void writeFile(final String name, final byte[] contents) throws IOException
+   {
+      OutputStream out = new FileOutputStream(new File(getShell().getCurrentDirectory().getUnderlyingResourceObject(),
+               name));
+      try
+      {
+         out.write(contents);
+      }
+      finally
+      {
+         out.close();
+      }
+   }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.plugins.builtin;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class GrepPluginTest extends AbstractShellTest
+{
+   @Test
+   public void testFindsPatternInFile() throws Exception
+   {
+      writeFile("greek.txt", "alpha\nbeta\ngamma\n");
+      getShell().execute("grep et greek.txt");
+      assertTrue(getOutput().contains("beta"));
+      assertFalse(getOutput().contains("alpha"));
+      assertFalse(getOutput().contains("gamma"));
+   }
+
+   @Test
+   public void testIgnoresCase() throws Exception
+   {
+      writeFile("greek.txt", "alpha\nbeta\ngamma\n");
+      getShell().execute("grep -i GAM greek.txt");
+      assertTrue(getOutput().contains("gamma"));
+      assertFalse(getOutput().contains("beta"));
+   }
+
+   @Test
+   public void testRegExpMatchesWholeLine() throws Exception
+   {
+      writeFile("greek.txt", "alpha\nbeta\ngamma\n");
+      getShell().execute("grep -e bet greek.txt");
+      assertFalse(getOutput().contains("beta"));
+      getShell().execute("grep -e beta greek.txt");
+      assertTrue(getOutput().contains("beta"));
+   }
+
+   @Test
+   public void testFindsPatternInPipe() throws Exception
+   {
+      writeFile("greek.txt", "alpha\nbeta\ngamma\n");
+      getShell().execute("cat greek.txt | grep mm");
+      assertTrue(getOutput().contains("gamma"));
+      assertFalse(getOutput().contains("beta"));
+   }
+
+   @Test
+   public void testDecodesPipeAsWritten() throws Exception
+   {
+      getShell().execute("echo gr\u00fc\u00dfe");
+      String direct = getOutput();
+      getShell().execute("echo gr\u00fc\u00dfe | grep gr\u00fc");
+      assertTrue(getOutput().substring(direct.length()).contains(direct.trim()));
+   }
+
+   private void writeFile(final String name, final String contents) throws IOException
+   {
+      OutputStream out = new FileOutputStream(new File(getShell().getCurrentDirectory().getUnderlyingResourceObject(),
+               name));
+      try
+      {
+         out.write(contents.getBytes());
+      }
+      finally
+      {
+         out.close();
+      }
+   }
+}
@@ -90,4 +90,19 @@ public class SetupCommandTest extends AbstractShellTest
       Assert.assertTrue(getProject().hasFacet(MockFacet.class));
       Assert.assertTrue(getProject().hasFacet(MockFacet2.class));
    }
-}
\ No newline at end of file
+
+   @Test
+   public void testRegistryFollowsInstalledFacets() throws Exception
+   {
+      initializeJavaProject();
+
+      PluginMetadata setupView = registry.getPluginMetadataForScopeAndConstraints("testplugin", getShell());
+      Assert.assertSame(setupView, registry.getPluginMetadataForScopeAndConstraints("testplugin", getShell()));
+      Assert.assertEquals(1, setupView.getAllCommands().size());
+
+      getShell().execute("setup testplugin");
+
+      PluginMetadata pluginMetadata = registry.getPluginMetadataForScopeAndConstraints("testplugin", getShell());
+      Assert.assertTrue(pluginMetadata.getAllCommands().size() > 1);
+   }
+}
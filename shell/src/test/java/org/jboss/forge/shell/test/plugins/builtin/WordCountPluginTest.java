@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.plugins.builtin;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class WordCountPluginTest extends AbstractShellTest
+{
+   @Test
+   public void testCountsWordsOfFile() throws Exception
+   {
+      writeFile("words.txt", "one two three\nfour\n");
+      getShell().execute("wc words.txt");
+      assertTrue(getOutput().matches("(?s).*\\b4\\s+words\\.txt.*"));
+   }
+
+   @Test
+   public void testCountsLinesOfFile() throws Exception
+   {
+      writeFile("words.txt", "one two three\nfour\n");
+      getShell().execute("wc -l words.txt");
+      assertTrue(getOutput().matches("(?s).*\\b2\\s+words\\.txt.*"));
+   }
+
+   @Test
+   public void testCountsCharactersOfFile() throws Exception
+   {
+      writeFile("words.txt", "one two three\nfour\n");
+      getShell().execute("wc -c words.txt");
+      assertTrue(getOutput().matches("(?s).*\\b19\\s+words\\.txt.*"));
+   }
+
+   @Test
+   public void testCountsLinesOfPipe() throws Exception
+   {
+      writeFile("words.txt", "one two three\nfour\n");
+      getShell().execute("cat words.txt | wc -l");
+      assertTrue(getOutput().matches("(?s).*\\b2\\s+<pipe>.*"));
+   }
+
+   private void writeFile(final String name, final String contents) throws IOException
+   {
+      OutputStream out = new FileOutputStream(new File(getShell().getCurrentDirectory().getUnderlyingResourceObject(),
+               name));
+      try
+      {
+         out.write(contents.getBytes());
+      }
+      finally
+      {
+         out.close();
+      }
+   }
+}
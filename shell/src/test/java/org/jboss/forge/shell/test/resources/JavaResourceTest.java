@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.parser.JavaParser;
+import org.jboss.forge.parser.java.JavaClass;
+import org.jboss.forge.project.Project;
+import org.jboss.forge.project.facets.JavaSourceFacet;
+import org.jboss.forge.resources.java.JavaFieldResource;
+import org.jboss.forge.resources.java.JavaMethodResource;
+import org.jboss.forge.resources.java.JavaResource;
+import org.jboss.forge.resources.java.JavaSourceCache;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class JavaResourceTest extends AbstractShellTest
+{
+   @Test
+   public void testRepeatedGetJavaSourceReadsFileOnce() throws Exception
+   {
+      JavaResource resource = saveExample();
+      JavaSourceCache cache = JavaResource.getJavaSourceCache();
+
+      JavaClass first = (JavaClass) resource.getJavaSource();
+      long hits = cache.getHits();
+      JavaClass second = (JavaClass) resource.getJavaSource();
+
+      assertNotSame(first, second);
+      assertEquals(hits + 1, cache.getHits());
+
+      first.removeField(first.getField("name"));
+      assertTrue(second.hasField("name"));
+      assertTrue(((JavaClass) resource.getJavaSource()).hasField("name"));
+   }
+
+   @Test
+   public void testDeletingMembersLeavesListedSourceUnchanged() throws Exception
+   {
+      JavaResource resource = saveExample();
+
+      JavaFieldResource field = (JavaFieldResource) resource.getChild("name");
+      JavaMethodResource method = (JavaMethodResource) resource.getChild("getName");
+      JavaClass listed = (JavaClass) field.getUnderlyingResourceObject().getOrigin();
+
+      assertTrue(field.delete());
+      assertTrue(method.delete());
+
+      assertTrue(listed.hasField("name"));
+      assertTrue(listed.hasMethodSignature("getName"));
+
+      JavaClass saved = (JavaClass) resource.getJavaSource();
+      assertFalse(saved.hasField("name"));
+      assertFalse(saved.hasMethodSignature("getName"));
+      assertTrue(saved.hasMethodSignature("setName", String.class));
+   }
+
+   private JavaResource saveExample() throws Exception
+   {
+      Project project = initializeJavaProject();
+      JavaSourceFacet java = project.getFacet(JavaSourceFacet.class);
+      JavaClass javaClass = JavaParser
+               .parse(JavaClass.class,
+                        "public class Example { private String name; public String getName() {return name;} public void setName(String name){this.name = name;}}");
+      javaClass.setPackage("org.example");
+      return java.saveJavaSource(javaClass);
+   }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.InputStream;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.ForgeEnvironment;
+import org.jboss.forge.parser.JavaParser;
+import org.jboss.forge.parser.java.JavaClass;
+import org.jboss.forge.project.Project;
+import org.jboss.forge.project.facets.JavaSourceFacet;
+import org.jboss.forge.resources.java.JavaResource;
+import org.jboss.forge.resources.java.JavaTypeIndex;
+import org.jboss.forge.resources.java.JavaTypeInfo;
+import org.jboss.forge.shell.util.Streams;
+import org.jboss.forge.test.AbstractShellTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class JavaTypeIndexProjectTest extends AbstractShellTest
+{
+   @Inject
+   private ForgeEnvironment environment;
+
+   @Inject
+   private JavaTypeIndex index;
+
+   @Test
+   public void testStoredIndexIsLoadedByNewInstance() throws Exception
+   {
+      Project project = initializeJavaProject();
+      JavaResource resource = save(project, "@Deprecated public class Example {}");
+      File file = resource.getUnderlyingResourceObject();
+
+      JavaTypeIndex first = new JavaTypeIndex(environment);
+      assertTrue(find(first.getTypes(project), "org.example.Example").hasAnnotation("Deprecated"));
+
+      /*
+       * Same length and modification time: a loaded index has no reason to parse the file again.
+       */
+      long lastModified = file.lastModified();
+      InputStream stream = resource.getResourceInputStream();
+      try
+      {
+         write(file, Streams.toString(stream).replace("@Deprecated", "@Documented"));
+      }
+      finally
+      {
+         Streams.closeQuietly(stream);
+      }
+      file.setLastModified(lastModified);
+
+      JavaTypeIndex second = new JavaTypeIndex(environment);
+      assertTrue(find(second.getTypes(project), "org.example.Example").hasAnnotation("Deprecated"));
+   }
+
+   @Test
+   public void testRescanOnlyParsesChangedFiles() throws Exception
+   {
+      Project project = initializeJavaProject();
+      save(project, "public class Unchanged {}");
+      JavaResource changed = save(project, "public class Changed {}");
+
+      JavaTypeInfo unchanged = find(index.getTypes(project), "org.example.Unchanged");
+      assertEquals(0, index.findAnnotatedWith(project, "Deprecated").size());
+
+      save(project, "@Deprecated public class Changed { private String name; }");
+      save(project, "@Deprecated public class Added {}");
+      getShell().execute("pwd");
+
+      List<JavaTypeInfo> types = index.getTypes(project);
+      assertSame(unchanged, find(types, "org.example.Unchanged"));
+      assertTrue(find(types, "org.example.Changed").getMembers().contains("name"));
+      assertEquals(2, index.findAnnotatedWith(project, "Deprecated").size());
+
+      changed.delete();
+      getShell().execute("pwd");
+      assertEquals(1, index.findAnnotatedWith(project, "Deprecated").size());
+   }
+
+   @Test
+   public void testDirectoryQuerySeesSourcesWrittenInTheSameCommand() throws Exception
+   {
+      Project project = initializeJavaProject();
+      JavaSourceFacet java = project.getFacet(JavaSourceFacet.class);
+      save(project, "public class First {}");
+      find(index.getTypes(project), "org.example.First");
+
+      save(project, "public class Second {}");
+      List<JavaTypeInfo> types = index.getTypes(project, java.getSourceFolder().getChildDirectory("org/example"));
+      find(types, "org.example.First");
+      find(types, "org.example.Second");
+   }
+
+   private JavaResource save(final Project project, final String source) throws Exception
+   {
+      JavaClass javaClass = JavaParser.parse(JavaClass.class, source);
+      javaClass.setPackage("org.example");
+      return project.getFacet(JavaSourceFacet.class).saveJavaSource(javaClass);
+   }
+
+   private static JavaTypeInfo find(final List<JavaTypeInfo> types, final String qualifiedName)
+   {
+      for (JavaTypeInfo info : types)
+      {
+         if (info.getQualifiedName().equals(qualifiedName))
+         {
+            return info;
+         }
+      }
+      assertNotNull("No indexed type " + qualifiedName, null);
+      return null;
+   }
+
+   private static void write(final File file, final String contents) throws Exception
+   {
+      FileWriter writer = new FileWriter(file);
+      try
+      {
+         writer.write(contents);
+      }
+      finally
+      {
+         writer.close();
+      }
+   }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jboss.forge.shell.util.PipeChannel;
+import org.junit.Test;
+
+public class PipeChannelTest
+{
+   @Test(timeout = 10000)
+   public void testStreamsMoreThanCapacity() throws Exception
+   {
+      final PipeChannel channel = new PipeChannel(16);
+      Thread writer = new Thread()
+      {
+         @Override
+         public void run()
+         {
+            try
+            {
+               OutputStream out = channel.getOutputStream();
+               for (int i = 0; i < 1000; i++)
+               {
+                  out.write(i % 128);
+               }
+            }
+            catch (IOException e)
+            {
+               throw new RuntimeException(e);
+            }
+            finally
+            {
+               channel.closeOutput();
+            }
+         }
+      };
+      writer.start();
+
+      InputStream in = channel.getInputStream();
+      byte[] buffer = new byte[7];
+      int total = 0;
+      int read;
+      while ((read = in.read(buffer)) >= 0)
+      {
+         for (int i = 0; i < read; i++)
+         {
+            assertEquals((total + i) % 128, buffer[i]);
+         }
+         total += read;
+      }
+      writer.join();
+
+      assertEquals(1000, total);
+   }
+
+   @Test(timeout = 10000)
+   public void testClosedInputReleasesWriter() throws Exception
+   {
+      final PipeChannel channel = new PipeChannel(4);
+      Thread writer = new Thread()
+      {
+         @Override
+         public void run()
+         {
+            try
+            {
+               channel.getOutputStream().write(new byte[1024]);
+            }
+            catch (IOException e)
+            {
+               throw new RuntimeException(e);
+            }
+         }
+      };
+      writer.start();
+
+      assertEquals(0, channel.getInputStream().read());
+      channel.closeInput();
+      writer.join();
+
+      assertEquals(-1, channel.getInputStream().read());
+   }
+}
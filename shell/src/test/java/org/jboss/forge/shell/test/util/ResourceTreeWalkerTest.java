@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.shell.test.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.forge.project.services.ResourceFactory;
+import org.jboss.forge.resources.DirectoryResource;
+import org.jboss.forge.resources.Resource;
+import org.jboss.forge.resources.ResourceFilter;
+import org.jboss.forge.resources.ResourceFlag;
+import org.jboss.forge.shell.util.ResourceTreeWalker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResourceTreeWalkerTest
+{
+   private final ResourceFactory factory = new ResourceFactory();
+   private File root;
+
+   @Before
+   public void setUp() throws Exception
+   {
+      root = File.createTempFile("forge-walk", "");
+      root.delete();
+      for (String dir : new String[] { "a/x/deep", "a/y", "b", "c/z" })
+      {
+         new File(root, dir).mkdirs();
+      }
+      for (String file : new String[] { "a/one.txt", "a/x/two.java", "a/x/deep/three.txt", "a/y/four.txt",
+               "b/five.java", "c/z/six.txt", "seven.txt" })
+      {
+         new File(root, file).createNewFile();
+      }
+   }
+
+   @After
+   public void tearDown()
+   {
+      delete(root);
+   }
+
+   @Test
+   public void testOrderedWalkMatchesSequentialWalk() throws Exception
+   {
+      List<String> sequential = walk(new ResourceTreeWalker(1));
+      assertEquals(15, sequential.size());
+      assertEquals(sequential, walk(new ResourceTreeWalker(4)));
+   }
+
+   @Test
+   public void testUnorderedWalkVisitsEveryResourceAfterItsParent() throws Exception
+   {
+      List<String> sequential = walk(new ResourceTreeWalker(1));
+      List<String> unordered = walk(new ResourceTreeWalker(4).unordered());
+
+      assertEquals(sorted(sequential), sorted(unordered));
+      for (String path : unordered)
+      {
+         String parent = new File(path).getParent();
+         if (!new File(path).equals(root))
+         {
+            assertTrue(unordered.indexOf(parent) < unordered.indexOf(path));
+         }
+      }
+   }
+
+   @Test
+   public void testPrunedResourcesAndTheirChildrenAreSkipped() throws Exception
+   {
+      ResourceFilter prune = new ResourceFilter()
+      {
+         @Override
+         public boolean accept(final Resource<?> resource)
+         {
+            return "x".equals(resource.getName()) || "b".equals(resource.getName());
+         }
+      };
+
+      for (ResourceTreeWalker walker : walkers())
+      {
+         List<String> visited = walk(walker.prune(prune));
+         assertEquals(sorted(Arrays.asList(path(""), path("a"), path("a/one.txt"), path("a/y"),
+                  path("a/y/four.txt"), path("c"), path("c/z"), path("c/z/six.txt"), path("seven.txt"))),
+                  sorted(visited));
+      }
+   }
+
+   @Test
+   public void testChildrenOfRejectedResourcesAreWalked() throws Exception
+   {
+      ResourceFilter files = new ResourceFilter()
+      {
+         @Override
+         public boolean accept(final Resource<?> resource)
+         {
+            return !resource.isFlagSet(ResourceFlag.Node) && resource.getName().endsWith(".java");
+         }
+      };
+
+      for (ResourceTreeWalker walker : walkers())
+      {
+         assertEquals(Arrays.asList(path("a/x/two.java"), path("b/five.java")), sorted(walk(walker.accept(files))));
+      }
+   }
+
+   @Test
+   public void testListingFailuresAreRethrownOnTheCallingThread() throws Exception
+   {
+      final RuntimeException failure = new RuntimeException("listing failed");
+      for (ResourceTreeWalker walker : walkers())
+      {
+         DirectoryResource failing = new DirectoryResource(factory, new File(root, "a"))
+         {
+            @Override
+            public synchronized List<Resource<?>> listResources()
+            {
+               throw failure;
+            }
+         };
+         try
+         {
+            walk(walker, new Parent(factory, root, failing));
+            fail("Expected the listing failure to be rethrown");
+         }
+         catch (RuntimeException e)
+         {
+            assertSame(failure, e);
+         }
+      }
+   }
+
+   @Test
+   public void testInterruptedWalkStops() throws Exception
+   {
+      List<String> all = walk(new ResourceTreeWalker(1));
+      for (ResourceTreeWalker walker : Arrays.asList(new ResourceTreeWalker(4), new ResourceTreeWalker(4).unordered()))
+      {
+         Thread.currentThread().interrupt();
+         try
+         {
+            assertTrue(walk(walker).size() < all.size());
+         }
+         finally
+         {
+            assertTrue(Thread.interrupted());
+         }
+      }
+      assertFalse(Thread.currentThread().isInterrupted());
+   }
+
+   private List<ResourceTreeWalker> walkers()
+   {
+      return Arrays.asList(new ResourceTreeWalker(1), new ResourceTreeWalker(4),
+               new ResourceTreeWalker(4).unordered());
+   }
+
+   private List<String> walk(final ResourceTreeWalker walker)
+   {
+      return walk(walker, new DirectoryResource(factory, root));
+   }
+
+   private List<String> walk(final ResourceTreeWalker walker, final Resource<?> start)
+   {
+      final List<String> visited = new ArrayList<String>();
+      final Thread caller = Thread.currentThread();
+      walker.walk(start, new ResourceTreeWalker.Visitor()
+      {
+         @Override
+         public void visit(final Resource<?> resource)
+         {
+            assertSame(caller, Thread.currentThread());
+            visited.add(((File) resource.getUnderlyingResourceObject()).getAbsolutePath());
+         }
+      });
+      return visited;
+   }
+
+   private String path(final String relative)
+   {
+      return relative.length() == 0 ? root.getAbsolutePath() : new File(root, relative).getAbsolutePath();
+   }
+
+   private static List<String> sorted(final List<String> paths)
+   {
+      List<String> result = new ArrayList<String>(paths);
+      Collections.sort(result);
+      return result;
+   }
+
+   private static void delete(final File file)
+   {
+      File[] children = file.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            delete(child);
+         }
+      }
+      file.delete();
+   }
+
+   /*
+    * A directory whose only child is the given resource
+    */
+   private static class Parent extends DirectoryResource
+   {
+      private final Resource<?> child;
+
+      public Parent(final ResourceFactory factory, final File file, final Resource<?> child)
+      {
+         super(factory, file);
+         this.child = child;
+      }
+
+      @Override
+      public synchronized List<Resource<?>> listResources()
+      {
+         return new ArrayList<Resource<?>>(Arrays.<Resource<?>> asList(child));
+      }
+   }
+}